@@ -0,0 +1,399 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.base.Splitter;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.log.Logger;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Rules of access to a domain, from {@code /.s3auth} file in its bucket.
+ *
+ * <p>The file lists paths open to everybody, without authentication,
+ * networks allowed or denied, and regular expressions of resources
+ * temporarily rejected, one per line, for example:
+ *
+ * <pre> # comments start with a hash
+ * /robots.txt
+ * /favicon.ico
+ * /assets/
+ * /images/*
+ * *.css
+ * allow 10.0.0.0/8
+ * deny 10.1.2.0/24
+ * reject /old/.*\.zip</pre>
+ *
+ * <p>A line ending with a slash or an asterisk opens everything that
+ * starts with it, a line without asterisks opens exactly that path, and
+ * any other line is a glob, where an asterisk matches any characters.
+ * Prefixes and exact paths are compiled into a trie, so that a lookup
+ * takes one pass over the path, no matter how many rules there are.
+ * Networks are explained in {@link Networks}. If any of them is not
+ * valid, the file is ignored and nobody is allowed, until it is fixed.
+ * Rejected resources are matched against the entire URI, the same way
+ * as the global patterns of {@link RejectingHost}, all of them combined
+ * into one regular expression; a line that is not a valid regular
+ * expression is ignored.
+ * The file is loaded and revalidated the same way as {@link Htpasswd},
+ * see {@link RevalidatedFiles}. A file that S3 doesn't let us read is
+ * the same as a missing one, see {@link BucketFile}. If the file can't
+ * be loaded, the rules loaded before are kept, and if there are none,
+ * there are no rules, so that a domain without the file is not blocked
+ * by a failure of S3.
+ *
+ * <p>Networks are matched against the address the connection comes
+ * from. Behind a load balancer or a proxy that is the address of the
+ * balancer, not of the client, so networks must be restricted there,
+ * since a header like {@code X-Forwarded-For} may be forged by anyone.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+final class AccessRules {
+
+    /**
+     * Name of the file.
+     */
+    private static final String NAME = ".s3auth";
+
+    /**
+     * Rule of a network, like {@code allow 10.0.0.0/8}.
+     */
+    private static final Pattern NETWORK =
+        Pattern.compile("(?:allow|deny)\\s+\\S+");
+
+    /**
+     * Rule of a rejected resource, like {@code reject /old/.*}.
+     */
+    private static final Pattern REJECT =
+        Pattern.compile("reject\\s+(\\S+)");
+
+    /**
+     * Rules of networks that deny everybody.
+     */
+    private static final Collection<String> NOBODY =
+        Arrays.asList("deny 0.0.0.0/0", "deny ::/0");
+
+    /**
+     * Lifetime of rules in memory, in minutes.
+     */
+    private static final long LIFETIME = 5L;
+
+    /**
+     * Rules loaded recently, by their files.
+     */
+    private static final RevalidatedFiles<AccessRules.Rules> FILES =
+        new RevalidatedFiles<>(
+            AccessRules.Rules::new, new AccessRules.Rules(""),
+            AccessRules.LIFETIME, TimeUnit.MINUTES
+        );
+
+    /**
+     * Where the file comes from.
+     */
+    private final transient Htpasswd.Source source;
+
+    /**
+     * Public ctor.
+     * @param bckt The bucket
+     */
+    AccessRules(@NotNull final Bucket bckt) {
+        this(new BucketFile(bckt, AccessRules.NAME));
+    }
+
+    /**
+     * Ctor.
+     * @param src Where the file comes from
+     */
+    AccessRules(@NotNull final Htpasswd.Source src) {
+        this.source = src;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%s)", AccessRules.NAME, this.source);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.source);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof AccessRules
+            && Objects.equals(this.source, ((AccessRules) obj).source);
+    }
+
+    /**
+     * Is this path open to everybody?
+     * @param path The path, starting with a slash
+     * @return TRUE if it is
+     */
+    boolean open(@NotNull final String path) {
+        return this.rules().matches(path);
+    }
+
+    /**
+     * Is this client allowed?
+     * @param address Address of the client
+     * @return TRUE if it is
+     */
+    boolean permits(@NotNull final InetAddress address) {
+        return this.rules().networks().permits(address);
+    }
+
+    /**
+     * Is this resource temporarily rejected?
+     * @param uri The URI of the resource
+     * @return TRUE if it is
+     */
+    boolean rejects(@NotNull final String uri) {
+        final Pattern rejected = this.rules().rejected();
+        return rejected != null && rejected.matcher(uri).matches();
+    }
+
+    private AccessRules.Rules rules() {
+        return AccessRules.FILES.get(this, this.source);
+    }
+
+    /**
+     * Rules of a loaded file.
+     *
+     * <p>The class is immutable and thread-safe.
+     *
+     * @since 0.0.1
+     */
+    private static final class Rules {
+
+        /**
+         * Trie of prefixes and exact paths.
+         */
+        private final transient AccessRules.Node trie;
+
+        /**
+         * Globs.
+         */
+        private final transient Collection<Pattern> globs;
+
+        /**
+         * Networks.
+         */
+        private final transient Networks nets;
+
+        /**
+         * All rejected resources, combined into one regex, or NULL if none.
+         */
+        private final transient Pattern rejects;
+
+        /**
+         * Ctor.
+         * @param content Content of the file
+         */
+        Rules(final String content) {
+            this.trie = new AccessRules.Node();
+            this.globs = new ArrayList<>(0);
+            final Collection<String> networks = new LinkedList<>();
+            final Collection<String> rejected = new LinkedList<>();
+            for (final String line : Splitter.on('\n').trimResults()
+                .omitEmptyStrings().split(content)) {
+                final Matcher reject = AccessRules.REJECT.matcher(line);
+                if (reject.matches()) {
+                    rejected.add(reject.group(1));
+                } else if (AccessRules.NETWORK.matcher(line).matches()) {
+                    networks.add(line);
+                } else if (line.charAt(0) != '#') {
+                    this.add(line);
+                }
+            }
+            this.nets = AccessRules.Rules.networks(networks);
+            this.rejects = AccessRules.Rules.rejected(rejected);
+        }
+
+        /**
+         * Networks allowed and denied.
+         * @return Networks
+         */
+        Networks networks() {
+            return this.nets;
+        }
+
+        /**
+         * Rejected resources.
+         * @return Combined regex, or NULL if none
+         */
+        Pattern rejected() {
+            return this.rejects;
+        }
+
+        /**
+         * Does any rule match the path?
+         * @param path The path
+         * @return TRUE if it does
+         */
+        boolean matches(final String path) {
+            boolean matches = this.trie.matches(path);
+            if (!matches) {
+                for (final Pattern glob : this.globs) {
+                    if (glob.matcher(path).matches()) {
+                        matches = true;
+                        break;
+                    }
+                }
+            }
+            return matches;
+        }
+
+        private static Networks networks(final Collection<String> lines) {
+            Networks networks;
+            try {
+                networks = new Networks(lines);
+            } catch (final IllegalArgumentException ex) {
+                Logger.warn(
+                    AccessRules.class, "#networks(): %s, nobody is allowed",
+                    ex.getMessage()
+                );
+                networks = new Networks(AccessRules.NOBODY);
+            }
+            return networks;
+        }
+
+        private static Pattern rejected(final Collection<String> regexs) {
+            final StringBuilder combined = new StringBuilder(0);
+            for (final String regex : regexs) {
+                try {
+                    Pattern.compile(regex);
+                } catch (final PatternSyntaxException ex) {
+                    Logger.warn(
+                        AccessRules.class, "#rejected(): %s is ignored: %s",
+                        regex, ex.getDescription()
+                    );
+                    continue;
+                }
+                if (combined.length() > 0) {
+                    combined.append('|');
+                }
+                combined.append("(?:").append(regex).append(')');
+            }
+            Pattern pattern = null;
+            if (combined.length() > 0) {
+                pattern = Pattern.compile(combined.toString());
+            }
+            return pattern;
+        }
+
+        private void add(final String line) {
+            final String rule;
+            if (line.charAt(0) == '/' || line.charAt(0) == '*') {
+                rule = line;
+            } else {
+                rule = String.format("/%s", line);
+            }
+            final int star = rule.indexOf('*');
+            if (star < 0) {
+                this.trie.add(rule, rule.endsWith("/"));
+            } else if (star == rule.length() - 1) {
+                this.trie.add(rule.substring(0, star), true);
+            } else {
+                final StringBuilder regex = new StringBuilder(rule.length());
+                for (final String part : rule.split("\\*", -1)) {
+                    if (regex.length() > 0) {
+                        regex.append(".*");
+                    }
+                    regex.append(Pattern.quote(part));
+                }
+                this.globs.add(Pattern.compile(regex.toString()));
+            }
+        }
+    }
+
+    /**
+     * Node of the trie.
+     *
+     * <p>The class is not thread-safe, it is only modified while
+     * the rules are being built.
+     *
+     * @since 0.0.1
+     */
+    private static final class Node {
+
+        /**
+         * Children, by the next character.
+         */
+        private final transient Map<Character, AccessRules.Node> children;
+
+        /**
+         * Exact path ends here.
+         */
+        private transient boolean exact;
+
+        /**
+         * Every path below is open.
+         */
+        private transient boolean prefix;
+
+        /**
+         * Ctor.
+         */
+        Node() {
+            this.children = new HashMap<>(0);
+        }
+
+        /**
+         * Add a path.
+         * @param path The path
+         * @param below Open everything starting with it
+         */
+        void add(final String path, final boolean below) {
+            AccessRules.Node node = this;
+            for (int idx = 0; idx < path.length(); ++idx) {
+                node = node.children.computeIfAbsent(
+                    path.charAt(idx), chr -> new AccessRules.Node()
+                );
+            }
+            if (below) {
+                node.prefix = true;
+            } else {
+                node.exact = true;
+            }
+        }
+
+        /**
+         * Does the path match?
+         * @param path The path
+         * @return TRUE if it does
+         */
+        boolean matches(final String path) {
+            AccessRules.Node node = this;
+            boolean matches = node.prefix;
+            for (int idx = 0; idx < path.length() && !matches; ++idx) {
+                node = node.children.get(path.charAt(idx));
+                if (node == null) {
+                    break;
+                }
+                matches = node.prefix
+                    || idx == path.length() - 1 && node.exact;
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.validation.constraints.NotNull;
+import org.apache.commons.io.IOUtils;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Text file in a bucket, loaded straight from S3, not through
+ * {@link Host#fetch(java.net.URI, Range, Version)}, so that it is not
+ * counted as traffic of the domain.
+ *
+ * <p>The file is requested with the ETag of the version already loaded,
+ * if any, so that an unchanged file costs a 304. A missing file is
+ * the same as an empty one, and so is a file that S3 doesn't let us read,
+ * since S3 says 403 instead of 404 about a missing key, unless the
+ * credentials may list the bucket.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+final class BucketFile implements Htpasswd.Source {
+
+    /**
+     * The bucket.
+     */
+    private final transient Bucket bucket;
+
+    /**
+     * Key of the file in the bucket.
+     */
+    private final transient String key;
+
+    /**
+     * Public ctor.
+     * @param bckt The bucket
+     * @param name Key of the file in the bucket
+     */
+    BucketFile(@NotNull final Bucket bckt, @NotNull final String name) {
+        this.bucket = bckt;
+        this.key = name;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s", this.bucket.bucket(), this.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.bucket, this.key);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        final boolean result;
+        if (obj instanceof BucketFile) {
+            final BucketFile other = (BucketFile) obj;
+            result = Objects.equals(this.bucket, other.bucket)
+                && Objects.equals(this.key, other.key);
+        } else {
+            result = false;
+        }
+        return result;
+    }
+
+    @Override
+    public Map.Entry<String, String> load(final String etag)
+        throws IOException {
+        Map.Entry<String, String> file;
+        try (ResponseInputStream<GetObjectResponse> stream =
+            this.bucket.client().getObject(
+                GetObjectRequest.builder()
+                    .bucket(this.bucket.bucket())
+                    .key(this.key)
+                    .ifNoneMatch(etag)
+                    .build()
+            )) {
+            file = new AbstractMap.SimpleImmutableEntry<>(
+                stream.response().eTag(),
+                IOUtils.toString(stream, StandardCharsets.UTF_8)
+            );
+        } catch (final NoSuchKeyException ex) {
+            file = new AbstractMap.SimpleImmutableEntry<>(null, "");
+        } catch (final S3Exception ex) {
+            if (ex.statusCode() == HttpURLConnection.HTTP_FORBIDDEN) {
+                file = new AbstractMap.SimpleImmutableEntry<>(null, "");
+            } else if (etag != null
+                && ex.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                file = null;
+            } else {
+                throw new IOException(ex);
+            }
+        }
+        return file;
+    }
+}
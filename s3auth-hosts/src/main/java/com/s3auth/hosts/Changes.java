@@ -0,0 +1,128 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Immutable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Objects;
+
+/**
+ * Feed of changes in the registry of domains.
+ * @since 0.0.1
+ */
+@Immutable
+@FunctionalInterface
+interface Changes {
+
+    /**
+     * No changes ever.
+     */
+    Changes NONE = new Changes() {
+        @Override
+        public Iterable<Changes.Change> next() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean live() {
+            return false;
+        }
+    };
+
+    /**
+     * Changes happened since the previous call.
+     * @return Changes, in the order they happened, or NULL if some
+     *  changes may have been lost, so that the registry has to be
+     *  scanned in full again
+     * @throws IOException If some IO problem inside
+     */
+    Iterable<Changes.Change> next() throws IOException;
+
+    /**
+     * Does the feed deliver changes at all?
+     * @return TRUE if it does, FALSE if the registry has to be scanned
+     *  in full to see any change
+     */
+    default boolean live() {
+        return true;
+    }
+
+    /**
+     * One change, a domain added, modified or removed.
+     *
+     * <p>The class is immutable and thread-safe.
+     *
+     * @since 0.0.1
+     */
+    @Immutable
+    final class Change {
+
+        /**
+         * Name of the domain.
+         */
+        private final transient String label;
+
+        /**
+         * The domain, or NULL if removed.
+         */
+        private final transient Domain dmn;
+
+        /**
+         * Public ctor.
+         * @param name Name of the domain
+         * @param domain The domain, or NULL if it was removed
+         */
+        Change(final String name, final Domain domain) {
+            this.label = name;
+            this.dmn = domain;
+        }
+
+        @Override
+        public String toString() {
+            final String text;
+            if (this.dmn == null) {
+                text = String.format("-%s", this.label);
+            } else {
+                text = String.format("+%s", this.label);
+            }
+            return text;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.label, this.dmn);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            final boolean result;
+            if (obj instanceof Changes.Change) {
+                final Changes.Change other = (Changes.Change) obj;
+                result = Objects.equals(this.label, other.label)
+                    && Objects.equals(this.dmn, other.dmn);
+            } else {
+                result = false;
+            }
+            return result;
+        }
+
+        /**
+         * Name of the domain.
+         * @return Name
+         */
+        String name() {
+            return this.label;
+        }
+
+        /**
+         * The domain.
+         * @return The domain or NULL if it was removed
+         */
+        Domain domain() {
+            return this.dmn;
+        }
+    }
+}
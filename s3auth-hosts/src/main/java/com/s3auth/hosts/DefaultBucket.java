@@ -4,14 +4,10 @@
  */
 package com.s3auth.hosts;
 
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 import javax.validation.constraints.NotNull;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 
@@ -23,6 +19,11 @@ import software.amazon.awssdk.services.s3.S3Client;
 @Loggable(Loggable.DEBUG)
 final class DefaultBucket implements Bucket {
 
+    /**
+     * S3 clients of all buckets.
+     */
+    private static final S3Clients CLIENTS = new S3Clients();
+
     /**
      * The domain.
      */
@@ -38,12 +39,10 @@ final class DefaultBucket implements Bucket {
 
     @Override
     @NotNull
-    @Cacheable(lifetime = 10, unit = TimeUnit.MINUTES)
     public S3Client client() {
-        return S3Client.builder()
-            .region(this.awsRegion())
-            .credentialsProvider(this.credentials())
-            .build();
+        return DefaultBucket.CLIENTS.get(
+            this.awsRegion(), this.domain.key(), this.domain.secret()
+        );
     }
 
     @Override
@@ -97,15 +96,6 @@ final class DefaultBucket implements Bucket {
         return this.domain.syslog();
     }
 
-    private StaticCredentialsProvider credentials() {
-        return StaticCredentialsProvider.create(
-            AwsBasicCredentials.create(
-                this.domain.key(),
-                this.domain.secret()
-            )
-        );
-    }
-
     private Region awsRegion() {
         String raw = this.domain.region().trim();
         if (raw.endsWith(".amazonaws.com")) {
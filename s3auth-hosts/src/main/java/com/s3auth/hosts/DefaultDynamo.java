@@ -4,30 +4,61 @@
  */
 package com.s3auth.hosts;
 
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import com.jcabi.dynamo.AttributeUpdates;
 import com.jcabi.dynamo.Credentials;
+import com.jcabi.dynamo.Frame;
 import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.QueryValve;
 import com.jcabi.dynamo.Region;
 import com.jcabi.dynamo.ScanValve;
 import com.jcabi.dynamo.retry.ReRegion;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.urn.URN;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.validation.constraints.NotNull;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeAction;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValueUpdate;
+import software.amazon.awssdk.services.dynamodb.model.ComparisonOperator;
+import software.amazon.awssdk.services.dynamodb.model.Condition;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
 
 /**
  * Abstraction on top of DynamoDB SDK.
  *
+ * <p>The table is scanned in parallel segments, one thread per segment.
+ * The number of segments is taken from {@code S3Auth-AwsDynamoScanThreads}
+ * in the manifest, or equals the number of processors. With one segment
+ * the table is scanned sequentially through jcabi-dynamo. Scanning
+ * threads are shared by all scans and reused. Items that don't have
+ * bucket or syslog attributes, left from older versions, are fixed in
+ * background, after the scan, each of them only once, even though
+ * the next scans may still see it unfixed.
+ *
+ * <p>Nothing is cached here, every {@link #load()} scans the table, since
+ * {@link DomainIndex} keeps the result and decides how fresh it has to be.
+ *
  * <p>The class is mutable and thread-safe.
  *
  * @since 0.0.1
@@ -71,6 +102,41 @@ final class DefaultDynamo implements Dynamo {
      */
     static final String SYSLOG = "domain.syslog";
 
+    /**
+     * Syslog host and port of a domain that doesn't have it.
+     */
+    static final String DEFAULT_SYSLOG = "syslog.s3auth.com:514";
+
+    /**
+     * Attributes to load.
+     */
+    private static final String[] ATTRS = {
+        DefaultDynamo.USER,
+        DefaultDynamo.NAME,
+        DefaultDynamo.KEY,
+        DefaultDynamo.SECRET,
+        DefaultDynamo.BUCKET,
+        DefaultDynamo.REGION,
+        DefaultDynamo.SYSLOG,
+    };
+
+    /**
+     * Fixer of legacy items, in background.
+     */
+    private static final ExecutorService FIXER =
+        Executors.newSingleThreadExecutor(new VerboseThreads("dynamo-fix"));
+
+    /**
+     * Legacy items submitted to the fixer, by user and name.
+     */
+    private static final Set<String> FIXED = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Threads scanning segments, shared by all scans.
+     */
+    private static final ExecutorService SCANNER =
+        Executors.newCachedThreadPool(new VerboseThreads("dynamo-scan"));
+
     /**
      * Client.
      */
@@ -81,24 +147,50 @@ final class DefaultDynamo implements Dynamo {
      */
     private final transient String table;
 
+    /**
+     * Total number of segments to scan in parallel.
+     */
+    private final transient int segments;
+
     /**
      * Public ctor.
      */
     DefaultDynamo() {
+        this(DefaultDynamo.connect());
+    }
+
+    /**
+     * Public ctor, with the table from the manifest.
+     * @param rgn The jcabi-dynamo Region
+     */
+    DefaultDynamo(@NotNull final Region rgn) {
         this(
-            new ReRegion(new Region.Simple(DefaultDynamo.creds())),
-            Manifests.read("S3Auth-AwsDynamoTable")
+            rgn,
+            Manifests.read("S3Auth-AwsDynamoTable"),
+            DefaultDynamo.threads()
         );
     }
 
     /**
-     * Ctor for unit tests.
+     * Ctor for unit tests, scanning sequentially.
      * @param rgn The jcabi-dynamo Region
      * @param tbl Table name
      */
     DefaultDynamo(@NotNull final Region rgn, @NotNull final String tbl) {
+        this(rgn, tbl, 1);
+    }
+
+    /**
+     * Ctor.
+     * @param rgn The jcabi-dynamo Region
+     * @param tbl Table name
+     * @param sgmts Total number of segments to scan in parallel
+     */
+    DefaultDynamo(@NotNull final Region rgn, @NotNull final String tbl,
+        final int sgmts) {
         this.region = rgn;
         this.table = tbl;
+        this.segments = sgmts;
     }
 
     @Override
@@ -108,7 +200,7 @@ final class DefaultDynamo implements Dynamo {
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.region, this.table);
+        return Objects.hash(this.region, this.table, this.segments);
     }
 
     @Override
@@ -117,7 +209,8 @@ final class DefaultDynamo implements Dynamo {
         if (obj instanceof DefaultDynamo) {
             final DefaultDynamo other = (DefaultDynamo) obj;
             result = Objects.equals(this.region, other.region)
-                && Objects.equals(this.table, other.table);
+                && Objects.equals(this.table, other.table)
+                && this.segments == other.segments;
         } else {
             result = false;
         }
@@ -131,24 +224,90 @@ final class DefaultDynamo implements Dynamo {
 
     @Override
     @NotNull
-    @Cacheable(lifetime = 5)
     public ConcurrentMap<URN, Domains> load() throws IOException {
         final ConcurrentMap<URN, Domains> domains =
             new ConcurrentHashMap<>(0);
-        final Iterable<Item> items = this.region
-            .table(this.table)
-            .frame()
-            .through(DefaultDynamo.valve());
-        for (final Item item : items) {
+        final Collection<Map<String, AttributeValue>> items;
+        if (this.segments > 1) {
+            items = this.parallel();
+        } else {
+            items = this.sequential();
+        }
+        final Collection<Map<String, AttributeValue>> legacy =
+            new LinkedList<>();
+        for (final Map<String, AttributeValue> item : items) {
             final URN user = URN.create(item.get(DefaultDynamo.USER).s());
             domains.putIfAbsent(user, new Domains());
             domains.get(user).add(DefaultDynamo.domain(item));
+            if ((!item.containsKey(DefaultDynamo.SYSLOG)
+                || !item.containsKey(DefaultDynamo.BUCKET))
+                && DefaultDynamo.FIXED.add(DefaultDynamo.id(item))) {
+                legacy.add(item);
+            }
+        }
+        if (!legacy.isEmpty()) {
+            DefaultDynamo.FIXER.submit(
+                new VerboseRunnable(
+                    () -> {
+                        this.fix(legacy);
+                        return null;
+                    },
+                    true
+                )
+            );
+        }
+        return domains;
+    }
+
+    @Override
+    @NotNull
+    public Domains domains(@NotNull final URN user) throws IOException {
+        final Iterable<Item> rows = this.region.table(this.table).frame()
+            .where(DefaultDynamo.USER, user.toString())
+            .through(new QueryValve().withAttributeToGet(DefaultDynamo.ATTRS));
+        final Domains domains = new Domains();
+        for (final Item row : rows) {
+            domains.add(DefaultDynamo.domain(DefaultDynamo.attrs(row)));
+        }
+        return domains;
+    }
+
+    @Override
+    @NotNull
+    public Domains domains(@NotNull final URN user,
+        @NotNull final String from, final boolean forward, final int limit)
+        throws IOException {
+        Frame frame = this.region.table(this.table).frame()
+            .where(DefaultDynamo.USER, user.toString());
+        if (!from.isEmpty()) {
+            final ComparisonOperator operator;
+            if (forward) {
+                operator = ComparisonOperator.GT;
+            } else {
+                operator = ComparisonOperator.LT;
+            }
+            frame = frame.where(
+                DefaultDynamo.NAME,
+                Condition.builder()
+                    .comparisonOperator(operator)
+                    .attributeValueList(AttributeValue.builder().s(from).build())
+                    .build()
+            );
+        }
+        final Iterator<Item> rows = frame.through(
+            new QueryValve()
+                .withLimit(limit)
+                .withScanIndexForward(forward)
+                .withAttributeToGet(DefaultDynamo.ATTRS)
+        ).iterator();
+        final Domains domains = new Domains();
+        while (domains.size() < limit && rows.hasNext()) {
+            domains.add(DefaultDynamo.domain(DefaultDynamo.attrs(rows.next())));
         }
         return domains;
     }
 
     @Override
-    @Cacheable.FlushBefore
     public boolean add(@NotNull final URN user,
         @NotNull final Domain domain) throws IOException {
         final ConcurrentMap<String, AttributeValue> attrs =
@@ -165,11 +324,12 @@ final class DefaultDynamo implements Dynamo {
     }
 
     @Override
-    @Cacheable.FlushBefore
-    public boolean remove(@NotNull final Domain domain) {
+    public boolean remove(@NotNull final URN user,
+        @NotNull final Domain domain) {
         final Iterator<Item> items = this.region.table(this.table).frame()
+            .where(DefaultDynamo.USER, user.toString())
             .where(DefaultDynamo.NAME, domain.name())
-            .through(new ScanValve().withLimit(1_000_000))
+            .through(new QueryValve())
             .iterator();
         boolean removed = false;
         while (items.hasNext()) {
@@ -180,16 +340,142 @@ final class DefaultDynamo implements Dynamo {
         return removed;
     }
 
-    private static ScanValve valve() {
-        return new ScanValve().withAttributeToGet(
-            DefaultDynamo.USER,
-            DefaultDynamo.NAME,
-            DefaultDynamo.KEY,
-            DefaultDynamo.SECRET,
-            DefaultDynamo.BUCKET,
-            DefaultDynamo.REGION,
-            DefaultDynamo.SYSLOG
-        ).withLimit(1_000_000);
+    private Collection<Map<String, AttributeValue>> sequential()
+        throws IOException {
+        final Iterable<Item> rows = this.region
+            .table(this.table)
+            .frame()
+            .through(
+                new ScanValve()
+                    .withAttributeToGet(DefaultDynamo.ATTRS)
+                    .withLimit(1_000_000)
+            );
+        final Collection<Map<String, AttributeValue>> items =
+            new LinkedList<>();
+        for (final Item row : rows) {
+            items.add(DefaultDynamo.attrs(row));
+        }
+        return items;
+    }
+
+    private Collection<Map<String, AttributeValue>> parallel()
+        throws IOException {
+        final DynamoDbClient aws = this.region.aws();
+        final Collection<Map<String, AttributeValue>> items =
+            new LinkedList<>();
+        final Collection<Future<List<Map<String, AttributeValue>>>> parts =
+            new ArrayList<>(this.segments);
+        try {
+            for (int idx = 0; idx < this.segments; ++idx) {
+                final int segment = idx;
+                parts.add(
+                    DefaultDynamo.SCANNER.submit(
+                        () -> this.segment(aws, segment)
+                    )
+                );
+            }
+            for (final Future<List<Map<String, AttributeValue>>> part
+                : parts) {
+                items.addAll(part.get());
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (final ExecutionException ex) {
+            throw new IOException(ex.getCause());
+        } finally {
+            for (final Future<?> part : parts) {
+                part.cancel(true);
+            }
+        }
+        return items;
+    }
+
+    private List<Map<String, AttributeValue>> segment(
+        final DynamoDbClient aws, final int segment) {
+        final List<Map<String, AttributeValue>> items = new LinkedList<>();
+        Map<String, AttributeValue> start = null;
+        boolean more = true;
+        while (more) {
+            final ScanResponse resp = aws.scan(
+                ScanRequest.builder()
+                    .tableName(this.table)
+                    .segment(segment)
+                    .totalSegments(this.segments)
+                    .attributesToGet(DefaultDynamo.ATTRS)
+                    .exclusiveStartKey(start)
+                    .build()
+            );
+            items.addAll(resp.items());
+            more = resp.hasLastEvaluatedKey()
+                && !resp.lastEvaluatedKey().isEmpty();
+            start = resp.lastEvaluatedKey();
+        }
+        return items;
+    }
+
+    private void fix(final Iterable<Map<String, AttributeValue>> items)
+        throws IOException {
+        final Iterator<Map<String, AttributeValue>> pending = items.iterator();
+        Map<String, AttributeValue> item = null;
+        try {
+            while (pending.hasNext()) {
+                item = pending.next();
+                this.fix(item);
+                item = null;
+            }
+        } finally {
+            if (item != null) {
+                DefaultDynamo.FIXED.remove(DefaultDynamo.id(item));
+            }
+            while (pending.hasNext()) {
+                DefaultDynamo.FIXED.remove(DefaultDynamo.id(pending.next()));
+            }
+        }
+    }
+
+    private void fix(final Map<String, AttributeValue> item)
+        throws IOException {
+        final String name = item.get(DefaultDynamo.NAME).s();
+        AttributeUpdates updates = new AttributeUpdates();
+        if (!item.containsKey(DefaultDynamo.SYSLOG)) {
+            updates = updates.with(
+                DefaultDynamo.SYSLOG,
+                DefaultDynamo.update(DefaultDynamo.DEFAULT_SYSLOG)
+            );
+        }
+        if (!item.containsKey(DefaultDynamo.BUCKET)) {
+            updates = updates.with(
+                DefaultDynamo.BUCKET, DefaultDynamo.update(name)
+            );
+        }
+        final Iterable<Item> rows = this.region.table(this.table).frame()
+            .where(DefaultDynamo.USER, item.get(DefaultDynamo.USER).s())
+            .where(DefaultDynamo.NAME, name)
+            .through(new QueryValve());
+        for (final Item row : rows) {
+            row.put(updates);
+        }
+    }
+
+    private static int threads() {
+        final int threads;
+        if (Manifests.exists("S3Auth-AwsDynamoScanThreads")) {
+            threads = Integer.parseInt(
+                Manifests.read("S3Auth-AwsDynamoScanThreads")
+            );
+        } else {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        return threads;
+    }
+
+    /**
+     * The region configured in the manifest.
+     * @return The jcabi-dynamo Region
+     */
+    static Region connect() {
+        return new ReRegion(new Region.Simple(DefaultDynamo.creds()));
     }
 
     private static Credentials creds() {
@@ -206,36 +492,52 @@ final class DefaultDynamo implements Dynamo {
         return creds;
     }
 
-    private static Domain domain(final Item item) throws IOException {
-        if (!item.has(DefaultDynamo.SYSLOG)) {
-            item.put(
-                new AttributeUpdates().with(
-                    DefaultDynamo.SYSLOG,
-                    AttributeValueUpdate.builder()
-                        .action(AttributeAction.PUT)
-                        .value(AttributeValue.builder().s("syslog.s3auth.com:514").build())
-                        .build()
-                )
-            );
-        }
-        if (!item.has(DefaultDynamo.BUCKET)) {
-            item.put(
-                new AttributeUpdates().with(
-                    DefaultDynamo.BUCKET,
-                    AttributeValueUpdate.builder()
-                        .action(AttributeAction.PUT)
-                        .value(AttributeValue.builder().s(item.get(DefaultDynamo.NAME).s()).build())
-                        .build()
-                )
-            );
+    private static Map<String, AttributeValue> attrs(final Item row)
+        throws IOException {
+        final Map<String, AttributeValue> item =
+            new HashMap<>(DefaultDynamo.ATTRS.length);
+        for (final String attr : DefaultDynamo.ATTRS) {
+            if (row.has(attr)) {
+                item.put(attr, row.get(attr));
+            }
         }
+        return item;
+    }
+
+    private static String id(final Map<String, AttributeValue> item) {
+        return String.join(
+            "\n", item.get(DefaultDynamo.USER).s(),
+            item.get(DefaultDynamo.NAME).s()
+        );
+    }
+
+    private static AttributeValueUpdate update(final String value) {
+        return AttributeValueUpdate.builder()
+            .action(AttributeAction.PUT)
+            .value(AttributeValue.builder().s(value).build())
+            .build();
+    }
+
+    private static Domain domain(final Map<String, AttributeValue> item) {
+        final String name = item.get(DefaultDynamo.NAME).s();
         return new DefaultDomain(
-            item.get(DefaultDynamo.NAME).s(),
+            name,
             item.get(DefaultDynamo.KEY).s(),
             item.get(DefaultDynamo.SECRET).s(),
-            item.get(DefaultDynamo.BUCKET).s(),
+            DefaultDynamo.value(item, DefaultDynamo.BUCKET, name),
             item.get(DefaultDynamo.REGION).s(),
-            item.get(DefaultDynamo.SYSLOG).s()
+            DefaultDynamo.value(
+                item, DefaultDynamo.SYSLOG, DefaultDynamo.DEFAULT_SYSLOG
+            )
         );
     }
+
+    private static String value(final Map<String, AttributeValue> item,
+        final String attr, final String def) {
+        String value = def;
+        if (item.containsKey(attr)) {
+            value = item.get(attr).s();
+        }
+        return value;
+    }
 }
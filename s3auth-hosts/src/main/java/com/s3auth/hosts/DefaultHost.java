@@ -4,32 +4,19 @@
  */
 package com.s3auth.hosts;
 
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import com.jcabi.log.Logger;
-import com.jcabi.manifests.Manifests;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.net.InetAddress;
 import java.net.URI;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 import javax.validation.constraints.NotNull;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
-import software.amazon.awssdk.services.cloudwatch.model.Datapoint;
-import software.amazon.awssdk.services.cloudwatch.model.Dimension;
-import software.amazon.awssdk.services.cloudwatch.model.GetMetricStatisticsRequest;
-import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
-import software.amazon.awssdk.services.cloudwatch.model.Statistic;
-import software.amazon.awssdk.services.s3.model.GetBucketWebsiteRequest;
-import software.amazon.awssdk.services.s3.model.GetBucketWebsiteResponse;
 import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.S3Exception;
@@ -49,17 +36,30 @@ final class DefaultHost implements Host {
     private static final String SUFFIX = "index.html";
 
     /**
-     * Caching Host.CloudWatch instance.
+     * Keys recently reported missing, shared by all hosts.
      */
-    private static final Host.CloudWatch CLOUDWATCH = new Host.CloudWatch() {
-        @Override
-        @Cacheable(lifetime = 1, unit = TimeUnit.HOURS)
-        public CloudWatchClient get() {
-            return CloudWatchClient.builder()
-                .credentialsProvider(DefaultHost.credentials())
-                .build();
-        }
-    };
+    private static final MissingKeys MISSING = new MissingKeys();
+
+    /**
+     * Metadata of S3 objects, shared by all hosts.
+     */
+    private static final MetadataCache METADATA =
+        new MetadataCache(DefaultHost.MISSING);
+
+    /**
+     * Ranges of objects read ahead, shared by all hosts.
+     */
+    private static final ReadAhead AHEAD = new ReadAhead();
+
+    /**
+     * Website configurations of buckets, shared by all hosts.
+     */
+    private static final WebsiteCache WEBSITES = new WebsiteCache();
+
+    /**
+     * Traffic of all hosts over the last week.
+     */
+    private static final TrafficWindow WINDOW = new TrafficWindow();
 
     /**
      * The S3 bucket.
@@ -71,40 +71,64 @@ final class DefaultHost implements Host {
      */
     private final transient Htpasswd htpasswd;
 
+    /**
+     * Rules of access, from {@code .s3auth} file.
+     */
+    private final transient AccessRules rules;
+
     /**
      * Holder of host stats.
      */
     private final transient Stats statistics;
 
     /**
-     * Amazon Cloudwatch Client.
+     * Where the traffic goes.
      */
-    private final transient Host.CloudWatch cloudwatch;
+    private final transient DomainStatsData traffic;
 
     /**
      * Public ctor.
      * @param bckt The S3 bucket to use
+     * @param data Where the traffic goes, see {@link #traffic()}
+     */
+    DefaultHost(@NotNull final Bucket bckt,
+        @NotNull final DomainStatsData data) {
+        this(bckt, DefaultHost.WINDOW, data);
+    }
+
+    /**
+     * Ctor for unit tests, which doesn't keep the traffic.
+     * @param bckt The S3 bucket to use
      */
     DefaultHost(@NotNull final Bucket bckt) {
-        this(
-            bckt,
-            DefaultHost.CLOUDWATCH
-        );
+        this(bckt, DefaultHost.WINDOW);
     }
 
     /**
-     * Ctor for unit tests.
+     * Ctor for unit tests, which doesn't keep the traffic.
      * @param bckt The S3 bucket to use
-     * @param cwatch The Amazon Cloudwatch client
+     * @param window Traffic of the last week
      */
     DefaultHost(
         @NotNull final Bucket bckt,
-        @NotNull final Host.CloudWatch cwatch
+        @NotNull final TrafficWindow window
     ) {
+        this(bckt, window, DomainStatsData.NONE);
+    }
+
+    /**
+     * Ctor.
+     * @param bckt The S3 bucket to use
+     * @param window Traffic of the last week
+     * @param data Where the traffic goes
+     */
+    private DefaultHost(final Bucket bckt, final TrafficWindow window,
+        final DomainStatsData data) {
         this.bucket = bckt;
-        this.htpasswd = new Htpasswd(this);
-        this.cloudwatch = cwatch;
-        this.statistics = new DefaultHost.HostStats(this.bucket);
+        this.htpasswd = new Htpasswd(this, bckt);
+        this.rules = new AccessRules(bckt);
+        this.statistics = new DefaultHost.HostStats(this.bucket, window);
+        this.traffic = data;
     }
 
     @Override
@@ -128,40 +152,55 @@ final class DefaultHost implements Host {
         // nothing to do
     }
 
+    @Override
+    @NotNull
+    public Resource fetch(@NotNull final URI uri,
+        @NotNull final Range range, @NotNull final Version version)
+        throws IOException {
+        return this.fetch(uri, range, version, "");
+    }
+
     @Override
     @NotNull
     @Loggable(value = Loggable.DEBUG, ignore = IOException.class)
     public Resource fetch(@NotNull final URI uri,
+        @NotNull final Range range, @NotNull final Version version,
+        @NotNull final String client) throws IOException {
+        return this.resolve(
+            uri, range, version,
+            loc -> DefaultResource.fetch(
+                this.bucket.client(), loc, this.traffic,
+                DefaultHost.METADATA, DefaultHost.AHEAD, client
+            )
+        );
+    }
+
+    @Override
+    @NotNull
+    @Loggable(value = Loggable.DEBUG, ignore = IOException.class)
+    public Resource head(@NotNull final URI uri,
         @NotNull final Range range, @NotNull final Version version)
         throws IOException {
-        this.validate();
-        Resource resource = null;
-        final Collection<String> errors = new ArrayList<>(2);
-        final DomainStatsData data = new H2DomainStatsData().init();
-        for (final DefaultHost.ObjectName name : this.names(uri)) {
-            final Attempt outcome =
-                this.attempt(name, range, version, data, errors);
-            if (outcome.resource() != null) {
-                resource = outcome.resource();
-            }
-            if (outcome.done()) {
-                break;
-            }
-        }
-        if (resource == null) {
-            throw new IOException(
-                Logger.format(
-                    "Failed to fetch %s from '%s' (key=%s): %[list]s",
-                    uri, this.bucket.name(), this.bucket.key(), errors
-                )
-            );
-        }
-        return resource;
+        return this.resolve(
+            uri, range, version,
+            loc -> HeadResource.fetch(
+                this.bucket.client(), loc, DefaultHost.METADATA
+            )
+        );
     }
 
     @Override
     public boolean isHidden(@NotNull final URI uri) {
-        return true;
+        String path = StringUtils.defaultString(uri.getPath());
+        if (!path.startsWith("/")) {
+            path = String.format("/%s", path);
+        }
+        return !this.rules.open(path);
+    }
+
+    @Override
+    public boolean isBlocked(@NotNull final InetAddress address) {
+        return !this.rules.permits(address);
     }
 
     @Override
@@ -177,6 +216,21 @@ final class DefaultHost implements Host {
         return auth;
     }
 
+    @Override
+    public String credentials(@NotNull final String user) {
+        final String secret;
+        if (user.equals(this.bucket.key())) {
+            secret = this.bucket.secret();
+        } else {
+            secret = this.htpasswd.hash(user);
+        }
+        String token = null;
+        if (secret != null) {
+            token = DigestUtils.sha256Hex(secret);
+        }
+        return token;
+    }
+
     @Override
     public String syslog() {
         return this.bucket.syslog();
@@ -187,13 +241,43 @@ final class DefaultHost implements Host {
         return this.statistics;
     }
 
+    private Resource resolve(final URI uri, final Range range,
+        final Version version, final DefaultHost.Loader loader)
+        throws IOException {
+        this.validate();
+        Resource resource = null;
+        final Collection<String> errors = new ArrayList<>(2);
+        for (final DefaultHost.ObjectName name : this.names(uri)) {
+            final Attempt outcome =
+                this.attempt(name, range, version, loader, errors);
+            if (outcome.resource() != null) {
+                resource = outcome.resource();
+            }
+            if (outcome.done()) {
+                break;
+            }
+        }
+        if (resource == null) {
+            throw new IOException(
+                Logger.format(
+                    "Failed to fetch %s from '%s' (key=%s): %[list]s",
+                    uri, this.bucket.name(), this.bucket.key(), errors
+                )
+            );
+        }
+        return resource;
+    }
+
     private Attempt attempt(final DefaultHost.ObjectName name,
-        final Range range, final Version version, final DomainStatsData data,
-        final Collection<String> errors) throws IOException {
+        final Range range, final Version version,
+        final DefaultHost.Loader loader, final Collection<String> errors)
+        throws IOException {
         Resource resource = null;
         boolean done = false;
         try {
-            resource = DefaultHost.fetchOne(this.bucket, name, range, version, data);
+            resource = DefaultHost.fetchOne(
+                this.bucket, name, range, version, loader
+            );
             done = true;
         } catch (final NoSuchBucketException ex) {
             throw new IOException(
@@ -204,6 +288,10 @@ final class DefaultHost implements Host {
                 ex
             );
         } catch (final NoSuchKeyException ex) {
+            final Locator loc =
+                DefaultHost.locator(this.bucket, name.get(), range, version);
+            DefaultHost.METADATA.forget(loc);
+            DefaultHost.MISSING.add(loc);
             if (name.get().endsWith(DefaultHost.SUFFIX)) {
                 final String path = name.get();
                 resource = DirectoryListing.fetch(
@@ -215,31 +303,49 @@ final class DefaultHost implements Host {
                 errors.add(String.format("'%s': %s", name, ex.getMessage()));
             }
         } catch (final S3Exception ex) {
-            resource = this.errorDocument(name, data, ex, errors);
+            resource = this.errorDocument(name, loader, ex, errors);
         }
         return new Attempt(resource, done);
     }
 
+    /**
+     * Make traffic of hosts, flushed to the journal in background and
+     * counted in their stats of the last week.
+     *
+     * <p>It belongs to the caller, who must close it when the hosts
+     * are not used any more.
+     *
+     * @return Traffic
+     */
+    static Traffic traffic() {
+        return new Traffic(new StatsJournal(), DefaultHost.WINDOW);
+    }
+
     private static Resource fetchOne(final Bucket bckt,
         final DefaultHost.ObjectName name, final Range range,
-        final Version version, final DomainStatsData data) {
+        final Version version, final DefaultHost.Loader loader) {
         final Resource resource;
         if (version.list()) {
             resource = ObjectVersionListing.fetch(
                 bckt.client(), bckt.bucket(), name.get()
             );
         } else {
-            resource = DefaultResource.fetch(
-                bckt.client(),
-                new Locator(
-                    bckt.bucket(), name.get(), range, version
-                ),
-                data
-            );
+            final Locator loc =
+                DefaultHost.locator(bckt, name.get(), range, version);
+            DefaultHost.MISSING.check(loc);
+            resource = loader.load(loc);
         }
         return resource;
     }
 
+    private static Locator locator(final Bucket bckt, final String name,
+        final Range range, final Version version) {
+        return new Locator(
+            DigestUtils.sha256Hex(String.join("\n", bckt.key(), bckt.secret())),
+            bckt.bucket(), name, range, version
+        );
+    }
+
     private void validate() {
         if (this.bucket.key().isEmpty()) {
             throw new IllegalStateException(
@@ -254,29 +360,20 @@ final class DefaultHost implements Host {
     }
 
     private Resource errorDocument(final DefaultHost.ObjectName name,
-        final DomainStatsData data, final S3Exception err,
+        final DefaultHost.Loader loader, final S3Exception err,
         final Collection<String> errors) {
         Resource resource = null;
         if (err.statusCode() >= HttpURLConnection.HTTP_BAD_REQUEST
             && err.statusCode() < HttpURLConnection.HTTP_INTERNAL_ERROR
         ) {
             try {
-                final GetBucketWebsiteResponse config =
-                    this.bucket.client().getBucketWebsite(
-                        GetBucketWebsiteRequest.builder()
-                            .bucket(this.bucket.bucket())
-                            .build()
-                    );
-                if (config != null
-                    && config.errorDocument() != null
-                    && config.errorDocument().key() != null) {
-                    resource = DefaultResource.fetch(
-                        this.bucket.client(),
-                        new Locator(
-                            this.bucket.bucket(), config.errorDocument().key(),
-                            Range.ENTIRE, Version.LATEST
-                        ),
-                        data
+                final String doc =
+                    DefaultHost.WEBSITES.get(this.bucket).errorDocument();
+                if (doc != null) {
+                    resource = loader.load(
+                        DefaultHost.locator(
+                            this.bucket, doc, Range.ENTIRE, Version.LATEST
+                        )
                     );
                 }
             } catch (final S3Exception exc) {
@@ -300,23 +397,6 @@ final class DefaultHost implements Host {
         return names;
     }
 
-    private GetBucketWebsiteResponse website() {
-        return this.bucket.client().getBucketWebsite(
-            GetBucketWebsiteRequest.builder()
-                .bucket(this.bucket.name())
-                .build()
-        );
-    }
-
-    private static StaticCredentialsProvider credentials() {
-        return StaticCredentialsProvider.create(
-            AwsBasicCredentials.create(
-                Manifests.read("S3Auth-AwsCloudWatchKey"),
-                Manifests.read("S3Auth-AwsCloudWatchSecret")
-            )
-        );
-    }
-
     /**
      * Object name with a suffix from a bucket.
      * @since 0.0.1
@@ -339,12 +419,10 @@ final class DefaultHost implements Host {
 
         @Override
         public String get() {
-            String suffix = null;
+            String suffix;
             try {
-                final GetBucketWebsiteResponse conf = DefaultHost.this.website();
-                if (conf != null && conf.indexDocument() != null) {
-                    suffix = conf.indexDocument().suffix();
-                }
+                suffix = DefaultHost.WEBSITES.get(DefaultHost.this.bucket)
+                    .suffix();
             } catch (final S3Exception ex) {
                 suffix = "";
             }
@@ -370,47 +448,31 @@ final class DefaultHost implements Host {
      * @since 0.0.1
      */
     @Loggable(Loggable.DEBUG)
-    private final class HostStats implements Stats {
+    private static final class HostStats implements Stats {
 
         /**
          * The S3 bucket.
          */
         private final transient Bucket bucket;
 
+        /**
+         * Traffic of the last week.
+         */
+        private final transient TrafficWindow window;
+
         /**
          * Public ctor.
          * @param bckt The bucket
+         * @param wnd Traffic of the last week
          */
-        HostStats(final Bucket bckt) {
+        HostStats(final Bucket bckt, final TrafficWindow wnd) {
             this.bucket = bckt;
+            this.window = wnd;
         }
 
         @Override
-        @Cacheable(lifetime = 30, unit = TimeUnit.MINUTES)
         public long bytesTransferred() {
-            final Instant now = Instant.now();
-            final List<Datapoint> datapoints =
-                DefaultHost.this.cloudwatch.get().getMetricStatistics(
-                    GetMetricStatisticsRequest.builder()
-                        .metricName("BytesTransferred")
-                        .namespace("S3Auth")
-                        .statistics(Statistic.SUM).dimensions(
-                            Dimension.builder()
-                                .name("Bucket")
-                                .value(this.bucket.bucket())
-                                .build()
-                        )
-                        .unit(StandardUnit.BYTES)
-                        .period((int) TimeUnit.DAYS.toSeconds(7))
-                        .startTime(now.minus(7, java.time.temporal.ChronoUnit.DAYS))
-                        .endTime(now)
-                        .build()
-                ).datapoints();
-            long sum = 0L;
-            for (final Datapoint datapoint : datapoints) {
-                sum += datapoint.sum().longValue();
-            }
-            return sum;
+            return this.window.week(this.bucket.bucket());
         }
 
         @Override
@@ -438,4 +500,19 @@ final class DefaultHost implements Host {
          */
         String get();
     }
+
+    /**
+     * Loader of a single S3 object, either with its content or without.
+     * @since 0.0.1
+     */
+    @FunctionalInterface
+    private interface Loader {
+
+        /**
+         * Load the object.
+         * @param loc Coordinates of the object
+         * @return The resource
+         */
+        Resource load(Locator loc);
+    }
 }
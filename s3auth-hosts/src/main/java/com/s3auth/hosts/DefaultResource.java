@@ -5,6 +5,7 @@
 package com.s3auth.hosts;
 
 import com.jcabi.aspects.Loggable;
+import com.jcabi.log.VerboseThreads;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -15,17 +16,29 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.core.HttpHeaders;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
 /**
  * Default implementation of {@link Resource}.
  *
+ * <p>The object is streamed from a blocking {@link ResponseInputStream}
+ * of the synchronous S3 client into the output stream, in the thread of
+ * the request. The relay serves every connection with a thread of its
+ * own and writes to blocking sockets, so a non-blocking S3 client would
+ * not release that thread, it would only add another connection pool.
+ *
  * <p>The class is mutable and thread-safe.
  *
  * @since 0.0.1
@@ -34,9 +47,35 @@ import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 final class DefaultResource implements Resource {
 
     /**
-     * Amazon S3 client.
+     * Objects this large, or larger, are downloaded in parts.
+     */
+    private static final long LARGE = 64L * 1024L * 1024L;
+
+    /**
+     * HTTP status of a range that can't be satisfied.
+     */
+    private static final int UNSATISFIABLE = 416;
+
+    /**
+     * Size of one part of a large object.
+     */
+    private static final long PART = 8L * 1024L * 1024L;
+
+    /**
+     * How many parts of a large object to download at the same time.
+     */
+    private static final int WINDOW = 4;
+
+    /**
+     * Threads fetching parts of large objects.
+     */
+    private static final ExecutorService PARTS =
+        Executors.newCachedThreadPool(new VerboseThreads("s3-parts"));
+
+    /**
+     * Bytes that parts of all large objects may keep in memory.
      */
-    private final transient S3Client client;
+    private static final Semaphore MEMORY = new Semaphore(256 * 1024 * 1024);
 
     /**
      * Bucket name.
@@ -53,11 +92,6 @@ final class DefaultResource implements Resource {
      */
     private final transient Range range;
 
-    /**
-     * The version.
-     */
-    private final transient Version version;
-
     /**
      * Domain Stats.
      */
@@ -68,28 +102,26 @@ final class DefaultResource implements Resource {
      */
     private final transient ResponseInputStream<GetObjectResponse> stream;
 
+    /**
+     * Metadata of the entire object.
+     */
+    private final transient Metadata meta;
+
     /**
      * Private ctor, stream opened by {@link #fetch}.
-     * @param clnt Amazon S3 client
-     * @param bckt Bucket name
-     * @param name Key name
-     * @param rng Range to deliver
-     * @param ver Version of object to retrieve
+     * @param loc Coordinates of the object
      * @param dstats Domain stats data
      * @param strm Already opened object stream
+     * @param mta Metadata of the entire object
      */
-    private DefaultResource(final S3Client clnt,
-        final String bckt, final String name,
-        final Range rng, final Version ver,
-        final DomainStatsData dstats,
-        final ResponseInputStream<GetObjectResponse> strm) {
-        this.client = clnt;
-        this.bucket = bckt;
-        this.key = name;
-        this.range = rng;
-        this.version = ver;
+    private DefaultResource(final Locator loc, final DomainStatsData dstats,
+        final ResponseInputStream<GetObjectResponse> strm, final Metadata mta) {
+        this.bucket = loc.bucket();
+        this.key = loc.key();
+        this.range = loc.range();
         this.stats = dstats;
         this.stream = strm;
+        this.meta = mta;
     }
 
     @Override
@@ -133,7 +165,7 @@ final class DefaultResource implements Resource {
         ignore = StreamingException.class
     )
     public long writeTo(@NotNull final OutputStream output) throws IOException {
-        int total = 0;
+        long total = 0L;
         final byte[] buffer = new byte[16 * 1024];
         try (InputStream input = this.stream) {
             while (true) {
@@ -225,11 +257,14 @@ final class DefaultResource implements Resource {
             headers.add(
                 DefaultResource.header(
                     "Content-Range",
-                    String.format(
-                        "bytes %d-%d/%d",
-                        this.range.first(),
-                        this.range.last(),
-                        this.size()
+                    StringUtils.defaultIfBlank(
+                        this.response().contentRange(),
+                        String.format(
+                            "bytes %d-%d/%s",
+                            this.range.first(),
+                            this.range.last(),
+                            this.size()
+                        )
                     )
                 )
             );
@@ -263,17 +298,68 @@ final class DefaultResource implements Resource {
 
     /**
      * Fetch an object from S3.
+     *
+     * <p>Only one request is made to S3, even for a range: the total size
+     * of the object is taken from the {@code Content-Range} of the response,
+     * or from the cache, if S3 doesn't report it.
+     *
      * @param clnt Amazon S3 client
      * @param loc Coordinates of the object to fetch
      * @param dstats Domain stats data
+     * @param cache Cache of object metadata
      * @return Fetched resource
      */
     static DefaultResource fetch(@NotNull final S3Client clnt,
         @NotNull final Locator loc,
-        @NotNull final DomainStatsData dstats) {
+        @NotNull final DomainStatsData dstats,
+        @NotNull final MetadataCache cache) {
+        final ResponseInputStream<GetObjectResponse> strm =
+            clnt.getObject(DefaultResource.request(loc));
         return new DefaultResource(
-            clnt, loc.bucket(), loc.key(), loc.range(), loc.version(), dstats,
-            clnt.getObject(DefaultResource.request(loc))
+            loc, dstats, strm,
+            cache.remember(loc, Metadata.of(strm.response(), loc.range()))
+        );
+    }
+
+    /**
+     * Fetch an object from S3, reading large objects in parts and
+     * ranges ahead.
+     *
+     * <p>Large objects are downloaded in parts, a few of them at the same
+     * time, see {@link PartedStream}. If the object may be large, since
+     * its size is not known yet, or it is known to be large, the first
+     * request asks for the first part only, and the response is presented
+     * as if it were for the whole range requested. Ranges requested one
+     * after another by the same client are read ahead, see
+     * {@link ReadAhead}.
+     *
+     * @param clnt Amazon S3 client
+     * @param loc Coordinates of the object to fetch
+     * @param dstats Domain stats data
+     * @param cache Cache of object metadata
+     * @param ahead Ranges read ahead
+     * @param client Identity of the client, or empty if unknown
+     * @return Fetched resource
+     * @checkstyle ParameterNumber (6 lines)
+     */
+    static DefaultResource fetch(@NotNull final S3Client clnt,
+        @NotNull final Locator loc,
+        @NotNull final DomainStatsData dstats,
+        @NotNull final MetadataCache cache,
+        @NotNull final ReadAhead ahead, @NotNull final String client) {
+        final GetObjectRequest req = DefaultResource.request(loc);
+        ResponseInputStream<GetObjectResponse> strm = ahead.take(loc, client);
+        if (strm == null) {
+            if (DefaultResource.large(loc, cache)) {
+                strm = DefaultResource.parted(clnt, req, loc);
+            } else {
+                strm = clnt.getObject(req);
+            }
+        }
+        ahead.seen(clnt, req, loc, client, strm.response());
+        return new DefaultResource(
+            loc, dstats, strm,
+            cache.remember(loc, Metadata.of(strm.response(), loc.range()))
         );
     }
 
@@ -300,25 +386,86 @@ final class DefaultResource implements Resource {
         return builder.build();
     }
 
-    private long size() {
-        final long size;
-        if (this.range.equals(Range.ENTIRE)) {
-            size = this.response().contentLength();
+    private static boolean large(final Locator loc,
+        final MetadataCache cache) {
+        final Range range = loc.range();
+        final long size = cache.find(loc).map(Metadata::size).orElse(-1L);
+        final boolean large;
+        if (size < 0L) {
+            large = range.last() - range.first() >= DefaultResource.PART;
         } else {
-            try (
-                ResponseInputStream<GetObjectResponse> resp =
-                    this.client.getObject(
-                        DefaultResource.request(
-                            new Locator(
-                                this.bucket, this.key, Range.ENTIRE, this.version
-                            )
+            large = Math.min(range.last(), size - 1L) - range.first()
+                >= DefaultResource.LARGE - 1L;
+        }
+        return large;
+    }
+
+    private static ResponseInputStream<GetObjectResponse> parted(
+        final S3Client clnt, final GetObjectRequest req, final Locator loc) {
+        final long first = loc.range().first();
+        final Range probe = new Range.Simple(
+            first, first + DefaultResource.PART - 1L
+        );
+        ResponseInputStream<GetObjectResponse> strm;
+        try {
+            strm = clnt.getObject(
+                req.toBuilder()
+                    .range(
+                        String.format(
+                            "bytes=%d-%d", probe.first(), probe.last()
                         )
                     )
-            ) {
-                size = resp.response().contentLength();
-            } catch (final IOException ex) {
-                throw new IllegalStateException("Failed to get object size", ex);
+                    .build()
+            );
+        } catch (final S3Exception ex) {
+            if (ex.statusCode() != DefaultResource.UNSATISFIABLE
+                || !loc.range().equals(Range.ENTIRE)) {
+                throw ex;
             }
+            strm = clnt.getObject(req);
+        }
+        final GetObjectResponse head = strm.response();
+        final long total = Metadata.of(head, probe).size();
+        if (total >= 0L && head.contentLength() != null) {
+            final long last = Math.min(loc.range().last(), total - 1L);
+            final GetObjectResponse.Builder whole = head.toBuilder()
+                .contentLength(last - first + 1L);
+            if (loc.range().equals(Range.ENTIRE)) {
+                whole.contentRange(null);
+            } else {
+                whole.contentRange(
+                    String.format("bytes %d-%d/%d", first, last, total)
+                );
+            }
+            final GetObjectResponse resp = whole.build();
+            if (resp.contentLength() <= head.contentLength()) {
+                strm = new ResponseInputStream<>(resp, (InputStream) strm);
+            } else if (resp.eTag() == null) {
+                strm.abort();
+                IOUtils.closeQuietly(strm);
+                strm = clnt.getObject(req);
+            } else {
+                strm = new ResponseInputStream<>(
+                    resp,
+                    AbortableInputStream.create(
+                        new PartedStream(
+                            clnt, DefaultResource.PARTS,
+                            DefaultResource.MEMORY, req, resp, strm,
+                            DefaultResource.PART, DefaultResource.WINDOW
+                        )
+                    )
+                );
+            }
+        }
+        return strm;
+    }
+
+    private String size() {
+        final String size;
+        if (this.meta.size() < 0L) {
+            size = "*";
+        } else {
+            size = Long.toString(this.meta.size());
         }
         return size;
     }
@@ -0,0 +1,315 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Index of all domains by name, maintained in background.
+ *
+ * <p>The index is built from {@link Dynamo#load()} on first lookup. Then
+ * a background thread applies {@link Changes} every few seconds and
+ * rebuilds the whole index from a full scan once in a while, as a safety
+ * net: every half an hour while the changes are live, and every minute
+ * when they are not. It is also rebuilt as soon as the changes report
+ * that some of them may have been lost. Lookups never wait for DynamoDB.
+ * A fresh index replaces the old one atomically. Changes applied recently
+ * are applied again on top of every rebuilt index, since the scan may be
+ * older than them.
+ *
+ * <p>Lookups by name go to a hash map. A copy sorted by name, for
+ * listing, is made on demand, once for every version of the index,
+ * and shared until the index changes.
+ *
+ * <p>Every full scan is saved to a {@link Snapshot}. After a restart the
+ * first lookup is served from that snapshot, if there is one, while the
+ * full scan runs in background, so that the start doesn't depend on
+ * DynamoDB.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class DomainIndex implements Closeable {
+
+    /**
+     * How often to apply changes, in seconds.
+     */
+    private static final long POLL = 2L;
+
+    /**
+     * How long to remember applied changes, in milliseconds.
+     */
+    private static final long RECENT = TimeUnit.MINUTES.toMillis(10L);
+
+    /**
+     * How often to rebuild without live changes, in seconds.
+     */
+    private static final long OFTEN = TimeUnit.MINUTES.toSeconds(1L);
+
+    /**
+     * How often to rebuild with live changes, in milliseconds.
+     */
+    private static final long SELDOM = TimeUnit.MINUTES.toMillis(30L);
+
+    /**
+     * Dynamo DB.
+     */
+    private final transient Dynamo dynamo;
+
+    /**
+     * Changes in the registry.
+     */
+    private final transient Changes changes;
+
+    /**
+     * Snapshot of the last full scan.
+     */
+    private final transient Snapshot snapshot;
+
+    /**
+     * Changes applied recently, with the time they were applied.
+     */
+    private final transient Deque<Map.Entry<Long, Changes.Change>> recent;
+
+    /**
+     * When the index was rebuilt last time, in milliseconds.
+     */
+    private final transient AtomicLong rebuilt;
+
+    /**
+     * Domains by name, NULL until loaded.
+     */
+    private final transient AtomicReference<Map<String, Domain>> index;
+
+    /**
+     * Index sorted by name, with the version of the index it was made
+     * of, NULL until needed.
+     */
+    private final transient AtomicReference<
+        Map.Entry<Map<String, Domain>, NavigableMap<String, Domain>>> sorted;
+
+    /**
+     * Background rebuilder.
+     */
+    private final transient ScheduledExecutorService service;
+
+    /**
+     * Public ctor, without changes and snapshot.
+     * @param dnm The dynamo abstract
+     */
+    DomainIndex(@NotNull final Dynamo dnm) {
+        this(dnm, Changes.NONE, Snapshot.NONE);
+    }
+
+    /**
+     * Public ctor.
+     * @param dnm The dynamo abstract
+     * @param chgs Changes in the registry
+     * @param snap Snapshot of the last full scan
+     */
+    DomainIndex(@NotNull final Dynamo dnm, @NotNull final Changes chgs,
+        @NotNull final Snapshot snap) {
+        this.dynamo = dnm;
+        this.changes = chgs;
+        this.snapshot = snap;
+        this.rebuilt = new AtomicLong();
+        this.recent = new LinkedList<>();
+        this.index = new AtomicReference<>();
+        this.sorted = new AtomicReference<>();
+        this.service = Executors.newSingleThreadScheduledExecutor(
+            new VerboseThreads("domains")
+        );
+    }
+
+    @Override
+    public String toString() {
+        final Map<String, Domain> map = this.index.get();
+        final String text;
+        if (map == null) {
+            text = "not loaded yet";
+        } else {
+            text = String.format("%d domain(s)", map.size());
+        }
+        return text;
+    }
+
+    @Override
+    public void close() {
+        this.service.shutdownNow();
+    }
+
+    /**
+     * Find domain by name.
+     * @param name Name of the domain
+     * @return Domain or NULL if not found
+     * @throws IOException If fails to load the index the first time
+     */
+    Domain find(@NotNull final String name) throws IOException {
+        Map<String, Domain> map = this.index.get();
+        if (map == null) {
+            map = this.first();
+        }
+        return map.get(name);
+    }
+
+    /**
+     * All domains in the index, by name, in order.
+     * @return Read-only map of domains
+     * @throws IOException If fails to load the index the first time
+     */
+    NavigableMap<String, Domain> all() throws IOException {
+        Map<String, Domain> map = this.index.get();
+        if (map == null) {
+            map = this.first();
+        }
+        Map.Entry<Map<String, Domain>, NavigableMap<String, Domain>> entry =
+            this.sorted.get();
+        if (entry == null || entry.getKey() != map) {
+            entry = new AbstractMap.SimpleImmutableEntry<>(
+                map, ImmutableSortedMap.copyOf(map)
+            );
+            this.sorted.set(entry);
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Rebuild the index now, from a full scan.
+     * @throws IOException If fails to load
+     */
+    synchronized void refresh() throws IOException {
+        final Map<String, Domain> map = new HashMap<>(0);
+        for (final Domains domains : this.dynamo.load().values()) {
+            for (final Domain domain : domains) {
+                map.putIfAbsent(domain.name(), domain);
+            }
+        }
+        final long horizon = System.currentTimeMillis() - DomainIndex.RECENT;
+        while (!this.recent.isEmpty()
+            && this.recent.peekFirst().getKey() < horizon) {
+            this.recent.removeFirst();
+        }
+        for (final Map.Entry<Long, Changes.Change> entry : this.recent) {
+            DomainIndex.merge(map, entry.getValue());
+        }
+        final Map<String, Domain> fresh = ImmutableMap.copyOf(map);
+        this.index.set(fresh);
+        this.rebuilt.set(System.currentTimeMillis());
+        this.snapshot.save(fresh);
+    }
+
+    /**
+     * Apply changes happened since the last time.
+     * @throws IOException If fails to load
+     */
+    synchronized void update() throws IOException {
+        if (this.index.get() != null) {
+            final Iterable<Changes.Change> batch = this.changes.next();
+            if (batch == null) {
+                this.refresh();
+            } else {
+                this.apply(batch);
+            }
+        }
+    }
+
+    /**
+     * Apply these changes to the index, if it is already loaded.
+     * @param batch Changes, in the order they happened
+     */
+    synchronized void apply(final Iterable<Changes.Change> batch) {
+        final Map<String, Domain> before = this.index.get();
+        if (before != null) {
+            final long now = System.currentTimeMillis();
+            Map<String, Domain> map = null;
+            for (final Changes.Change change : batch) {
+                if (map == null) {
+                    map = new HashMap<>(before);
+                }
+                DomainIndex.merge(map, change);
+                this.recent.addLast(
+                    new AbstractMap.SimpleImmutableEntry<>(now, change)
+                );
+            }
+            if (map != null) {
+                this.index.set(ImmutableMap.copyOf(map));
+            }
+        }
+    }
+
+    private synchronized Map<String, Domain> first() throws IOException {
+        if (this.index.get() == null) {
+            final Map<String, Domain> saved = this.snapshot.load();
+            final long delay;
+            if (saved.isEmpty()) {
+                this.refresh();
+                delay = DomainIndex.OFTEN;
+            } else {
+                this.index.set(saved);
+                delay = 0L;
+            }
+            this.service.scheduleWithFixedDelay(
+                new VerboseRunnable(
+                    () -> {
+                        this.rebuild();
+                        return null;
+                    },
+                    true
+                ),
+                delay, DomainIndex.OFTEN, TimeUnit.SECONDS
+            );
+            if (this.changes != Changes.NONE) {
+                this.service.scheduleWithFixedDelay(
+                    new VerboseRunnable(
+                        () -> {
+                            this.update();
+                            return null;
+                        },
+                        true
+                    ),
+                    DomainIndex.POLL, DomainIndex.POLL, TimeUnit.SECONDS
+                );
+            }
+        }
+        return this.index.get();
+    }
+
+    private void rebuild() throws IOException {
+        if (!this.changes.live()
+            || System.currentTimeMillis() - this.rebuilt.get()
+            >= DomainIndex.SELDOM) {
+            this.refresh();
+        }
+    }
+
+    private static void merge(final Map<String, Domain> map,
+        final Changes.Change change) {
+        if (change.domain() == null) {
+            map.remove(change.name());
+        } else {
+            map.put(change.name(), change.domain());
+        }
+    }
+}
@@ -6,6 +6,7 @@ package com.s3auth.hosts;
 
 import com.jcabi.aspects.Immutable;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -15,6 +16,26 @@ import java.util.Map;
 @Immutable
 interface DomainStatsData {
 
+    /**
+     * No store, nothing is ever kept.
+     */
+    DomainStatsData NONE = new DomainStatsData() {
+        @Override
+        public void put(final String domain, final Stats stats) {
+            // nothing to do
+        }
+
+        @Override
+        public Stats get(final String domain) {
+            return new Stats.Simple(0L);
+        }
+
+        @Override
+        public Map<String, Stats> all() {
+            return Collections.emptyMap();
+        }
+    };
+
     /**
      * Post the statistics of the given domain, for this particular time.
      * @param domain The domain of this stats
@@ -23,6 +44,17 @@ interface DomainStatsData {
      */
     void put(String domain, Stats stats) throws IOException;
 
+    /**
+     * Post the statistics of many domains at once.
+     * @param batch Stats to keep, by domain
+     * @throws IOException If something goes wrong
+     */
+    default void putAll(final Map<String, Stats> batch) throws IOException {
+        for (final Map.Entry<String, Stats> entry : batch.entrySet()) {
+            this.put(entry.getKey(), entry.getValue());
+        }
+    }
+
     /**
      * Get the stats for the given domain.
      * @param domain The domain whose stats we're interested in
@@ -33,8 +65,21 @@ interface DomainStatsData {
 
     /**
      * Get the stats for all domains.
+     *
+     * <p>The store may keep returning them, until they are
+     * acknowledged, see {@link #acknowledge()}.
+     *
      * @return Map of each domain and their corresponding stats
      * @throws IOException If something goes wrong
      */
     Map<String, Stats> all() throws IOException;
+
+    /**
+     * Confirm that the stats returned by the last {@link #all()} are
+     * handled, so that the store may forget them.
+     * @throws IOException If something goes wrong
+     */
+    default void acknowledge() throws IOException {
+        // nothing to forget
+    }
 }
@@ -6,14 +6,16 @@ package com.s3auth.hosts;
 
 import com.jcabi.aspects.Loggable;
 import java.util.AbstractSet;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import javax.validation.constraints.NotNull;
 
 /**
- * Bag of domains.
+ * Bag of domains, ordered by name.
  * @since 0.0.1
  */
 @Loggable(Loggable.DEBUG)
@@ -23,7 +25,7 @@ final class Domains extends AbstractSet<Domain> {
      * List of domains.
      */
     private final transient ConcurrentMap<String, Domain> all =
-        new ConcurrentHashMap<>();
+        new ConcurrentSkipListMap<>();
 
     @Override
     public String toString() {
@@ -75,6 +77,14 @@ final class Domains extends AbstractSet<Domain> {
         return this.all.containsKey(name);
     }
 
+    /**
+     * Read-only view of domains, by name, in order.
+     * @return Domains
+     */
+    Map<String, Domain> map() {
+        return Collections.unmodifiableMap(this.all);
+    }
+
     /**
      * Get domain by name (runtime exception if it doesn't exist).
      * @param name The domain
@@ -28,6 +28,28 @@ interface Dynamo extends Closeable {
      */
     Map<URN, Domains> load() throws IOException;
 
+    /**
+     * Load domains of one user from DynamoDB.
+     * @param user Who is the owner
+     * @return Domains of the user, maybe empty
+     * @throws IOException If some IO problem inside
+     */
+    Domains domains(URN user) throws IOException;
+
+    /**
+     * Load one page of domains of one user from DynamoDB.
+     * @param user Who is the owner
+     * @param from Name the page starts after, or ends before, if it is
+     *  backward, or empty to start at the first or at the last domain
+     * @param forward FALSE if the page is backward
+     * @param limit How many domains at most
+     * @return Domains of the user, maybe empty
+     * @throws IOException If some IO problem inside
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    Domains domains(URN user, String from, boolean forward, int limit)
+        throws IOException;
+
     /**
      * Save to DynamoDB.
      * @param user Who is the owner
@@ -39,10 +61,13 @@ interface Dynamo extends Closeable {
 
     /**
      * Delete from DynamoDB.
-     * @param domain The domain to save
-     * @return TRUE if successfully deleted
+     * @param user Who is the owner
+     * @param domain The domain to delete
+     * @return TRUE if successfully deleted, FALSE if the user doesn't
+     *  have such a domain
+     * @throws IOException If some IO problem inside
      */
-    boolean remove(Domain domain);
+    boolean remove(URN user, Domain domain) throws IOException;
 
     /**
      * Client to Amazon.
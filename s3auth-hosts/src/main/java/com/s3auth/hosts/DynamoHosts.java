@@ -4,41 +4,84 @@
  */
 package com.s3auth.hosts;
 
-import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
+import com.jcabi.dynamo.Region;
+import com.jcabi.manifests.Manifests;
 import com.jcabi.urn.URN;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.AbstractMap;
 import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
+import org.apache.commons.lang3.StringUtils;
 
 /**
  * Collection of hosts, persisted in Amazon DynamoDB.
  *
+ * <p>Hosts are built once per domain and reused by all requests, until
+ * the domain is changed in the registry or removed from it.
+ *
  * <p>The class is mutable and thread-safe.
  *
  * @since 0.0.1
  */
-@Immutable
 @Loggable(Loggable.DEBUG)
 public final class DynamoHosts implements Hosts {
 
+    /**
+     * Paths rejected in all domains, regular expressions.
+     */
+    private static final String[] REJECTED = DynamoHosts.rejected();
+
     /**
      * Dynamo DB.
      */
     private final transient Dynamo dynamo;
 
+    /**
+     * Index of domains by name.
+     */
+    private final transient DomainIndex index;
+
+    /**
+     * Traffic of all hosts built here.
+     */
+    private final transient Traffic traffic;
+
+    /**
+     * Hosts already built, with their domains, by name.
+     */
+    private final transient ConcurrentMap<String, Map.Entry<Domain, Host>> built;
+
     /**
      * Default ctor.
      */
     public DynamoHosts() {
-        this(new DefaultDynamo());
+        this(DefaultDynamo.connect());
+    }
+
+    /**
+     * Ctor.
+     * @param region The jcabi-dynamo Region of the registry
+     */
+    private DynamoHosts(final Region region) {
+        this(
+            new DefaultDynamo(region), new StreamChanges(region),
+            new FileSnapshot()
+        );
     }
 
     /**
@@ -46,7 +89,21 @@ public final class DynamoHosts implements Hosts {
      * @param dnm The dynamo abstract
      */
     public DynamoHosts(@NotNull final Dynamo dnm) {
+        this(dnm, Changes.NONE, Snapshot.NONE);
+    }
+
+    /**
+     * Ctor.
+     * @param dnm The dynamo abstract
+     * @param chgs Changes in the registry
+     * @param snap Snapshot of the registry
+     */
+    DynamoHosts(@NotNull final Dynamo dnm, @NotNull final Changes chgs,
+        @NotNull final Snapshot snap) {
         this.dynamo = dnm;
+        this.index = new DomainIndex(dnm, chgs, snap);
+        this.traffic = DefaultHost.traffic();
+        this.built = new ConcurrentHashMap<>(0);
     }
 
     @Override
@@ -75,8 +132,9 @@ public final class DynamoHosts implements Hosts {
             message = "hostname contains characters not allowed by RFC1123"
         )
         final String name) throws IOException {
-        final Domain domain = this.byName(name);
+        final Domain domain = this.index.find(name);
         if (domain == null) {
+            this.built.remove(name);
             throw new Hosts.NotFoundException(
                 String.format(
                     "host '%s' not found, register it at www.s3auth.com and wait for 10 minutes",
@@ -84,50 +142,83 @@ public final class DynamoHosts implements Hosts {
                 )
             );
         }
-        return new RejectingHost(
-            new FastHost(
-                new SmartHost(
-                    new DefaultHost(new DefaultBucket(domain))
-                )
-            ),
-            "/wp-content/uploads/images/.*"
-        );
+        return this.built.compute(
+            name,
+            (key, before) -> {
+                Map.Entry<Domain, Host> entry = before;
+                if (entry == null
+                    || !DynamoHosts.same(entry.getKey(), domain)) {
+                    entry = new AbstractMap.SimpleImmutableEntry<>(
+                        domain, this.host(domain)
+                    );
+                }
+                return entry;
+            }
+        ).getValue();
     }
 
     @Override
     @NotNull
     public Set<Domain> domains(@NotNull @Valid final User user)
         throws IOException {
-        final Map<URN, Domains> data = this.dynamo.load();
-        Domains domains;
-        try {
-            if (user.identity().equals(new URN("urn:github:526301"))) {
-                domains = new Domains();
-                for (final Domains dmns : data.values()) {
-                    domains.addAll(dmns);
-                }
-            } else {
-                domains = data.get(user.identity());
+        final Map<String, Domain> domains;
+        if (DynamoHosts.admin(user)) {
+            domains = this.index.all();
+        } else {
+            domains = this.dynamo.domains(user.identity()).map();
+        }
+        return new DynamoHosts.Wrap(user, domains);
+    }
+
+    @Override
+    @NotNull
+    public List<Domain> domains(@NotNull @Valid final User user,
+        @NotNull final String from, final boolean forward, final int limit)
+        throws IOException {
+        final List<Domain> page;
+        if (DynamoHosts.admin(user)) {
+            NavigableMap<String, Domain> all = this.index.all();
+            if (!forward) {
+                all = all.descendingMap();
             }
-            if (domains == null) {
-                domains = new Domains();
+            if (!from.isEmpty()) {
+                all = all.tailMap(from, false);
             }
-        } catch (final URISyntaxException ex) {
-            throw new IOException(ex);
+            page = all.values().stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+            if (!forward) {
+                Collections.reverse(page);
+            }
+        } else {
+            page = new ArrayList<>(
+                this.dynamo.domains(user.identity(), from, forward, limit)
+            );
         }
-        return new DynamoHosts.Wrap(user, domains);
+        return page;
     }
 
     @Override
     public void close() throws IOException {
-        this.dynamo.close();
+        try {
+            this.index.close();
+            this.dynamo.close();
+        } finally {
+            this.traffic.close();
+        }
     }
 
     private boolean add(final URN user, final Domain domain) {
         boolean added = false;
         try {
-            if (this.byName(domain.name()) == null) {
-                added = this.dynamo.add(user, new DefaultDomain(domain));
+            final Domain clean = new DefaultDomain(domain);
+            if (this.index.find(clean.name()) == null) {
+                added = this.dynamo.add(user, clean);
+                this.index.apply(
+                    Collections.singleton(
+                        new Changes.Change(clean.name(), clean)
+                    )
+                );
             }
         } catch (final IOException ex) {
             throw new IllegalArgumentException(ex);
@@ -138,9 +229,15 @@ public final class DynamoHosts implements Hosts {
     private boolean remove(final URN user, final Domain domain) {
         boolean removed = false;
         try {
-            final Map<URN, Domains> data = this.dynamo.load();
-            if (data.containsKey(user) && data.get(user).contains(domain)) {
-                removed = this.dynamo.remove(domain);
+            final Domain clean = new DefaultDomain(domain);
+            if (this.dynamo.remove(user, clean)) {
+                this.index.apply(
+                    Collections.singleton(
+                        new Changes.Change(clean.name(), null)
+                    )
+                );
+                this.built.remove(clean.name());
+                removed = true;
             }
         } catch (final IOException ex) {
             throw new IllegalArgumentException(ex);
@@ -148,24 +245,51 @@ public final class DynamoHosts implements Hosts {
         return removed;
     }
 
-    private Domain byName(final String name) throws IOException {
-        Domain domain = null;
-        for (final Set<Domain> domains : this.dynamo.load().values()) {
-            for (final Domain candidate : domains) {
-                if (candidate.name().equals(name)) {
-                    domain = candidate;
-                    break;
-                }
-            }
-            if (domain != null) {
-                break;
-            }
+    private Host host(final Domain domain) {
+        final Bucket bucket = new DefaultBucket(domain);
+        return new RejectingHost(
+            new FastHost(
+                new SmartHost(new DefaultHost(bucket, this.traffic))
+            ),
+            new AccessRules(bucket),
+            DynamoHosts.REJECTED
+        );
+    }
+
+    private static boolean admin(final User user) throws IOException {
+        try {
+            return user.identity().equals(new URN("urn:github:526301"));
+        } catch (final URISyntaxException ex) {
+            throw new IOException(ex);
         }
-        return domain;
+    }
+
+    private static String[] rejected() {
+        final String[] ptns;
+        if (Manifests.exists("S3Auth-RejectedPaths")) {
+            ptns = StringUtils.split(Manifests.read("S3Auth-RejectedPaths"));
+        } else {
+            ptns = new String[] {"/wp-content/uploads/images/.*"};
+        }
+        return ptns;
+    }
+
+    private static boolean same(final Domain first, final Domain second) {
+        return first == second
+            || first.name().equals(second.name())
+            && first.key().equals(second.key())
+            && first.secret().equals(second.secret())
+            && first.bucket().equals(second.bucket())
+            && first.region().equals(second.region())
+            && Objects.equals(first.syslog(), second.syslog());
     }
 
     /**
-     * Wrap of domains.
+     * Wrap of domains, ordered by name.
+     *
+     * <p>It is a view of the map, which is never copied, so that the
+     * admin may page over the whole index without copying it.
+     *
      * @since 0.0.1
      */
     @Loggable(Loggable.DEBUG)
@@ -177,16 +301,16 @@ public final class DynamoHosts implements Hosts {
         private final transient User user;
 
         /**
-         * Domains.
+         * Domains, by name.
          */
-        private final transient Domains domains;
+        private final transient Map<String, Domain> domains;
 
         /**
          * Public ctor.
          * @param usr User
-         * @param dmns Domains
+         * @param dmns Domains, by name, in order
          */
-        Wrap(final User usr, final Domains dmns) {
+        Wrap(final User usr, final Map<String, Domain> dmns) {
             super();
             this.user = usr;
             this.domains = dmns;
@@ -199,12 +323,12 @@ public final class DynamoHosts implements Hosts {
 
         @Override
         public Iterator<Domain> iterator() {
-            return this.domains.iterator();
+            return this.domains.values().iterator();
         }
 
         @Override
         public boolean contains(final Object obj) {
-            return this.domains.contains(obj);
+            return this.domains.containsKey(Domain.class.cast(obj).name());
         }
 
         @Override
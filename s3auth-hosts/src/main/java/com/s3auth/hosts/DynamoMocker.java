@@ -5,7 +5,9 @@
 package com.s3auth.hosts;
 
 import com.jcabi.urn.URN;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,6 +37,37 @@ public final class DynamoMocker {
                 return Collections.unmodifiableMap(DynamoMocker.this.users);
             }
 
+            @Override
+            public Domains domains(final URN user) {
+                final Domains domains = new Domains();
+                final Set<Domain> mine = DynamoMocker.this.users.get(user);
+                if (mine != null) {
+                    domains.addAll(mine);
+                }
+                return domains;
+            }
+
+            @Override
+            public Domains domains(final URN user, final String from,
+                final boolean forward, final int limit) {
+                final List<Domain> mine = new ArrayList<>(this.domains(user));
+                if (!forward) {
+                    Collections.reverse(mine);
+                }
+                final Domains domains = new Domains();
+                for (final Domain domain : mine) {
+                    if (domains.size() == limit) {
+                        break;
+                    }
+                    final int cmp = domain.name().compareTo(from);
+                    if (from.isEmpty() || forward && cmp > 0
+                        || !forward && cmp < 0) {
+                        domains.add(domain);
+                    }
+                }
+                return domains;
+            }
+
             @Override
             public boolean add(final URN user, final Domain domain) {
                 DynamoMocker.this.users.putIfAbsent(user, new Domains());
@@ -44,13 +77,11 @@ public final class DynamoMocker {
             }
 
             @Override
-            public boolean remove(final Domain domain) {
-                for (final Set<Domain> domains
-                    : DynamoMocker.this.users.values()
-                ) {
-                    domains.remove(domain);
-                }
-                return true;
+            public boolean remove(final URN user, final Domain domain) {
+                final Set<Domain> domains = DynamoMocker.this.users.get(user);
+                return domains != null && domains.removeIf(
+                    dmn -> dmn.name().equals(domain.name())
+                );
             }
 
             @Override
@@ -7,6 +7,7 @@ package com.s3auth.hosts;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Timeable;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.URI;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
@@ -65,11 +66,24 @@ final class FastHost implements Host {
         return this.origin.stats();
     }
 
+    @Override
+    public Resource fetch(final URI uri, final Range range,
+        final Version version) throws IOException {
+        return this.fetch(uri, range, version, "");
+    }
+
     @Override
     @Timeable(limit = 2, unit = TimeUnit.MINUTES)
     public Resource fetch(final URI uri, final Range range,
+        final Version version, final String client) throws IOException {
+        return this.origin.fetch(uri, range, version, client);
+    }
+
+    @Override
+    @Timeable(limit = 2, unit = TimeUnit.MINUTES)
+    public Resource head(final URI uri, final Range range,
         final Version version) throws IOException {
-        return this.origin.fetch(uri, range, version);
+        return this.origin.head(uri, range, version);
     }
 
     @Override
@@ -82,4 +96,15 @@ final class FastHost implements Host {
         final String password) throws IOException {
         return this.origin.authorized(user, password);
     }
+
+    @Override
+    public String credentials(final String user) throws IOException {
+        return this.origin.credentials(user);
+    }
+
+    @Override
+    public boolean isBlocked(final InetAddress address)
+        throws IOException {
+        return this.origin.isBlocked(address);
+    }
 }
@@ -0,0 +1,173 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.collect.ImmutableMap;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.log.Logger;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Snapshot of domains in a local file.
+ *
+ * <p>The file is a gzipped sequence of domain attributes. It contains
+ * AWS secrets, so it is kept in a {@link PrivateDir}, never in the shared
+ * temporary directory. It is written to a temporary file first, readable
+ * only by its owner, and then moved over the old one, so that a crash
+ * never leaves a broken snapshot behind. A snapshot that can't be read,
+ * or that belongs to another user or is open to others, is ignored,
+ * as if there were none.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+final class FileSnapshot implements Snapshot {
+
+    /**
+     * Format marker at the beginning of the file.
+     */
+    private static final int MAGIC = 0x53334101;
+
+    /**
+     * Path of the file.
+     */
+    private final transient String path;
+
+    /**
+     * Public ctor, with the file in the private directory.
+     */
+    FileSnapshot() {
+        this(new PrivateDir().resolve("domains.bin").toString());
+    }
+
+    /**
+     * Public ctor.
+     * @param file Path of the file
+     */
+    FileSnapshot(@NotNull final String file) {
+        this.path = file;
+    }
+
+    @Override
+    public String toString() {
+        return this.path;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.path);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof FileSnapshot
+            && Objects.equals(this.path, ((FileSnapshot) obj).path);
+    }
+
+    @Override
+    public Map<String, Domain> load() {
+        final Path file = Paths.get(this.path).toAbsolutePath();
+        Map<String, Domain> domains = ImmutableMap.of();
+        if (Files.exists(file)) {
+            try {
+                PrivateDir.verify(file.getParent());
+                PrivateDir.verify(file);
+                domains = FileSnapshot.read(file);
+            } catch (final IOException ex) {
+                Logger.warn(
+                    this, "#load(): failed to read %s: %s",
+                    this.path, ex.getMessage()
+                );
+            }
+        }
+        return domains;
+    }
+
+    @Override
+    public void save(@NotNull final Map<String, Domain> domains) {
+        final Path file = Paths.get(this.path).toAbsolutePath();
+        try {
+            final Path temp = new PrivateDir(
+                file.getParent().toString()
+            ).temp("s3auth-", ".tmp");
+            try {
+                try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(
+                        new GZIPOutputStream(Files.newOutputStream(temp))
+                    )
+                )) {
+                    FileSnapshot.write(output, domains);
+                }
+                Files.move(
+                    temp, file,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+                );
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (final IOException ex) {
+            Logger.warn(
+                this, "#save(): failed to write %s: %s",
+                this.path, ex.getMessage()
+            );
+        }
+    }
+
+    private static Map<String, Domain> read(final Path file)
+        throws IOException {
+        try (DataInputStream input = new DataInputStream(
+            new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))
+            )
+        )) {
+            if (input.readInt() != FileSnapshot.MAGIC) {
+                throw new IOException("unknown format of the snapshot");
+            }
+            final int total = input.readInt();
+            final Map<String, Domain> domains = new HashMap<>(total);
+            for (int idx = 0; idx < total; ++idx) {
+                final Domain domain = new DefaultDomain(
+                    input.readUTF(), input.readUTF(), input.readUTF(),
+                    input.readUTF(), input.readUTF(), input.readUTF()
+                );
+                domains.put(domain.name(), domain);
+            }
+            return ImmutableMap.copyOf(domains);
+        }
+    }
+
+    private static void write(final DataOutputStream output,
+        final Map<String, Domain> domains) throws IOException {
+        output.writeInt(FileSnapshot.MAGIC);
+        output.writeInt(domains.size());
+        for (final Domain domain : domains.values()) {
+            output.writeUTF(domain.name());
+            output.writeUTF(domain.key());
+            output.writeUTF(domain.secret());
+            output.writeUTF(domain.bucket());
+            output.writeUTF(domain.region());
+            output.writeUTF(domain.syslog());
+        }
+    }
+}
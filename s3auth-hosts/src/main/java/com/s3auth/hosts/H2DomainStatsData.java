@@ -1,170 +0,0 @@
-/*
- * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
- * SPDX-License-Identifier: MIT
- */
-package com.s3auth.hosts;
-
-import com.jcabi.aspects.Immutable;
-import com.jcabi.aspects.Loggable;
-import com.jcabi.jdbc.JdbcSession;
-import com.jcabi.jdbc.Outcome;
-import com.jcabi.jdbc.UrlSource;
-import java.io.File;
-import java.io.IOException;
-import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
-
-/**
- * Storage of {@link Stats} per domain with H2 Database.
- * @since 0.0.1
- */
-@Immutable
-@Loggable(Loggable.DEBUG)
-final class H2DomainStatsData implements DomainStatsData {
-
-    /**
-     * Create Table statement.
-     */
-    private static final String CREATE = String.join(
-        " ",
-        "CREATE TABLE IF NOT EXISTS DOMAIN_STATS(",
-        "ID INT PRIMARY KEY auto_increment,",
-        "DOMAIN VARCHAR(255),",
-        "BYTES INT,",
-        "CREATE_TIME TIMESTAMP )"
-    );
-
-    /**
-     * Insert statement.
-     */
-    private static final String INSERT = String.join(
-        " ",
-        "INSERT INTO DOMAIN_STATS (DOMAIN, BYTES, CREATE_TIME)",
-        "values (?, ?, CURRENT_TIMESTAMP())"
-    );
-
-    /**
-     * Outcome for obtaining a single Stats per domain.
-     */
-    private static final Outcome<Stats> STATS = (rset, stmt) -> {
-        rset.next();
-        return new Stats.Simple(rset.getLong(1));
-    };
-
-    /**
-     * Outcome for obtaining a single Stats for all domains.
-     */
-    private static final Outcome<Map<String, Stats>> STATS_ALL = (rset, stmt) -> {
-        final Map<String, Stats> stats = new HashMap<>();
-        while (rset.next()) {
-            stats.put(
-                rset.getString(1), new Stats.Simple(rset.getLong(2))
-            );
-        }
-        return stats;
-    };
-
-    /**
-     * The file pointing to the database to use.
-     */
-    private final transient File file;
-
-    /**
-     * Public ctor.
-     */
-    H2DomainStatsData() {
-        this(new File("s3auth-domainStats"));
-    }
-
-    /**
-     * Public ctor.
-     * @param src The file pointing to the database to use
-     */
-    H2DomainStatsData(final File src) {
-        this.file = src;
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hashCode(this.file);
-    }
-
-    @Override
-    public boolean equals(final Object obj) {
-        return obj instanceof H2DomainStatsData
-            && Objects.equals(this.file, ((H2DomainStatsData) obj).file);
-    }
-
-    @Override
-    public void put(final String domain, final Stats stats) throws IOException {
-        try {
-            this.session()
-                .sql(H2DomainStatsData.INSERT)
-                .set(domain)
-                .set(stats.bytesTransferred())
-                .execute()
-                .commit();
-        } catch (final SQLException ex) {
-            throw new IOException(ex);
-        }
-    }
-
-    @Override
-    public Stats get(final String domain) throws IOException {
-        try {
-            final JdbcSession session = this.session();
-            final Stats result = session
-                .sql("SELECT SUM(BYTES) FROM DOMAIN_STATS WHERE DOMAIN = ?")
-                .set(domain)
-                .select(H2DomainStatsData.STATS);
-            session.sql("DELETE FROM DOMAIN_STATS WHERE DOMAIN = ?")
-                .set(domain)
-                .execute()
-                .commit();
-            return result;
-        } catch (final SQLException ex) {
-            throw new IOException(ex);
-        }
-    }
-
-    @Override
-    public Map<String, Stats> all() throws IOException {
-        try {
-            final JdbcSession session = this.session();
-            final Map<String, Stats> result = session
-                .sql("SELECT DOMAIN, SUM(BYTES) FROM DOMAIN_STATS GROUP BY DOMAIN")
-                .select(H2DomainStatsData.STATS_ALL);
-            session.sql("DELETE FROM DOMAIN_STATS").execute().commit();
-            return result;
-        } catch (final SQLException ex) {
-            throw new IOException(ex);
-        }
-    }
-
-    /**
-     * Create tables.
-     * @return This
-     * @throws IOException If an IO Exception occurs
-     */
-    H2DomainStatsData init() throws IOException {
-        try {
-            Class.forName("org.h2.Driver");
-            this.session().sql(H2DomainStatsData.CREATE).execute().commit();
-        } catch (final ClassNotFoundException ex) {
-            throw new IOException("H2 JDBC driver not on classpath", ex);
-        } catch (final SQLException ex) {
-            throw new IOException(ex);
-        }
-        return this;
-    }
-
-    private JdbcSession session() {
-        return new JdbcSession(
-            new UrlSource(
-                String.format("jdbc:h2:file:%s", this.file.getAbsolutePath())
-            )
-        ).autocommit(false);
-    }
-}
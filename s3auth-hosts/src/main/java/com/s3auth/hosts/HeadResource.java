@@ -0,0 +1,230 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Loggable;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Objects;
+import java.util.Optional;
+import javax.validation.constraints.NotNull;
+import javax.ws.rs.core.HttpHeaders;
+import org.apache.commons.lang3.StringUtils;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+
+/**
+ * Metadata of an S3 object, obtained by {@code HeadObject}.
+ *
+ * <p>The resource has the same status and headers as
+ * {@link DefaultResource}, but never opens the object content, so the
+ * pooled S3 connection is not aborted half way through a body nobody reads.
+ * When the metadata is already in {@link MetadataCache}, remembered for
+ * the same credentials, S3 is not called at all.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class HeadResource implements Resource {
+
+    /**
+     * Bucket name.
+     */
+    private final transient String bucket;
+
+    /**
+     * Key in the bucket.
+     */
+    private final transient String key;
+
+    /**
+     * The range.
+     */
+    private final transient Range range;
+
+    /**
+     * Metadata of the entire object.
+     */
+    private final transient Metadata meta;
+
+    /**
+     * Private ctor, metadata obtained by {@link #fetch}.
+     * @param loc Coordinates of the object
+     * @param mta Metadata of the entire object
+     */
+    private HeadResource(final Locator loc, final Metadata mta) {
+        this.bucket = loc.bucket();
+        this.key = loc.key();
+        this.range = loc.range();
+        this.meta = mta;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s:%s (head)", this.bucket, this.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.bucket, this.key, this.range);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        final boolean result;
+        if (obj instanceof HeadResource) {
+            final HeadResource other = (HeadResource) obj;
+            result = Objects.equals(this.bucket, other.bucket)
+                && Objects.equals(this.key, other.key)
+                && Objects.equals(this.range, other.range);
+        } else {
+            result = false;
+        }
+        return result;
+    }
+
+    @Override
+    public int status() {
+        final int status;
+        if (this.range.equals(Range.ENTIRE)) {
+            status = HttpURLConnection.HTTP_OK;
+        } else {
+            status = HttpURLConnection.HTTP_PARTIAL;
+        }
+        return status;
+    }
+
+    @Override
+    public long writeTo(@NotNull final OutputStream output) {
+        return 0L;
+    }
+
+    @Override
+    @NotNull
+    public Collection<String> headers() {
+        final Collection<String> headers = new ArrayList<>(5);
+        final long size = this.meta.size();
+        if (size >= 0L) {
+            final long last = Math.min(this.range.last(), size - 1L);
+            headers.add(
+                HeadResource.header(
+                    HttpHeaders.CONTENT_LENGTH,
+                    Long.toString(Math.max(0L, last - this.range.first() + 1L))
+                )
+            );
+            if (!this.range.equals(Range.ENTIRE)) {
+                headers.add(
+                    HeadResource.header(
+                        "Content-Range",
+                        String.format(
+                            "bytes %d-%d/%d", this.range.first(), last, size
+                        )
+                    )
+                );
+            }
+        }
+        if (this.meta.contentType() != null) {
+            headers.add(
+                HeadResource.header(
+                    HttpHeaders.CONTENT_TYPE,
+                    this.meta.contentType()
+                )
+            );
+        }
+        if (this.meta.contentEncoding() != null) {
+            headers.add(
+                HeadResource.header(
+                    HttpHeaders.CONTENT_ENCODING,
+                    this.meta.contentEncoding()
+                )
+            );
+        }
+        if (this.meta.etag() != null) {
+            headers.add(
+                HeadResource.header(HttpHeaders.ETAG, this.meta.etag())
+            );
+        }
+        headers.add(
+            HeadResource.header(
+                HttpHeaders.CACHE_CONTROL,
+                StringUtils.defaultIfBlank(
+                    this.meta.cacheControl(),
+                    "must-revalidate"
+                )
+            )
+        );
+        headers.add(HeadResource.header("Accept-Ranges", "bytes"));
+        return headers;
+    }
+
+    @Override
+    public String etag() {
+        return this.meta.etag();
+    }
+
+    @Override
+    public Date lastModified() {
+        return Date.from(
+            Optional.ofNullable(this.meta.lastModified())
+                .orElseGet(Instant::now)
+        );
+    }
+
+    @Override
+    public String contentType() {
+        return this.meta.contentType();
+    }
+
+    @Override
+    public void close() {
+        // nothing to do, no content was opened
+    }
+
+    /**
+     * Fetch object metadata from the cache or from S3.
+     * @param clnt Amazon S3 client
+     * @param loc Coordinates of the object to describe
+     * @param cache Cache of object metadata
+     * @return Fetched resource, without content
+     */
+    static HeadResource fetch(@NotNull final S3Client clnt,
+        @NotNull final Locator loc, @NotNull final MetadataCache cache) {
+        final Locator entire = loc.entire();
+        return new HeadResource(
+            loc,
+            cache.find(entire).orElseGet(
+                () -> cache.remember(
+                    entire,
+                    Metadata.of(
+                        clnt.headObject(HeadResource.request(entire)),
+                        Range.ENTIRE
+                    )
+                )
+            )
+        );
+    }
+
+    @NotNull
+    private static String header(@NotNull final String name,
+        @NotNull final String value) {
+        return String.format("%s: %s", name, value);
+    }
+
+    private static HeadObjectRequest request(final Locator loc) {
+        final HeadObjectRequest.Builder builder = HeadObjectRequest.builder()
+            .bucket(loc.bucket())
+            .key(loc.key());
+        if (!loc.version().latest()) {
+            builder.versionId(loc.version().version());
+        }
+        return builder.build();
+    }
+}
@@ -7,8 +7,8 @@ package com.s3auth.hosts;
 import com.jcabi.aspects.Immutable;
 import java.io.Closeable;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.URI;
-import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
 
 /**
  * One host.
@@ -27,6 +27,42 @@ public interface Host extends Closeable {
      */
     Resource fetch(URI uri, Range range, Version version) throws IOException;
 
+    /**
+     * Find resource for this client and return its input stream.
+     *
+     * <p>The client only helps to tell apart clients reading the same
+     * resource at the same time, for example to read ahead ranges of
+     * each of them, hosts may ignore it.
+     *
+     * @param uri Name of resource
+     * @param range Range of data to return
+     * @param version The version of the data to return
+     * @param client Identity of the client, like its address, or empty
+     *  if unknown
+     * @return The stream
+     * @throws IOException If some error with I/O inside
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    default Resource fetch(final URI uri, final Range range,
+        final Version version, final String client) throws IOException {
+        return this.fetch(uri, range, version);
+    }
+
+    /**
+     * Find resource and return its metadata only, without its content.
+     *
+     * <p>The resource returned has the same status and headers as the one
+     * returned by {@link #fetch(URI, Range, Version)}, but writes
+     * nothing, which is what an HTTP HEAD request needs.
+     *
+     * @param uri Name of resource
+     * @param range Range of data to describe
+     * @param version The version of the data to describe
+     * @return The resource, without content
+     * @throws IOException If some error with I/O inside
+     */
+    Resource head(URI uri, Range range, Version version) throws IOException;
+
     /**
      * This URI require authentication?
      * @param uri Which URI we're trying to access
@@ -44,6 +80,32 @@ public interface Host extends Closeable {
      */
     boolean authorized(String user, String password) throws IOException;
 
+    /**
+     * Token of the credentials of this user, which changes every time
+     * they change, for example when {@code .htpasswd} is modified.
+     *
+     * <p>The token is never shown to anyone, it is only signed together
+     * with other data, to make sure the credentials are still the same.
+     *
+     * @param user User name
+     * @return Token, or NULL if the user is unknown or tokens are not
+     *  supported by this host
+     * @throws IOException If some error with I/O inside
+     */
+    default String credentials(final String user) throws IOException {
+        return null;
+    }
+
+    /**
+     * Is this client blocked from the host, before any authentication?
+     * @param address Address of the client
+     * @return Yes or no
+     * @throws IOException If some error with I/O inside
+     */
+    default boolean isBlocked(final InetAddress address) throws IOException {
+        return false;
+    }
+
     /**
      * Get this resource's syslog host and port.
      * @return Syslog host and port
@@ -55,19 +117,4 @@ public interface Host extends Closeable {
      * @return Statistics for this domain
      */
     Stats stats();
-
-    /**
-     * Client to Amazon CloudWatch.
-     * @since 0.0.1
-     */
-    @Immutable
-    @FunctionalInterface
-    interface CloudWatch {
-
-        /**
-         * Get Amazon client.
-         * @return The client
-         */
-        CloudWatchClient get();
-    }
 }
@@ -7,7 +7,10 @@ package com.s3auth.hosts;
 import com.jcabi.aspects.Immutable;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Collection of hosts.
@@ -35,6 +38,41 @@ public interface Hosts extends Closeable {
      */
     Set<Domain> domains(User user) throws IOException;
 
+    /**
+     * Get one page of domains of the given user, ordered by name.
+     *
+     * <p>A page forward is the first domains after the given name, while
+     * a page backward is the last domains before it. Implementations
+     * should not load other domains of the user to find them.
+     *
+     * @param user The user
+     * @param from Name the page starts after, or ends before, if it is
+     *  backward, or empty to start at the first or at the last domain
+     * @param forward FALSE if the page is backward
+     * @param limit How many domains at most
+     * @return Domains, ordered by name
+     * @throws IOException If some error inside
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    default List<Domain> domains(final User user, final String from,
+        final boolean forward, final int limit) throws IOException {
+        final List<Domain> all = this.domains(user).stream()
+            .sorted(Comparator.comparing(Domain::name))
+            .filter(
+                domain -> from.isEmpty()
+                    || forward && domain.name().compareTo(from) > 0
+                    || !forward && domain.name().compareTo(from) < 0
+            )
+            .collect(Collectors.toList());
+        final List<Domain> page;
+        if (forward) {
+            page = all.subList(0, Math.min(limit, all.size()));
+        } else {
+            page = all.subList(Math.max(0, all.size() - limit), all.size());
+        }
+        return page;
+    }
+
     /**
      * Thrown by {@link #find(String)} if domain is not found.
      * @since 0.0.1
@@ -5,7 +5,7 @@
 package com.s3auth.hosts;
 
 import com.google.common.base.Splitter;
-import com.jcabi.aspects.Cacheable;
+import com.google.common.collect.ImmutableMap;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.LogExceptions;
 import com.jcabi.aspects.Loggable;
@@ -14,13 +14,24 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import javax.validation.constraints.NotNull;
 
 /**
  * Htpasswd file abstraction.
+ *
+ * <p>The file is parsed once, and the algorithm of every user is detected
+ * by the form of the hash, so that a password is verified by one algorithm
+ * only. Every few minutes the file is loaded again, with the ETag of the
+ * previous version, if the source supports that, so that an unchanged
+ * file is not downloaded. If the file can't be loaded, the users loaded
+ * before are kept for a few more minutes, and if there are none, nobody
+ * is authorized, see {@link RevalidatedFiles}.
+ *
  * @since 0.0.1
  */
 @Immutable
@@ -33,15 +44,30 @@ final class Htpasswd {
     private static final int LIFETIME = 5;
 
     /**
-     * All known algorithms.
-     * @see <a href="http://httpd.apache.org/docs/2.2/misc/password_encryptions.html">Algorithms supported by Apache</a>
+     * Name of the file.
      */
-    private static final Htpasswd.Algorithm[] ALGORITHMS = {
-        new Md5(),
-        new Sha(),
-        new UnixCrypt(),
-        new PlainText(),
-    };
+    private static final String NAME = ".htpasswd";
+
+    /**
+     * Outcomes of verifications, shared by all hosts.
+     */
+    private static final Verifications VERIFIED = new Verifications();
+
+    /**
+     * UNIX crypt, or a plain text password.
+     */
+    private static final Htpasswd.Algorithm CRYPT =
+        (hash, password) -> new UnixCrypt().matches(hash, password)
+            || new PlainText().matches(hash, password);
+
+    /**
+     * Files loaded recently, by their htpasswd.
+     */
+    private static final RevalidatedFiles<Htpasswd.Users> FILES =
+        new RevalidatedFiles<>(
+            Htpasswd.Users::new, new Htpasswd.Users(""),
+            Htpasswd.LIFETIME, TimeUnit.MINUTES
+        );
 
     /**
      * The host we're working with.
@@ -49,18 +75,42 @@ final class Htpasswd {
     private final transient Host host;
 
     /**
-     * Public ctor.
+     * Where the file comes from.
+     */
+    private final transient Htpasswd.Source source;
+
+    /**
+     * Public ctor, loading the file through the host.
      * @param hst The host to work with
      */
     Htpasswd(@NotNull final Host hst) {
+        this(hst, etag -> Htpasswd.fetch(hst));
+    }
+
+    /**
+     * Public ctor, loading the file straight from the bucket.
+     * @param hst The host to work with
+     * @param bckt The bucket of the host
+     */
+    Htpasswd(@NotNull final Host hst, @NotNull final Bucket bckt) {
+        this(hst, new BucketFile(bckt, Htpasswd.NAME));
+    }
+
+    /**
+     * Ctor.
+     * @param hst The host to work with
+     * @param src Where the file comes from
+     */
+    Htpasswd(@NotNull final Host hst, @NotNull final Htpasswd.Source src) {
         this.host = hst;
+        this.source = src;
     }
 
     @Override
     public String toString() {
         return Logger.format(
             ".htpasswd(%d user(s), reloaded every %d min)",
-            this.fetch().size(),
+            this.users().size(),
             Htpasswd.LIFETIME
         );
     }
@@ -86,60 +136,51 @@ final class Htpasswd {
     @LogExceptions
     boolean authorized(@NotNull final String user,
         @NotNull final String password) throws IOException {
-        final ConcurrentMap<String, String> users = this.fetch();
-        return users.containsKey(user)
-            && Htpasswd.matches(users.get(user), password);
+        final Htpasswd.Users users = this.users();
+        final String hash = users.hash(user);
+        return hash != null && Htpasswd.VERIFIED.matches(
+            hash, password, users.algorithm(user)
+        );
     }
 
-    @Cacheable(lifetime = Htpasswd.LIFETIME)
-    private ConcurrentMap<String, String> fetch() {
-        final ConcurrentMap<String, String> map =
-            new ConcurrentHashMap<>(0);
-        final Iterable<String> lines = Splitter.on('\n').split(this.content());
-        for (final String line : lines) {
-            if (line.isEmpty()) {
-                continue;
-            }
-            final String[] parts = line.trim().split(":", 2);
-            if (parts.length != 2) {
-                continue;
-            }
-            map.put(parts[0].trim(), parts[1].trim());
-        }
-        return map;
+    /**
+     * Hash of the user's password.
+     * @param user User name
+     * @return Hash or NULL if there is no such user
+     */
+    String hash(@NotNull final String user) {
+        return this.users().hash(user);
     }
 
-    private String content() {
-        String content;
-        try {
-            final Resource res = this.host.fetch(
-                URI.create("/.htpasswd"),
-                Range.ENTIRE,
-                Version.LATEST
-            );
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            res.writeTo(baos);
-            content = baos.toString(StandardCharsets.UTF_8).trim();
-        } catch (final IOException ex) {
-            Logger.warn(
-                this,
-                "#content(): failed to fetch .htpasswd from %s: %s",
-                this.host, ex.getMessage()
-            );
-            content = "";
-        }
-        return content;
+    private Htpasswd.Users users() {
+        return Htpasswd.FILES.get(this, this.source);
     }
 
-    private static boolean matches(final String hash, final String password) {
-        boolean matches = false;
-        for (final Htpasswd.Algorithm algo : Htpasswd.ALGORITHMS) {
-            if (algo.matches(hash, password)) {
-                matches = true;
-                break;
-            }
+    private static Map.Entry<String, String> fetch(final Host hst)
+        throws IOException {
+        final Resource res = hst.fetch(
+            URI.create(String.format("/%s", Htpasswd.NAME)),
+            Range.ENTIRE,
+            Version.LATEST
+        );
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        res.writeTo(baos);
+        return new AbstractMap.SimpleImmutableEntry<>(
+            null, baos.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+    private static Htpasswd.Algorithm algorithm(final String hash) {
+        final Htpasswd.Algorithm algo;
+        final String salt = Md5.salt(hash);
+        if (salt != null) {
+            algo = new Md5(salt);
+        } else if (Sha.accepts(hash)) {
+            algo = new Sha();
+        } else {
+            algo = Htpasswd.CRYPT;
         }
-        return matches;
+        return algo;
     }
 
     /**
@@ -157,4 +198,101 @@ final class Htpasswd {
          */
         boolean matches(String hash, String password);
     }
+
+    /**
+     * Source of the file.
+     * @since 0.0.1
+     */
+    @Immutable
+    @FunctionalInterface
+    interface Source {
+
+        /**
+         * Load the file, unless it is not modified.
+         * @param etag ETag of the version already loaded, or NULL
+         * @return ETag and content of the file, or NULL if not modified
+         * @throws IOException If fails
+         */
+        Map.Entry<String, String> load(String etag) throws IOException;
+    }
+
+    /**
+     * Users of a loaded file.
+     *
+     * <p>The class is immutable and thread-safe.
+     *
+     * @since 0.0.1
+     */
+    private static final class Users {
+
+        /**
+         * Hashes and their algorithms, by user name.
+         */
+        private final transient Map<String, Map.Entry<String, Htpasswd.Algorithm>> hashes;
+
+        /**
+         * Ctor.
+         * @param content Content of the file
+         */
+        Users(final String content) {
+            this.hashes = Users.parse(content);
+        }
+
+        /**
+         * How many users there are.
+         * @return Number of users
+         */
+        int size() {
+            return this.hashes.size();
+        }
+
+        /**
+         * Hash of the user's password.
+         * @param user User name
+         * @return Hash or NULL if there is no such user
+         */
+        String hash(final String user) {
+            final Map.Entry<String, Htpasswd.Algorithm> entry =
+                this.hashes.get(user);
+            String hash = null;
+            if (entry != null) {
+                hash = entry.getKey();
+            }
+            return hash;
+        }
+
+        /**
+         * Algorithm of the user's hash.
+         * @param user User name, which must exist
+         * @return The algorithm
+         */
+        Htpasswd.Algorithm algorithm(final String user) {
+            return this.hashes.get(user).getValue();
+        }
+
+        private static Map<String, Map.Entry<String, Htpasswd.Algorithm>> parse(
+            final String content) {
+            final Map<String, Map.Entry<String, Htpasswd.Algorithm>> map =
+                new HashMap<>(0);
+            final Iterable<String> lines = Splitter.on('\n')
+                .split(content.trim());
+            for (final String line : lines) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                final String[] parts = line.trim().split(":", 2);
+                if (parts.length != 2) {
+                    continue;
+                }
+                final String hash = parts[1].trim();
+                map.put(
+                    parts[0].trim(),
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        hash, Htpasswd.algorithm(hash)
+                    )
+                );
+            }
+            return ImmutableMap.copyOf(map);
+        }
+    }
 }
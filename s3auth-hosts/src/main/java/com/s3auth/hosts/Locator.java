@@ -6,11 +6,21 @@ package com.s3auth.hosts;
 
 /**
  * Coordinates of an S3 object to fetch.
+ *
+ * <p>The owner identifies the credentials the object is fetched with,
+ * so that whatever is remembered about the object is never given to
+ * a domain with other credentials, even if the bucket is the same.
+ *
  * @since 0.0.1
  */
 @SuppressWarnings("PMD.DataClass")
 final class Locator {
 
+    /**
+     * Owner, a hash of the credentials.
+     */
+    private final transient String owner;
+
     /**
      * Bucket name.
      */
@@ -32,7 +42,7 @@ final class Locator {
     private final transient Version version;
 
     /**
-     * Ctor.
+     * Ctor for unit tests, without an owner.
      * @param bckt Bucket name
      * @param name Key name
      * @param rng Range to deliver
@@ -40,12 +50,35 @@ final class Locator {
      */
     Locator(final String bckt, final String name,
         final Range rng, final Version ver) {
+        this("", bckt, name, rng, ver);
+    }
+
+    /**
+     * Ctor.
+     * @param own Owner, a hash of the credentials
+     * @param bckt Bucket name
+     * @param name Key name
+     * @param rng Range to deliver
+     * @param ver Version of object to retrieve
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    Locator(final String own, final String bckt, final String name,
+        final Range rng, final Version ver) {
+        this.owner = own;
         this.bucket = bckt;
         this.key = name;
         this.range = rng;
         this.version = ver;
     }
 
+    /**
+     * Owner, a hash of the credentials.
+     * @return The owner
+     */
+    String owner() {
+        return this.owner;
+    }
+
     /**
      * Bucket name.
      * @return The name
@@ -77,4 +110,14 @@ final class Locator {
     Version version() {
         return this.version;
     }
+
+    /**
+     * The same object, entirely.
+     * @return Coordinates of the entire object
+     */
+    Locator entire() {
+        return new Locator(
+            this.owner, this.bucket, this.key, Range.ENTIRE, this.version
+        );
+    }
 }
@@ -22,17 +22,37 @@ final class Md5 implements Htpasswd.Algorithm {
     private static final Pattern PATTERN =
         Pattern.compile("\\$apr1\\$([^\\$]+)\\$([a-zA-Z0-9/\\.]+=*)");
 
+    /**
+     * Salt of the hash.
+     */
+    private final transient String salt;
+
+    /**
+     * Public ctor.
+     * @param slt Salt of the hash, see {@link #salt(String)}
+     */
+    Md5(final String slt) {
+        this.salt = slt;
+    }
+
     @Override
     public boolean matches(final String hash, final String password) {
+        return hash.equals(Md5Crypt.apr1Crypt(password, this.salt));
+    }
+
+    /**
+     * Salt of the apr1 hash.
+     * @param hash The hash
+     * @return Salt, or NULL if it is not an apr1 hash
+     */
+    static String salt(final String hash) {
         final Matcher matcher = Md5.PATTERN.matcher(hash);
-        final boolean matches;
+        final String salt;
         if (matcher.matches()) {
-            matches = hash.equals(
-                Md5Crypt.apr1Crypt(password, matcher.group(1))
-            );
+            salt = matcher.group(1);
         } else {
-            matches = false;
+            salt = null;
         }
-        return matches;
+        return salt;
     }
 }
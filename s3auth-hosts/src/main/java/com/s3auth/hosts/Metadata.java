@@ -0,0 +1,224 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Immutable;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+/**
+ * Metadata of an S3 object, as much as we need in HTTP headers.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Immutable
+@SuppressWarnings("PMD.DataClass")
+final class Metadata {
+
+    /**
+     * Total size in {@code Content-Range} header, e.g. "bytes 0-9/1024".
+     */
+    private static final Pattern TOTAL =
+        Pattern.compile("^bytes \\d+-\\d+/(\\d+)$");
+
+    /**
+     * Total size of the object, in bytes, or -1 if unknown.
+     */
+    private final transient long total;
+
+    /**
+     * ETag, or NULL.
+     */
+    private final transient String tag;
+
+    /**
+     * Content type, or NULL.
+     */
+    private final transient String type;
+
+    /**
+     * Content encoding, or NULL.
+     */
+    private final transient String encoding;
+
+    /**
+     * Cache control, or NULL.
+     */
+    private final transient String control;
+
+    /**
+     * Last modification time, in milliseconds, or zero if unknown.
+     */
+    private final transient long modified;
+
+    /**
+     * Public ctor.
+     * @param size Total size of the object, or -1 if unknown
+     * @param etag ETag
+     * @param ctype Content type
+     * @param cenc Content encoding
+     * @param cctrl Cache control
+     * @param mdfd Last modification time, in milliseconds
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    Metadata(final long size, final String etag, final String ctype,
+        final String cenc, final String cctrl, final long mdfd) {
+        this.total = size;
+        this.tag = etag;
+        this.type = ctype;
+        this.encoding = cenc;
+        this.control = cctrl;
+        this.modified = mdfd;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d bytes, etag=%s", this.total, this.tag);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.total, this.tag);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        final boolean result;
+        if (obj instanceof Metadata) {
+            final Metadata other = (Metadata) obj;
+            result = this.total == other.total
+                && Objects.equals(this.tag, other.tag);
+        } else {
+            result = false;
+        }
+        return result;
+    }
+
+    /**
+     * Total size of the object, in bytes.
+     * @return Size or -1 if unknown
+     */
+    long size() {
+        return this.total;
+    }
+
+    /**
+     * ETag.
+     * @return ETag or NULL
+     */
+    String etag() {
+        return this.tag;
+    }
+
+    /**
+     * Content type.
+     * @return Type or NULL
+     */
+    String contentType() {
+        return this.type;
+    }
+
+    /**
+     * Content encoding.
+     * @return Encoding or NULL
+     */
+    String contentEncoding() {
+        return this.encoding;
+    }
+
+    /**
+     * Cache control.
+     * @return Cache control or NULL
+     */
+    String cacheControl() {
+        return this.control;
+    }
+
+    /**
+     * Last modification time.
+     * @return Time or NULL if unknown
+     */
+    Instant lastModified() {
+        final Instant time;
+        if (this.modified == 0L) {
+            time = null;
+        } else {
+            time = Instant.ofEpochMilli(this.modified);
+        }
+        return time;
+    }
+
+    /**
+     * The same metadata, with the total size known.
+     * @param size Total size of the object
+     * @return New metadata
+     */
+    Metadata withSize(final long size) {
+        return new Metadata(
+            size, this.tag, this.type, this.encoding, this.control,
+            this.modified
+        );
+    }
+
+    /**
+     * Make it from the response of {@code GetObject}.
+     * @param resp The response
+     * @param range The range requested
+     * @return Metadata
+     */
+    static Metadata of(final GetObjectResponse resp, final Range range) {
+        return new Metadata(
+            Metadata.total(resp.contentLength(), resp.contentRange(), range),
+            resp.eTag(), resp.contentType(), resp.contentEncoding(),
+            resp.cacheControl(), Metadata.millis(resp.lastModified())
+        );
+    }
+
+    /**
+     * Make it from the response of {@code HeadObject}.
+     * @param resp The response
+     * @param range The range requested
+     * @return Metadata
+     */
+    static Metadata of(final HeadObjectResponse resp, final Range range) {
+        return new Metadata(
+            Metadata.total(resp.contentLength(), resp.contentRange(), range),
+            resp.eTag(), resp.contentType(), resp.contentEncoding(),
+            resp.cacheControl(), Metadata.millis(resp.lastModified())
+        );
+    }
+
+    private static long total(final Long length, final String crange,
+        final Range range) {
+        long size = -1L;
+        if (range.equals(Range.ENTIRE)) {
+            if (length != null) {
+                size = length;
+            }
+        } else if (crange != null) {
+            final Matcher matcher = Metadata.TOTAL.matcher(crange.trim());
+            if (matcher.matches()) {
+                size = Long.parseLong(matcher.group(1));
+            }
+        }
+        return size;
+    }
+
+    private static long millis(final Instant time) {
+        final long msec;
+        if (time == null) {
+            msec = 0L;
+        } else {
+            msec = time.toEpochMilli();
+        }
+        return msec;
+    }
+}
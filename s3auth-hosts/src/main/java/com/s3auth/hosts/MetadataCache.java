@@ -0,0 +1,151 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.aspects.Loggable;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Cache of S3 object metadata, by owner, bucket, key and version.
+ *
+ * <p>Metadata is only found by the owner who remembered it, that is,
+ * by a domain with the same credentials, see {@link Locator#owner()}.
+ * Another domain pointing to the same bucket has to ask S3 itself,
+ * so that it never learns anything its credentials don't allow.
+ *
+ * <p>Entries expire after a fixed lifetime. An entry is replaced as soon
+ * as S3 reports an ETag different from the one remembered, and is dropped
+ * when the object is reported missing. Remembering metadata of an object
+ * also removes it from {@link MissingKeys}.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class MetadataCache {
+
+    /**
+     * Lifetime of an entry, in seconds.
+     */
+    private static final long LIFETIME = 60L;
+
+    /**
+     * Maximum number of entries.
+     */
+    private static final long MAX = 10_000L;
+
+    /**
+     * Metadata by object.
+     */
+    private final transient Cache<String, Metadata> entries;
+
+    /**
+     * Keys known to be missing.
+     */
+    private final transient MissingKeys missing;
+
+    /**
+     * Public ctor.
+     */
+    MetadataCache() {
+        this(new MissingKeys());
+    }
+
+    /**
+     * Ctor.
+     * @param mss Keys known to be missing
+     */
+    MetadataCache(final MissingKeys mss) {
+        this(mss, MetadataCache.LIFETIME, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Ctor.
+     * @param mss Keys known to be missing
+     * @param lifetime Lifetime of an entry
+     * @param unit Time unit of the lifetime
+     */
+    MetadataCache(final MissingKeys mss, final long lifetime,
+        final TimeUnit unit) {
+        this.missing = mss;
+        this.entries = CacheBuilder.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(unit.toMillis(lifetime)))
+            .maximumSize(MetadataCache.MAX)
+            .build();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d object(s)", this.entries.size());
+    }
+
+    /**
+     * Find metadata of the object.
+     * @param loc The object
+     * @return Metadata, if known
+     */
+    Optional<Metadata> find(@NotNull final Locator loc) {
+        return Optional.ofNullable(
+            this.entries.getIfPresent(MetadataCache.key(loc))
+        );
+    }
+
+    /**
+     * Remember metadata of the object, just received from S3.
+     *
+     * <p>If the total size is not known in the new metadata, but it is
+     * known in the old one and ETags match, the old size is kept.
+     *
+     * @param loc The object
+     * @param meta Metadata
+     * @return Metadata remembered
+     */
+    Metadata remember(@NotNull final Locator loc,
+        @NotNull final Metadata meta) {
+        this.missing.remove(loc);
+        final String key = MetadataCache.key(loc);
+        Metadata fresh = meta;
+        final Metadata old = this.entries.getIfPresent(key);
+        if (old != null && fresh.size() < 0L
+            && Objects.equals(old.etag(), fresh.etag())) {
+            fresh = fresh.withSize(old.size());
+        }
+        if (fresh.size() < 0L) {
+            this.entries.invalidate(key);
+        } else {
+            this.entries.put(key, fresh);
+        }
+        return fresh;
+    }
+
+    /**
+     * Forget the object.
+     * @param loc The object
+     */
+    void forget(@NotNull final Locator loc) {
+        this.entries.invalidate(MetadataCache.key(loc));
+    }
+
+    private static String key(final Locator loc) {
+        final String ver;
+        if (loc.version().list()) {
+            ver = "*";
+        } else if (loc.version().latest()) {
+            ver = "";
+        } else {
+            ver = loc.version().version();
+        }
+        return String.format(
+            "%s:%s/%s?%s", loc.owner(), loc.bucket(), loc.key(), ver
+        );
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.jcabi.aspects.Loggable;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import javax.validation.constraints.NotNull;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+/**
+ * Keys recently reported missing by S3, by owner and bucket.
+ *
+ * <p>Entries expire after a short lifetime, counted from the first miss,
+ * so that a key created in S3 becomes visible soon, even if it is being
+ * requested all the time. An entry is removed as soon as the key is seen
+ * in S3 again.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class MissingKeys {
+
+    /**
+     * Lifetime of an entry, in seconds.
+     */
+    private static final long LIFETIME = 30L;
+
+    /**
+     * Maximum number of entries.
+     */
+    private static final long MAX = 100_000L;
+
+    /**
+     * Missing keys.
+     */
+    private final transient Cache<String, Boolean> keys;
+
+    /**
+     * Public ctor.
+     */
+    MissingKeys() {
+        this(MissingKeys.LIFETIME, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Ctor.
+     * @param lifetime Lifetime of an entry
+     * @param unit Time unit of the lifetime
+     */
+    MissingKeys(final long lifetime, final TimeUnit unit) {
+        this.keys = CacheBuilder.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(unit.toMillis(lifetime)))
+            .maximumSize(MissingKeys.MAX)
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public String toString() {
+        final CacheStats stats = this.keys.stats();
+        return String.format(
+            "%d missing key(s), %d hit(s), %d miss(es), %d eviction(s)",
+            this.keys.size(), stats.hitCount(), stats.missCount(),
+            stats.evictionCount()
+        );
+    }
+
+    /**
+     * Throw if the key is known to be missing.
+     * @param loc The object
+     * @throws NoSuchKeyException If it is missing
+     */
+    void check(@NotNull final Locator loc) {
+        if (MissingKeys.applies(loc)
+            && this.keys.getIfPresent(MissingKeys.key(loc)) != null) {
+            throw NoSuchKeyException.builder()
+                .message(
+                    String.format(
+                        "The key '%s' is recently reported missing",
+                        loc.key()
+                    )
+                )
+                .build();
+        }
+    }
+
+    /**
+     * Remember that the key is missing.
+     * @param loc The object
+     */
+    void add(@NotNull final Locator loc) {
+        if (MissingKeys.applies(loc)) {
+            this.keys.asMap().putIfAbsent(MissingKeys.key(loc), true);
+        }
+    }
+
+    /**
+     * Forget that the key is missing, since it was seen.
+     * @param loc The object
+     */
+    void remove(@NotNull final Locator loc) {
+        this.keys.invalidate(MissingKeys.key(loc));
+    }
+
+    /**
+     * How many requests were answered without S3.
+     * @return Number of hits
+     */
+    long hits() {
+        return this.keys.stats().hitCount();
+    }
+
+    private static boolean applies(final Locator loc) {
+        return loc.version().latest();
+    }
+
+    private static String key(final Locator loc) {
+        return String.format(
+            "%s:%s/%s", loc.owner(), loc.bucket(), loc.key()
+        );
+    }
+}
@@ -58,6 +58,12 @@ final class MkHost implements Host {
         return this.resource;
     }
 
+    @Override
+    public Resource head(final URI uri, final Range range,
+        final Version version) {
+        return this.resource;
+    }
+
     @Override
     public boolean isHidden(final URI uri) {
         return this.hidden;
@@ -0,0 +1,213 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.net.InetAddresses;
+import java.net.InetAddress;
+import java.util.Collections;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Networks allowed or denied, by CIDR blocks of IPv4 and IPv6 addresses.
+ *
+ * <p>Every rule is either {@code allow <cidr>} or {@code deny <cidr>},
+ * for example {@code allow 10.0.0.0/8} or {@code deny 2001:db8::/32}.
+ * The most specific block containing the address decides. If no block
+ * contains it, the address is allowed, unless there is at least one
+ * {@code allow} rule, which means that only the networks listed
+ * are allowed.
+ *
+ * <p>Blocks are kept in a binary radix tree, one for IPv4 and one
+ * for IPv6, so that a lookup takes as many steps as there are bits
+ * in the longest matching prefix, no matter how many rules there are.
+ *
+ * <p>The class is thread-safe, the tree is never modified after
+ * it is built.
+ *
+ * @since 0.0.1
+ */
+public final class Networks {
+
+    /**
+     * Every network allowed.
+     */
+    public static final Networks ANY = new Networks(Collections.emptyList());
+
+    /**
+     * Tree of IPv4 blocks.
+     */
+    private final transient Networks.Node four;
+
+    /**
+     * Tree of IPv6 blocks.
+     */
+    private final transient Networks.Node six;
+
+    /**
+     * Only the networks allowed explicitly are allowed.
+     */
+    private final transient boolean closed;
+
+    /**
+     * Total number of rules.
+     */
+    private final transient int total;
+
+    /**
+     * Public ctor.
+     * @param rules Rules, like {@code allow 10.0.0.0/8}
+     */
+    public Networks(@NotNull final Iterable<String> rules) {
+        this.four = new Networks.Node();
+        this.six = new Networks.Node();
+        boolean allows = false;
+        int count = 0;
+        for (final String rule : rules) {
+            final String[] parts = rule.trim().split("\\s+");
+            if (parts.length != 2
+                || !"allow".equals(parts[0]) && !"deny".equals(parts[0])) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "rule '%s' is neither 'allow <cidr>' nor 'deny <cidr>'",
+                        rule
+                    )
+                );
+            }
+            final boolean allow = "allow".equals(parts[0]);
+            this.add(parts[1], allow);
+            allows |= allow;
+            ++count;
+        }
+        this.closed = allows;
+        this.total = count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d network rule(s)", this.total);
+    }
+
+    /**
+     * Is this address allowed?
+     * @param address The address
+     * @return TRUE if it is
+     */
+    public boolean permits(@NotNull final InetAddress address) {
+        final byte[] bits = address.getAddress();
+        final Boolean verdict = this.tree(bits).find(bits);
+        final boolean permits;
+        if (verdict == null) {
+            permits = !this.closed;
+        } else {
+            permits = verdict;
+        }
+        return permits;
+    }
+
+    private void add(final String cidr, final boolean allow) {
+        final String[] parts = cidr.split("/", 2);
+        final byte[] bits;
+        try {
+            bits = InetAddresses.forString(parts[0]).getAddress();
+        } catch (final IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                String.format("'%s' is not an IP address", parts[0]), ex
+            );
+        }
+        final int length;
+        if (parts.length == 1) {
+            length = bits.length * Byte.SIZE;
+        } else if (parts[1].matches("\\d{1,3}")
+            && Integer.parseInt(parts[1]) <= bits.length * Byte.SIZE) {
+            length = Integer.parseInt(parts[1]);
+        } else {
+            throw new IllegalArgumentException(
+                String.format("'%s' is not a valid prefix length", cidr)
+            );
+        }
+        this.tree(bits).add(bits, length, allow);
+    }
+
+    private Networks.Node tree(final byte[] bits) {
+        final Networks.Node root;
+        if (bits.length == 4) {
+            root = this.four;
+        } else {
+            root = this.six;
+        }
+        return root;
+    }
+
+    /**
+     * Node of the tree.
+     *
+     * <p>The class is not thread-safe, it is only modified while
+     * the tree is being built.
+     *
+     * @since 0.0.1
+     */
+    private static final class Node {
+
+        /**
+         * Children, by the next bit.
+         */
+        private final transient Networks.Node[] children;
+
+        /**
+         * Verdict of the block ending here, or NULL if there is none.
+         */
+        private transient Boolean verdict;
+
+        /**
+         * Ctor.
+         */
+        Node() {
+            this.children = new Networks.Node[2];
+        }
+
+        /**
+         * Add a block.
+         * @param bits Address of the block
+         * @param length Length of the prefix, in bits
+         * @param allow Is it allowed
+         */
+        void add(final byte[] bits, final int length, final boolean allow) {
+            Networks.Node node = this;
+            for (int idx = 0; idx < length; ++idx) {
+                final int bit = Networks.Node.bit(bits, idx);
+                if (node.children[bit] == null) {
+                    node.children[bit] = new Networks.Node();
+                }
+                node = node.children[bit];
+            }
+            node.verdict = allow;
+        }
+
+        /**
+         * Find the verdict of the most specific block containing
+         * the address.
+         * @param bits The address
+         * @return Verdict or NULL if no block contains it
+         */
+        Boolean find(final byte[] bits) {
+            Networks.Node node = this;
+            Boolean found = node.verdict;
+            for (int idx = 0; idx < bits.length * Byte.SIZE; ++idx) {
+                node = node.children[Networks.Node.bit(bits, idx)];
+                if (node == null) {
+                    break;
+                }
+                if (node.verdict != null) {
+                    found = node.verdict;
+                }
+            }
+            return found;
+        }
+
+        private static int bit(final byte[] bits, final int idx) {
+            return bits[idx / Byte.SIZE] >> Byte.SIZE - 1 - idx % Byte.SIZE & 1;
+        }
+    }
+}
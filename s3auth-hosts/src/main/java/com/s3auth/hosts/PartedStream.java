@@ -0,0 +1,341 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+/**
+ * Stream of a large object, downloaded in parts concurrently.
+ *
+ * <p>The first part is read from the stream already opened, which must
+ * be a ranged request of no more than one part. The next parts are fetched
+ * by separate ranged requests, a few at a time, on background threads,
+ * and returned in order. Nothing is fetched until the stream is read for
+ * the first time. Every part takes its size from a semaphore shared by
+ * all streams, before it is requested, and gives it back when it is read
+ * or the stream is closed, so that all streams together never keep more
+ * bytes in memory than the semaphore has. A stream that can't take any,
+ * and has no parts coming, never waits for others, since they may be
+ * waiting for it: it requests the rest of the range in one request and
+ * reads it as it comes, without buffering. Every request is made with
+ * the ETag of the first response, so that the parts never come from
+ * different versions of the object.
+ *
+ * <p>The class is not thread-safe.
+ *
+ * @since 0.0.1
+ */
+final class PartedStream extends InputStream {
+
+    /**
+     * S3 client.
+     */
+    private final transient S3Client client;
+
+    /**
+     * Threads fetching parts.
+     */
+    private final transient ExecutorService threads;
+
+    /**
+     * Bytes that all streams may keep in memory.
+     */
+    private final transient Semaphore memory;
+
+    /**
+     * The original request.
+     */
+    private final transient GetObjectRequest origin;
+
+    /**
+     * ETag of the object.
+     */
+    private final transient String etag;
+
+    /**
+     * Offset of the first byte in the object.
+     */
+    private final transient long start;
+
+    /**
+     * Total number of bytes to read.
+     */
+    private final transient long length;
+
+    /**
+     * Size of one part.
+     */
+    private final transient long part;
+
+    /**
+     * How many parts to fetch at the same time.
+     */
+    private final transient int window;
+
+    /**
+     * The stream of the first part, already opened.
+     */
+    private final transient InputStream first;
+
+    /**
+     * Parts being fetched, in order.
+     */
+    private final transient Deque<Future<ResponseBytes<GetObjectResponse>>> parts;
+
+    /**
+     * Stream of the rest of the range, NULL if not opened.
+     */
+    private transient InputStream rest;
+
+    /**
+     * Number of bytes read before the rest of the range.
+     */
+    private transient long restart;
+
+    /**
+     * Bytes of memory taken by this stream.
+     */
+    private transient long held;
+
+    /**
+     * Are the parts being fetched?
+     */
+    private transient boolean started;
+
+    /**
+     * Number of bytes already read.
+     */
+    private transient long position;
+
+    /**
+     * Number of bytes already requested from S3.
+     */
+    private transient long requested;
+
+    /**
+     * Current part, NULL if not fetched yet.
+     */
+    private transient byte[] current;
+
+    /**
+     * Position in the current part.
+     */
+    private transient int offset;
+
+    /**
+     * Ctor.
+     * @param clnt S3 client
+     * @param thrds Threads fetching parts
+     * @param mem Bytes that all streams may keep in memory
+     * @param req The original request
+     * @param resp The original response, with its stream
+     * @param strm Stream of the original response
+     * @param size Size of one part
+     * @param wnd How many parts to fetch at the same time
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    PartedStream(final S3Client clnt, final ExecutorService thrds,
+        final Semaphore mem, final GetObjectRequest req,
+        final GetObjectResponse resp, final InputStream strm,
+        final long size, final int wnd) {
+        super();
+        this.client = clnt;
+        this.threads = thrds;
+        this.memory = mem;
+        this.origin = req;
+        this.etag = resp.eTag();
+        this.start = PartedStream.offset(resp);
+        this.length = resp.contentLength();
+        this.part = size;
+        this.window = wnd;
+        this.first = strm;
+        this.parts = new LinkedList<>();
+        this.requested = Math.min(size, this.length);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] one = new byte[1];
+        int next = -1;
+        if (this.read(one, 0, 1) > 0) {
+            next = one[0] & 0xff;
+        }
+        return next;
+    }
+
+    @Override
+    public int read(final byte[] buf, final int off, final int len)
+        throws IOException {
+        if (!this.started) {
+            this.started = true;
+            this.fill();
+        }
+        final int count;
+        final long firsts = Math.min(this.part, this.length);
+        if (this.position >= this.length) {
+            count = -1;
+        } else if (this.position < firsts) {
+            count = this.first.read(
+                buf, off, (int) Math.min(len, firsts - this.position)
+            );
+            if (count < 0) {
+                throw new IOException(
+                    String.format(
+                        "stream of %s ended at %d of %d",
+                        this.origin.key(), this.position, this.length
+                    )
+                );
+            }
+            if (this.position + count >= firsts) {
+                this.first.close();
+            }
+        } else if (this.rest != null && this.position >= this.restart) {
+            count = this.rest.read(
+                buf, off, (int) Math.min(len, this.length - this.position)
+            );
+            if (count < 0) {
+                throw new IOException(
+                    String.format(
+                        "rest of %s ended at %d of %d",
+                        this.origin.key(), this.position, this.length
+                    )
+                );
+            }
+        } else {
+            if (this.current == null || this.offset >= this.current.length) {
+                if (this.current != null) {
+                    this.release(this.current.length);
+                    this.current = null;
+                }
+                this.current = this.next();
+                this.offset = 0;
+            }
+            count = Math.min(len, this.current.length - this.offset);
+            System.arraycopy(this.current, this.offset, buf, off, count);
+            this.offset += count;
+        }
+        if (count > 0) {
+            this.position += count;
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final Future<?> future : this.parts) {
+            future.cancel(true);
+        }
+        this.parts.clear();
+        this.current = null;
+        this.release(this.held);
+        this.first.close();
+        if (this.rest != null) {
+            this.rest.close();
+        }
+    }
+
+    private byte[] next() throws IOException {
+        final Future<ResponseBytes<GetObjectResponse>> future =
+            this.parts.pollFirst();
+        if (future == null) {
+            throw new IOException(
+                String.format(
+                    "no more parts of %s at %d of %d",
+                    this.origin.key(), this.position, this.length
+                )
+            );
+        }
+        final byte[] bytes;
+        try {
+            bytes = future.get().asByteArrayUnsafe();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (final ExecutionException ex) {
+            throw new IOException(
+                String.format(
+                    "failed to fetch a part of %s at %d",
+                    this.origin.key(), this.position
+                ),
+                ex.getCause()
+            );
+        }
+        if (bytes.length != Math.min(this.part, this.length - this.position)) {
+            throw new IOException(
+                String.format(
+                    "part of %s at %d has %d byte(s)",
+                    this.origin.key(), this.position, bytes.length
+                )
+            );
+        }
+        this.fill();
+        return bytes;
+    }
+
+    private void fill() {
+        while (this.parts.size() < this.window
+            && this.requested < this.length) {
+            final long from = this.start + this.requested;
+            final long size = Math.min(this.part, this.length - this.requested);
+            if (!this.memory.tryAcquire((int) size)) {
+                if (this.parts.isEmpty()) {
+                    this.open(from);
+                }
+                break;
+            }
+            this.held += size;
+            final GetObjectRequest req = this.origin.toBuilder()
+                .range(String.format("bytes=%d-%d", from, from + size - 1L))
+                .ifMatch(this.etag)
+                .build();
+            this.parts.addLast(
+                this.threads.submit(() -> this.client.getObjectAsBytes(req))
+            );
+            this.requested += size;
+        }
+    }
+
+    private void open(final long from) {
+        this.rest = this.client.getObject(
+            this.origin.toBuilder()
+                .range(
+                    String.format(
+                        "bytes=%d-%d", from, this.start + this.length - 1L
+                    )
+                )
+                .ifMatch(this.etag)
+                .build()
+        );
+        this.restart = this.requested;
+        this.requested = this.length;
+    }
+
+    private void release(final long bytes) {
+        this.memory.release((int) bytes);
+        this.held -= bytes;
+    }
+
+    private static long offset(final GetObjectResponse resp) {
+        long offset = 0L;
+        final String range = resp.contentRange();
+        if (range != null && range.startsWith("bytes ")) {
+            offset = Long.parseLong(
+                range.substring("bytes ".length(), range.indexOf('-'))
+            );
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.manifests.Manifests;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Local directory, which only the user of this process may use.
+ *
+ * <p>The directory is {@code S3Auth-DataDirectory} from the manifest,
+ * or {@code .s3auth} in the home directory of the user, and never the
+ * shared temporary directory. It is created with {@code rwx------}
+ * permissions, and files in it with {@code rw-------}. A directory or
+ * a file that belongs to another user, or that anyone else may read or
+ * write, is refused, since it may be read by others or planted by them.
+ * Permissions are not checked where the file system doesn't support
+ * POSIX attributes.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Immutable
+final class PrivateDir {
+
+    /**
+     * Permissions of group and others.
+     */
+    private static final Set<PosixFilePermission> OTHERS = EnumSet.of(
+        PosixFilePermission.GROUP_READ,
+        PosixFilePermission.GROUP_WRITE,
+        PosixFilePermission.GROUP_EXECUTE,
+        PosixFilePermission.OTHERS_READ,
+        PosixFilePermission.OTHERS_WRITE,
+        PosixFilePermission.OTHERS_EXECUTE
+    );
+
+    /**
+     * Path of the directory.
+     */
+    private final transient String path;
+
+    /**
+     * Public ctor, with the directory configured in the manifest.
+     */
+    PrivateDir() {
+        this(PrivateDir.configured());
+    }
+
+    /**
+     * Public ctor.
+     * @param dir Path of the directory
+     */
+    PrivateDir(@NotNull final String dir) {
+        this.path = dir;
+    }
+
+    @Override
+    public String toString() {
+        return this.path;
+    }
+
+    /**
+     * Path of a file in the directory, which may not exist yet.
+     * @param name Name of the file
+     * @return Path
+     */
+    Path resolve(@NotNull final String name) {
+        return Paths.get(this.path, name);
+    }
+
+    /**
+     * Create the directory, if it doesn't exist, and make sure it
+     * is private.
+     * @return Path of the directory
+     * @throws IOException If it can't be created or is not private
+     */
+    Path create() throws IOException {
+        final Path dir = Paths.get(this.path).toAbsolutePath();
+        if (!Files.exists(dir)) {
+            if (PrivateDir.posix()) {
+                Files.createDirectories(
+                    dir,
+                    PosixFilePermissions.asFileAttribute(
+                        PosixFilePermissions.fromString("rwx------")
+                    )
+                );
+            } else {
+                Files.createDirectories(dir);
+            }
+        }
+        PrivateDir.verify(dir);
+        return dir;
+    }
+
+    /**
+     * Create a new empty file in the directory, readable and writable
+     * only by its owner.
+     * @param prefix Prefix of its name
+     * @param suffix Suffix of its name
+     * @return Path of the file
+     * @throws IOException If fails
+     */
+    Path temp(@NotNull final String prefix, @NotNull final String suffix)
+        throws IOException {
+        final Path dir = this.create();
+        final Path file;
+        if (PrivateDir.posix()) {
+            file = Files.createTempFile(
+                dir, prefix, suffix, PrivateDir.owner()
+            );
+        } else {
+            file = Files.createTempFile(dir, prefix, suffix);
+        }
+        return file;
+    }
+
+    /**
+     * Make sure the file or the directory belongs to the user of this
+     * process and nobody else may read or write it.
+     * @param file The file or the directory
+     * @throws IOException If it is not private
+     */
+    static void verify(@NotNull final Path file) throws IOException {
+        final PosixFileAttributeView view = Files.getFileAttributeView(
+            file, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS
+        );
+        if (view != null) {
+            final PosixFileAttributes attrs = view.readAttributes();
+            final UserPrincipal user = file.getFileSystem()
+                .getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+            if (!attrs.owner().equals(user)) {
+                throw new IOException(
+                    String.format(
+                        "%s belongs to '%s', not to '%s'",
+                        file, attrs.owner().getName(), user.getName()
+                    )
+                );
+            }
+            if (!Collections.disjoint(attrs.permissions(), PrivateDir.OTHERS)) {
+                throw new IOException(
+                    String.format(
+                        "%s is open to others: %s", file,
+                        PosixFilePermissions.toString(attrs.permissions())
+                    )
+                );
+            }
+        }
+    }
+
+    private static String configured() {
+        final String dir;
+        if (Manifests.exists("S3Auth-DataDirectory")) {
+            dir = Manifests.read("S3Auth-DataDirectory");
+        } else {
+            dir = Paths.get(System.getProperty("user.home"), ".s3auth")
+                .toString();
+        }
+        return dir;
+    }
+
+    private static boolean posix() {
+        return FileSystems.getDefault().supportedFileAttributeViews()
+            .contains("posix");
+    }
+
+    private static FileAttribute<Set<PosixFilePermission>> owner() {
+        return PosixFilePermissions.asFileAttribute(
+            PosixFilePermissions.fromString("rw-------")
+        );
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.log.VerboseThreads;
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.validation.constraints.NotNull;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+/**
+ * Ranges of objects read ahead, for clients reading them one by one.
+ *
+ * <p>Media players request an object in consecutive ranges of the same
+ * size. When a range starts right where a recent range of the same object
+ * requested by the same client ended, the next range of the same size is
+ * fetched for that client on a background thread and kept for a few
+ * seconds. Clients are told apart, so that two viewers of the same video
+ * don't take each other's ranges or make each other look sequential.
+ * If the range is requested in time, it is served from memory, without
+ * waiting for S3. Ranges are read ahead with the ETag of the previous
+ * response, so that they never come from another version of the object,
+ * and are remembered by the owner of the object, so that they are never
+ * given to a domain with other credentials. Only small ranges are read
+ * ahead, only a few of them at the same time, and only a few dozens of
+ * them are kept in memory, so that it takes no more than a few hundred
+ * megabytes. When all downloads are busy, the range is not read ahead
+ * at all.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class ReadAhead {
+
+    /**
+     * Largest range to read ahead, in bytes.
+     */
+    private static final long WINDOW = 4L * 1024L * 1024L;
+
+    /**
+     * How many ranges to keep in memory.
+     */
+    private static final long MAX = 64L;
+
+    /**
+     * How many ranges to download at the same time.
+     */
+    private static final int DOWNLOADS = 8;
+
+    /**
+     * How many ends of ranges to remember.
+     */
+    private static final long ENDS = 10_000L;
+
+    /**
+     * How long to remember ranges, in seconds.
+     */
+    private static final long LIFETIME = 10L;
+
+    /**
+     * Largest range to read ahead, in bytes.
+     */
+    private final transient long window;
+
+    /**
+     * Offsets where recently requested ranges ended, by object.
+     */
+    private final transient Cache<String, Boolean> ends;
+
+    /**
+     * Ranges being read ahead or already read, by object and range.
+     */
+    private final transient Cache<String,
+        Future<ResponseBytes<GetObjectResponse>>> ranges;
+
+    /**
+     * Threads reading ahead.
+     */
+    private final transient ExecutorService threads;
+
+    /**
+     * Downloads that may start now.
+     */
+    private final transient Semaphore downloads;
+
+    /**
+     * Public ctor.
+     */
+    ReadAhead() {
+        this(
+            ReadAhead.WINDOW, ReadAhead.MAX,
+            ReadAhead.LIFETIME, TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param wnd Largest range to read ahead, in bytes
+     * @param max How many ranges to keep in memory
+     * @param lifetime How long to remember ranges
+     * @param unit Time unit of the lifetime
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    ReadAhead(final long wnd, final long max, final long lifetime,
+        final TimeUnit unit) {
+        this.window = wnd;
+        this.ends = CacheBuilder.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(unit.toMillis(lifetime)))
+            .maximumSize(ReadAhead.ENDS)
+            .build();
+        this.ranges = CacheBuilder.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(unit.toMillis(lifetime)))
+            .maximumSize(max)
+            .recordStats()
+            .build();
+        this.threads = Executors.newCachedThreadPool(
+            new VerboseThreads("read-ahead")
+        );
+        this.downloads = new Semaphore(ReadAhead.DOWNLOADS);
+    }
+
+    @Override
+    public String toString() {
+        final CacheStats stats = this.ranges.stats();
+        return String.format(
+            "%d range(s) ahead, %d hit(s), %d miss(es)",
+            this.ranges.size(), stats.hitCount(), stats.missCount()
+        );
+    }
+
+    /**
+     * Take the range, if it was read ahead for this client.
+     * @param loc Coordinates of the object
+     * @param client Identity of the client
+     * @return Opened stream or NULL if the range was not read ahead
+     */
+    ResponseInputStream<GetObjectResponse> take(@NotNull final Locator loc,
+        @NotNull final String client) {
+        ResponseInputStream<GetObjectResponse> stream = null;
+        if (ReadAhead.bounded(loc.range())) {
+            final String key = ReadAhead.key(loc, client, loc.range());
+            final Future<ResponseBytes<GetObjectResponse>> future =
+                this.ranges.getIfPresent(key);
+            if (future != null) {
+                this.ranges.invalidate(key);
+                try {
+                    final ResponseBytes<GetObjectResponse> bytes =
+                        future.get();
+                    stream = new ResponseInputStream<>(
+                        bytes.response(),
+                        AbortableInputStream.create(
+                            new ByteArrayInputStream(bytes.asByteArrayUnsafe())
+                        )
+                    );
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    stream = null;
+                } catch (final ExecutionException ex) {
+                    stream = null;
+                }
+            }
+        }
+        return stream;
+    }
+
+    /**
+     * Remember the range just requested and read the next one ahead,
+     * if the object is being read sequentially by this client.
+     * @param clnt Amazon S3 client
+     * @param req The request just made
+     * @param loc Coordinates of the object
+     * @param client Identity of the client
+     * @param resp The response received
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    void seen(@NotNull final S3Client clnt,
+        @NotNull final GetObjectRequest req, @NotNull final Locator loc,
+        @NotNull final String client, @NotNull final GetObjectResponse resp) {
+        final Range range = loc.range();
+        if (ReadAhead.bounded(range)
+            && range.last() - range.first() < this.window) {
+            final String start = ReadAhead.key(loc, client, range.first());
+            final boolean sequential = this.ends.getIfPresent(start) != null;
+            this.ends.invalidate(start);
+            final Range next = new Range.Simple(
+                range.last() + 1L, 2L * range.last() - range.first() + 1L
+            );
+            final long size = Metadata.of(resp, range).size();
+            if (size < 0L || next.first() < size) {
+                this.ends.put(
+                    ReadAhead.key(loc, client, next.first()), true
+                );
+                if (sequential && resp.eTag() != null) {
+                    final GetObjectRequest ahead = req.toBuilder()
+                        .range(
+                            String.format(
+                                "bytes=%d-%d", next.first(), next.last()
+                            )
+                        )
+                        .ifMatch(resp.eTag())
+                        .build();
+                    this.ranges.asMap().computeIfAbsent(
+                        ReadAhead.key(loc, client, next),
+                        key -> this.download(clnt, ahead)
+                    );
+                }
+            }
+        }
+    }
+
+    private Future<ResponseBytes<GetObjectResponse>> download(
+        final S3Client clnt, final GetObjectRequest req) {
+        Future<ResponseBytes<GetObjectResponse>> future = null;
+        if (this.downloads.tryAcquire()) {
+            future = this.threads.submit(
+                () -> {
+                    try {
+                        return clnt.getObjectAsBytes(req);
+                    } finally {
+                        this.downloads.release();
+                    }
+                }
+            );
+        }
+        return future;
+    }
+
+    private static boolean bounded(final Range range) {
+        return !range.equals(Range.ENTIRE)
+            && range.last() != Long.MAX_VALUE;
+    }
+
+    private static String key(final Locator loc, final String client,
+        final long offset) {
+        final String version;
+        if (loc.version().latest()) {
+            version = "";
+        } else {
+            version = loc.version().version();
+        }
+        return String.format(
+            "%s:%s/%s?%s@%d#%s",
+            loc.owner(), loc.bucket(), loc.key(), version, offset, client
+        );
+    }
+
+    private static String key(final Locator loc, final String client,
+        final Range range) {
+        return String.format(
+            "%s-%d", ReadAhead.key(loc, client, range.first()), range.last()
+        );
+    }
+}
@@ -5,14 +5,24 @@
 package com.s3auth.hosts;
 
 import com.jcabi.aspects.Immutable;
-import com.jcabi.immutable.Array;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * A {@link Host} that temporarily rejects certain resources, by regex.
  *
+ * <p>Global patterns come from configuration and are the same for all
+ * domains, while patterns of a domain come from {@code reject} lines of
+ * its {@code .s3auth} file, see {@link AccessRules}. Patterns of each
+ * kind are combined into one regular expression, compiled only once,
+ * so that a request is checked by two matches at most, no matter how
+ * many patterns there are.
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.0.1
@@ -26,18 +36,34 @@ final class RejectingHost implements Host {
     private final transient Host host;
 
     /**
-     * Regexs to reject.
+     * Rules of the domain, with its own patterns.
+     */
+    private final transient AccessRules rules;
+
+    /**
+     * Global patterns, combined into one, or NULL if none.
      */
-    private final transient Array<String> patterns;
+    private final transient Pattern pattern;
 
     /**
      * Public ctor.
      * @param hst Original host
-     * @param ptns Patterns
+     * @param rls Rules of the domain
+     * @param ptns Global patterns
      */
-    RejectingHost(final Host hst, final String... ptns) {
+    RejectingHost(final Host hst, final AccessRules rls,
+        final String... ptns) {
         this.host = hst;
-        this.patterns = new Array<>(ptns);
+        this.rules = rls;
+        if (ptns.length == 0) {
+            this.pattern = null;
+        } else {
+            this.pattern = Pattern.compile(
+                Arrays.stream(ptns)
+                    .map(ptn -> String.format("(?:%s)", ptn))
+                    .collect(Collectors.joining("|"))
+            );
+        }
     }
 
     @Override
@@ -74,21 +100,29 @@ final class RejectingHost implements Host {
     @Override
     public Resource fetch(final URI uri, final Range range,
         final Version version) throws IOException {
-        final String path = uri.toString();
-        boolean reject = false;
-        for (final String ptn : this.patterns) {
-            if (path.matches(ptn)) {
-                reject = true;
-                break;
-            }
+        return this.fetch(uri, range, version, "");
+    }
+
+    @Override
+    public Resource fetch(final URI uri, final Range range,
+        final Version version, final String client) throws IOException {
+        final Resource resource;
+        if (this.rejected(uri)) {
+            resource = RejectingHost.disabled();
+        } else {
+            resource = this.host.fetch(uri, range, version, client);
         }
+        return resource;
+    }
+
+    @Override
+    public Resource head(final URI uri, final Range range,
+        final Version version) throws IOException {
         final Resource resource;
-        if (reject) {
-            resource = new Resource.PlainText(
-                "your resource it temporary disabled, sorry"
-            );
+        if (this.rejected(uri)) {
+            resource = RejectingHost.disabled();
         } else {
-            resource = this.host.fetch(uri, range, version);
+            resource = this.host.head(uri, range, version);
         }
         return resource;
     }
@@ -103,4 +137,27 @@ final class RejectingHost implements Host {
         final String password) throws IOException {
         return this.host.authorized(user, password);
     }
+
+    @Override
+    public String credentials(final String user) throws IOException {
+        return this.host.credentials(user);
+    }
+
+    @Override
+    public boolean isBlocked(final InetAddress address)
+        throws IOException {
+        return this.host.isBlocked(address);
+    }
+
+    private boolean rejected(final URI uri) {
+        final String text = uri.toString();
+        return this.pattern != null && this.pattern.matcher(text).matches()
+            || this.rules.rejects(text);
+    }
+
+    private static Resource disabled() {
+        return new Resource.PlainText(
+            "your resource it temporary disabled, sorry"
+        );
+    }
 }
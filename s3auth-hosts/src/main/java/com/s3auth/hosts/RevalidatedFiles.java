@@ -0,0 +1,210 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Text files, parsed once and revalidated every few minutes.
+ *
+ * <p>Every file is parsed when it is loaded, and kept in memory with the
+ * ETag of its version. When it is older than the lifetime, it is loaded
+ * again with that ETag, if the source supports that, so that an unchanged
+ * file is not downloaded and not parsed again. If the file can't be
+ * loaded, the version loaded before is kept for one more lifetime, and if
+ * there is none, the fallback is used, until the file is loaded.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @param <T> Type of a parsed file
+ * @since 0.0.1
+ */
+final class RevalidatedFiles<T> {
+
+    /**
+     * How many files to keep in memory.
+     */
+    private static final long MAX = 10_000L;
+
+    /**
+     * Parser of a file.
+     */
+    private final transient Function<String, T> parser;
+
+    /**
+     * Parsed file to use while it can't be loaded.
+     */
+    private final transient T fallback;
+
+    /**
+     * Lifetime of a file, in milliseconds.
+     */
+    private final transient long lifetime;
+
+    /**
+     * Files loaded recently, by their keys.
+     */
+    private final transient Cache<Object, RevalidatedFiles.Loaded<T>> files;
+
+    /**
+     * Ctor.
+     * @param prs Parser of a file
+     * @param fbk Parsed file to use while it can't be loaded
+     * @param life Lifetime of a file
+     * @param unit Time unit of the lifetime
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    RevalidatedFiles(@NotNull final Function<String, T> prs,
+        @NotNull final T fbk, final long life, @NotNull final TimeUnit unit) {
+        this.parser = prs;
+        this.fallback = fbk;
+        this.lifetime = unit.toMillis(life);
+        this.files = CacheBuilder.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1L))
+            .maximumSize(RevalidatedFiles.MAX)
+            .build();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d file(s), reloaded every %d ms",
+            this.files.size(), this.lifetime
+        );
+    }
+
+    /**
+     * Get the file, loading or revalidating it if necessary.
+     * @param key Identity of the file
+     * @param source Where the file comes from
+     * @return Parsed file
+     */
+    T get(@NotNull final Object key, @NotNull final Htpasswd.Source source) {
+        RevalidatedFiles.Loaded<T> file = this.files.getIfPresent(key);
+        if (file == null || file.older(this.lifetime)) {
+            file = this.reload(source, file);
+            this.files.put(key, file);
+        }
+        return file.parsed();
+    }
+
+    private RevalidatedFiles.Loaded<T> reload(final Htpasswd.Source source,
+        final RevalidatedFiles.Loaded<T> before) {
+        String etag = null;
+        if (before != null) {
+            etag = before.etag();
+        }
+        RevalidatedFiles.Loaded<T> file;
+        try {
+            final Map.Entry<String, String> loaded = source.load(etag);
+            if (loaded == null) {
+                file = before.renewed();
+            } else {
+                file = new RevalidatedFiles.Loaded<>(
+                    loaded.getKey(), this.parser.apply(loaded.getValue())
+                );
+            }
+        } catch (final IOException ex) {
+            Logger.warn(
+                this, "#reload(): failed to fetch %s: %s",
+                source, ex.getMessage()
+            );
+            if (before == null) {
+                file = new RevalidatedFiles.Loaded<>(null, this.fallback);
+            } else {
+                file = before.renewed();
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Parsed file with its version.
+     *
+     * <p>The class is immutable and thread-safe.
+     *
+     * @param <T> Type of a parsed file
+     * @since 0.0.1
+     */
+    private static final class Loaded<T> {
+
+        /**
+         * ETag of the file, or NULL if unknown.
+         */
+        private final transient String tag;
+
+        /**
+         * Parsed file.
+         */
+        private final transient T file;
+
+        /**
+         * When loaded, in milliseconds.
+         */
+        private final transient long time;
+
+        /**
+         * Ctor.
+         * @param etag ETag of the file, or NULL if unknown
+         * @param parsed Parsed file
+         */
+        Loaded(final String etag, final T parsed) {
+            this(etag, parsed, System.currentTimeMillis());
+        }
+
+        /**
+         * Ctor.
+         * @param etag ETag of the file, or NULL if unknown
+         * @param parsed Parsed file
+         * @param when When loaded, in milliseconds
+         */
+        Loaded(final String etag, final T parsed, final long when) {
+            this.tag = etag;
+            this.file = parsed;
+            this.time = when;
+        }
+
+        /**
+         * ETag of the file.
+         * @return ETag or NULL
+         */
+        String etag() {
+            return this.tag;
+        }
+
+        /**
+         * Parsed file.
+         * @return The file
+         */
+        T parsed() {
+            return this.file;
+        }
+
+        /**
+         * Is it older than that?
+         * @param millis Age, in milliseconds
+         * @return TRUE if it is
+         */
+        boolean older(final long millis) {
+            return System.currentTimeMillis() - this.time > millis;
+        }
+
+        /**
+         * The same file, confirmed not modified right now.
+         * @return The file
+         */
+        RevalidatedFiles.Loaded<T> renewed() {
+            return new RevalidatedFiles.Loaded<>(this.tag, this.file);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.validation.constraints.NotNull;
+import org.apache.commons.codec.digest.DigestUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * S3 clients of all domains, sharing one pool of HTTP connections.
+ *
+ * <p>There is one client per region and credentials, and all of them send
+ * requests through the same {@link SdkHttpClient}, so the total number of
+ * connections to S3 is bounded and warm connections are reused by all
+ * domains. Clients are kept by a hash of region and credentials, so that
+ * secrets are never used as keys. Clients not used for a while, or the
+ * least recently used ones when there are too many, are evicted, and
+ * closed only when they are idle: when no request is in progress and none
+ * finished for a minute, see {@link SharedClient}. A download keeps its
+ * client busy until its stream is closed, no matter how long it takes.
+ * Closing a client doesn't close the shared pool.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class S3Clients {
+
+    /**
+     * How long an evicted client has to be idle to be closed, in seconds.
+     */
+    private static final long GRACE = 60L;
+
+    /**
+     * Shared pool of HTTP connections.
+     */
+    private final transient SdkHttpClient http;
+
+    /**
+     * Clients, by region and credentials.
+     */
+    private final transient Cache<String, SharedClient> clients;
+
+    /**
+     * Clients evicted, but not closed yet.
+     */
+    private final transient Queue<SharedClient> retired;
+
+    /**
+     * Is the closer started?
+     */
+    private final transient AtomicBoolean started;
+
+    /**
+     * Closer of evicted clients.
+     */
+    private final transient ScheduledExecutorService closer;
+
+    /**
+     * Public ctor.
+     */
+    S3Clients() {
+        this(
+            ApacheHttpClient.builder()
+                .maxConnections(512)
+                .connectionMaxIdleTime(Duration.ofMinutes(1L))
+                .useIdleConnectionReaper(true)
+                .build(),
+            1000L, 30L, TimeUnit.MINUTES
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param pool Shared pool of HTTP connections
+     * @param max Maximum number of clients
+     * @param idle How long to keep a client that is not used
+     * @param unit Time unit of the idle period
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    S3Clients(final SdkHttpClient pool, final long max, final long idle,
+        final TimeUnit unit) {
+        this.http = pool;
+        this.retired = new ConcurrentLinkedQueue<>();
+        this.started = new AtomicBoolean();
+        this.closer = Executors.newSingleThreadScheduledExecutor(
+            new VerboseThreads("s3-clients")
+        );
+        this.clients = CacheBuilder.newBuilder()
+            .maximumSize(max)
+            .expireAfterAccess(Duration.ofMillis(unit.toMillis(idle)))
+            .removalListener(this::evicted)
+            .build();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d S3 client(s)", this.clients.size());
+    }
+
+    /**
+     * Get a client for this region and credentials.
+     * @param region The region
+     * @param key AWS key
+     * @param secret AWS secret key
+     * @return The client
+     */
+    S3Client get(@NotNull final Region region, @NotNull final String key,
+        @NotNull final String secret) {
+        final S3Client client;
+        try {
+            client = this.clients.get(
+                DigestUtils.sha256Hex(
+                    String.join("\n", region.id(), key, secret)
+                ),
+                () -> new SharedClient(
+                    S3Client.builder()
+                        .region(region)
+                        .credentialsProvider(
+                            StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create(key, secret)
+                            )
+                        )
+                        .httpClient(this.http)
+                        .build()
+                )
+            );
+        } catch (final ExecutionException | UncheckedExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+        return client;
+    }
+
+    /**
+     * Close evicted clients that are idle long enough.
+     * @param millis How long they have to be idle, in milliseconds
+     * @return How many evicted clients are still open
+     */
+    int close(final long millis) {
+        final Iterator<SharedClient> iterator = this.retired.iterator();
+        while (iterator.hasNext()) {
+            final SharedClient client = iterator.next();
+            if (client.idle(millis)) {
+                iterator.remove();
+                client.close();
+            }
+        }
+        return this.retired.size();
+    }
+
+    private void evicted(
+        final RemovalNotification<String, SharedClient> note) {
+        this.retired.add(note.getValue());
+        if (this.started.compareAndSet(false, true)) {
+            this.closer.scheduleWithFixedDelay(
+                new VerboseRunnable(
+                    () -> this.close(
+                        TimeUnit.SECONDS.toMillis(S3Clients.GRACE)
+                    ),
+                    true
+                ),
+                S3Clients.GRACE, S3Clients.GRACE, TimeUnit.SECONDS
+            );
+        }
+    }
+}
@@ -4,34 +4,76 @@
  */
 package com.s3auth.hosts;
 
+import com.google.common.collect.Lists;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.RetryOnFailure;
-import com.jcabi.aspects.ScheduleWithFixedDelay;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
 import com.jcabi.manifests.Manifests;
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
 import software.amazon.awssdk.services.cloudwatch.model.Dimension;
 import software.amazon.awssdk.services.cloudwatch.model.MetricDatum;
 import software.amazon.awssdk.services.cloudwatch.model.PutMetricDataRequest;
 import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
+import software.amazon.awssdk.services.cloudwatch.model.StatisticSet;
 
 /**
  * This class obtains local stats and posts it to Amazon CloudWatch every hour.
  *
+ * <p>Stats of buckets are posted in batches of up to a thousand datums,
+ * which is the limit of one {@code PutMetricData} call, and a few batches
+ * are posted in parallel. Every datum is a statistic set of the samples
+ * of its bucket since the previous run, see {@link Stats#samples()}.
+ * A batch is posted again a few times, if it fails, and a batch that
+ * fails after that is counted, and the stats are not acknowledged, so
+ * that all of them are posted again next time, see
+ * {@link DomainStatsData#acknowledge()}.
+ * The duration of the run and the number of failed batches are posted
+ * as {@code FlushDuration} and {@code FlushFailures} metrics at the end.
+ *
  * <p>The class is mutable and NOT thread-safe.</p>
  *
  * @since 0.0.1
  */
 @Loggable(Loggable.DEBUG)
-@ScheduleWithFixedDelay(delay = 1, unit = TimeUnit.HOURS)
 public final class ScheduledCloudWatch implements Runnable, Closeable {
 
+    /**
+     * Namespace of metrics.
+     */
+    private static final String NAMESPACE = "S3Auth";
+
+    /**
+     * Most datums in one request.
+     */
+    private static final int BATCH = 1000;
+
+    /**
+     * Most requests in parallel.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * How many times to post a batch.
+     */
+    private static final int ATTEMPTS = 3;
+
     /**
      * Domain stats data to post to CloudWatch.
      */
@@ -42,13 +84,23 @@ public final class ScheduledCloudWatch implements Runnable, Closeable {
      */
     private final transient CloudWatchClient cloudwatch;
 
+    /**
+     * Pause between attempts, in milliseconds.
+     */
+    private final transient long pause;
+
+    /**
+     * Background poster.
+     */
+    private final transient ScheduledExecutorService service;
+
     /**
      * Public ctor.
      * @throws IOException If an IO Exception occurs
      */
     public ScheduledCloudWatch() throws IOException {
         this(
-            new H2DomainStatsData(),
+            new StatsJournal(),
             CloudWatchClient.builder()
                 .credentialsProvider(ScheduledCloudWatch.credentials())
                 .build()
@@ -62,25 +114,102 @@ public final class ScheduledCloudWatch implements Runnable, Closeable {
      */
     ScheduledCloudWatch(final DomainStatsData stats,
         final CloudWatchClient cwatch) {
+        this(stats, cwatch, TimeUnit.SECONDS.toMillis(5L));
+    }
+
+    /**
+     * Ctor.
+     * @param stats The stats data to obtain
+     * @param cwatch The Cloudwatch client
+     * @param delay Pause between attempts, in milliseconds
+     */
+    ScheduledCloudWatch(final DomainStatsData stats,
+        final CloudWatchClient cwatch, final long delay) {
         this.cloudwatch = cwatch;
         this.data = stats;
+        this.pause = delay;
+        this.service = Executors.newSingleThreadScheduledExecutor(
+            new VerboseThreads("cloudwatch-schedule")
+        );
+    }
+
+    /**
+     * Post stats every hour in background, until closed.
+     * @return This object
+     */
+    public ScheduledCloudWatch schedule() {
+        this.service.scheduleWithFixedDelay(
+            new VerboseRunnable(this, true),
+            1L, 1L, TimeUnit.HOURS
+        );
+        return this;
     }
 
     @Override
     public void run() {
+        final long start = System.currentTimeMillis();
+        final List<List<MetricDatum>> batches;
         try {
-            final Map<String, Stats> results = this.data.all();
-            for (final Entry<String, Stats> entry : results.entrySet()) {
-                this.putData(entry.getValue(), entry.getKey());
-            }
+            batches = Lists.partition(
+                this.data.all().entrySet().stream()
+                    .map(
+                        entry -> ScheduledCloudWatch.datum(
+                            entry.getValue(), entry.getKey()
+                        )
+                    )
+                    .collect(Collectors.toList()),
+                ScheduledCloudWatch.BATCH
+            );
         } catch (final IOException ex) {
             throw new IllegalStateException(ex);
         }
+        final int failures = this.post(batches);
+        if (failures == 0) {
+            try {
+                this.data.acknowledge();
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        final long duration = System.currentTimeMillis() - start;
+        Logger.info(
+            this, "#run(): %d batch(es) posted in %[ms]s, %d failed",
+            batches.size(), duration, failures
+        );
+        this.putMetrics(
+            Arrays.asList(
+                MetricDatum.builder()
+                    .metricName("FlushDuration")
+                    .unit(StandardUnit.MILLISECONDS)
+                    .value((double) duration)
+                    .build(),
+                MetricDatum.builder()
+                    .metricName("FlushFailures")
+                    .unit(StandardUnit.COUNT)
+                    .value((double) failures)
+                    .build()
+            )
+        );
     }
 
+    /**
+     * Stop posting in background and close the client.
+     *
+     * <p>A run in progress is not interrupted, the stats it fails to post
+     * are not acknowledged and posted next time.
+     *
+     * @throws IOException If fails
+     */
     @Override
-    public void close() {
-        // Nothing to do, ScheduleWithFixedDelay will stop the thread.
+    public void close() throws IOException {
+        this.service.shutdown();
+        try {
+            this.cloudwatch.close();
+        } finally {
+            if (this.data instanceof Closeable) {
+                ((Closeable) this.data).close();
+            }
+        }
     }
 
     private static StaticCredentialsProvider credentials() {
@@ -92,14 +221,78 @@ public final class ScheduledCloudWatch implements Runnable, Closeable {
         );
     }
 
-    @RetryOnFailure(delay = 5L, unit = TimeUnit.SECONDS)
-    private void putData(final Stats stats, final String bucket) {
-        this.cloudwatch.putMetricData(
-            PutMetricDataRequest.builder()
-                .namespace("S3Auth")
-                .metricData(ScheduledCloudWatch.datum(stats, bucket))
-                .build()
-        );
+    private int post(final List<List<MetricDatum>> batches) {
+        int failures = 0;
+        if (!batches.isEmpty()) {
+            final ExecutorService threads = Executors.newFixedThreadPool(
+                Math.min(batches.size(), ScheduledCloudWatch.THREADS),
+                new VerboseThreads("cloudwatch")
+            );
+            try {
+                final Collection<Future<?>> posts =
+                    new ArrayList<>(batches.size());
+                for (final List<MetricDatum> batch : batches) {
+                    posts.add(
+                        threads.submit(
+                            () -> {
+                                this.putData(batch);
+                                return null;
+                            }
+                        )
+                    );
+                }
+                for (final Future<?> post : posts) {
+                    try {
+                        post.get();
+                    } catch (final ExecutionException ex) {
+                        Logger.warn(
+                            this, "#post(): batch lost: %[exception]s",
+                            ex.getCause()
+                        );
+                        ++failures;
+                    }
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } finally {
+                threads.shutdownNow();
+            }
+        }
+        return failures;
+    }
+
+    private void putMetrics(final Collection<MetricDatum> datums) {
+        try {
+            this.putData(datums);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void putData(final Collection<MetricDatum> datums)
+        throws InterruptedException {
+        final PutMetricDataRequest request = PutMetricDataRequest.builder()
+            .namespace(ScheduledCloudWatch.NAMESPACE)
+            .metricData(datums)
+            .build();
+        for (int attempt = 1; attempt <= ScheduledCloudWatch.ATTEMPTS;
+            ++attempt) {
+            try {
+                this.cloudwatch.putMetricData(request);
+                break;
+            } catch (final SdkException ex) {
+                if (attempt == ScheduledCloudWatch.ATTEMPTS) {
+                    throw ex;
+                }
+                Logger.warn(
+                    this, "#putData(): attempt #%d failed: %s",
+                    attempt, ex.getMessage()
+                );
+                TimeUnit.MILLISECONDS.sleep(this.pause);
+            }
+        }
     }
 
     private static MetricDatum datum(final Stats stats, final String bucket) {
@@ -107,7 +300,14 @@ public final class ScheduledCloudWatch implements Runnable, Closeable {
             .metricName("BytesTransferred")
             .dimensions(Dimension.builder().name("Bucket").value(bucket).build())
             .unit(StandardUnit.BYTES)
-            .value((double) stats.bytesTransferred())
+            .statisticValues(
+                StatisticSet.builder()
+                    .sampleCount((double) stats.samples())
+                    .sum((double) stats.bytesTransferred())
+                    .minimum((double) stats.minimum())
+                    .maximum((double) stats.maximum())
+                    .build()
+            )
             .build();
     }
 }
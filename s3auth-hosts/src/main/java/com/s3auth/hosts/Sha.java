@@ -36,4 +36,13 @@ final class Sha implements Htpasswd.Algorithm {
         }
         return matches;
     }
+
+    /**
+     * Is it a SHA1 hash?
+     * @param hash The hash
+     * @return TRUE if it is
+     */
+    static boolean accepts(final String hash) {
+        return Sha.PATTERN.matcher(hash).matches();
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.DelegatingS3Client;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.S3Request;
+
+/**
+ * S3 client shared by many domains, which knows when it is idle.
+ *
+ * <p>Every request is counted while it is in progress. A request that
+ * returns a stream, like {@code GetObject}, is in progress until the
+ * stream is closed, so that a long download keeps the client busy.
+ * The client is idle when no request is in progress and none has
+ * finished recently, see {@link S3Clients}.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+final class SharedClient extends DelegatingS3Client {
+
+    /**
+     * Requests in progress.
+     */
+    private final transient AtomicInteger users;
+
+    /**
+     * When the last request started or finished, in milliseconds.
+     */
+    private final transient AtomicLong used;
+
+    /**
+     * Ctor.
+     * @param origin The client to share
+     */
+    SharedClient(final S3Client origin) {
+        super(origin);
+        this.users = new AtomicInteger();
+        this.used = new AtomicLong(System.currentTimeMillis());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d request(s) in progress", this.users.get());
+    }
+
+    /**
+     * Is it idle for so long?
+     * @param millis For how long, in milliseconds
+     * @return TRUE if no request is in progress and none finished recently
+     */
+    boolean idle(final long millis) {
+        return this.users.get() == 0
+            && System.currentTimeMillis() - this.used.get() >= millis;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T extends S3Request, R> R invokeOperation(final T request,
+        final Function<T, R> operation) {
+        this.users.incrementAndGet();
+        this.used.set(System.currentTimeMillis());
+        R result = null;
+        try {
+            result = operation.apply(request);
+            if (result instanceof ResponseInputStream) {
+                result = (R) this.counted((ResponseInputStream<?>) result);
+            }
+        } finally {
+            if (!(result instanceof ResponseInputStream)) {
+                this.release();
+            }
+        }
+        return result;
+    }
+
+    private <T> ResponseInputStream<T> counted(
+        final ResponseInputStream<T> stream) {
+        final AtomicBoolean open = new AtomicBoolean(true);
+        final InputStream input = new FilterInputStream(stream) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (open.compareAndSet(true, false)) {
+                        SharedClient.this.release();
+                    }
+                }
+            }
+        };
+        return new ResponseInputStream<>(
+            stream.response(), AbortableInputStream.create(input, stream::abort)
+        );
+    }
+
+    private void release() {
+        this.used.set(System.currentTimeMillis());
+        this.users.decrementAndGet();
+    }
+}
@@ -9,6 +9,7 @@ import com.jcabi.aspects.Loggable;
 import com.jcabi.log.Logger;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.URI;
 import java.util.Objects;
 import java.util.regex.Pattern;
@@ -76,14 +77,22 @@ final class SmartHost implements Host {
     }
 
     @Override
-    @Loggable(value = Loggable.DEBUG, ignore = IOException.class)
     public Resource fetch(@NotNull final URI uri, @NotNull final Range range,
         @NotNull final Version version) throws IOException {
+        return this.fetch(uri, range, version, "");
+    }
+
+    @Override
+    @Loggable(value = Loggable.DEBUG, ignore = IOException.class)
+    public Resource fetch(@NotNull final URI uri, @NotNull final Range range,
+        @NotNull final Version version, @NotNull final String client)
+        throws IOException {
         final Resource resource;
         if (SmartHost.HTPASSWD.matcher(uri.toString()).matches()) {
             String text;
             try {
-                final Resource htpasswd = this.host.fetch(uri, range, version);
+                final Resource htpasswd =
+                    this.host.fetch(uri, range, version, client);
                 final ByteArrayOutputStream baos = new ByteArrayOutputStream();
                 htpasswd.writeTo(baos);
                 text = String.format(
@@ -95,14 +104,28 @@ final class SmartHost implements Host {
             }
             resource = new Resource.PlainText(text);
         } else {
-            resource = this.host.fetch(uri, range, version);
+            resource = this.host.fetch(uri, range, version, client);
+        }
+        return resource;
+    }
+
+    @Override
+    @Loggable(value = Loggable.DEBUG, ignore = IOException.class)
+    public Resource head(@NotNull final URI uri, @NotNull final Range range,
+        @NotNull final Version version) throws IOException {
+        final Resource resource;
+        if (SmartHost.HTPASSWD.matcher(uri.toString()).matches()) {
+            resource = this.fetch(uri, range, version);
+        } else {
+            resource = this.host.head(uri, range, version);
         }
         return resource;
     }
 
     @Override
-    public boolean isHidden(@NotNull final URI uri) {
-        return !SmartHost.HTPASSWD.matcher(uri.toString()).matches();
+    public boolean isHidden(@NotNull final URI uri) throws IOException {
+        return !SmartHost.HTPASSWD.matcher(uri.toString()).matches()
+            && this.host.isHidden(uri);
     }
 
     @Override
@@ -110,4 +133,15 @@ final class SmartHost implements Host {
         @NotNull final String password) throws IOException {
         return this.host.authorized(user, password);
     }
+
+    @Override
+    public String credentials(@NotNull final String user) throws IOException {
+        return this.host.credentials(user);
+    }
+
+    @Override
+    public boolean isBlocked(@NotNull final InetAddress address)
+        throws IOException {
+        return this.host.isBlocked(address);
+    }
 }
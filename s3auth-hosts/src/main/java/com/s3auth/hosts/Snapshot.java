@@ -0,0 +1,44 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Immutable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Last known registry of domains, kept between restarts.
+ * @since 0.0.1
+ */
+@Immutable
+interface Snapshot {
+
+    /**
+     * No snapshot, nothing is ever saved or loaded.
+     */
+    Snapshot NONE = new Snapshot() {
+        @Override
+        public Map<String, Domain> load() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public void save(final Map<String, Domain> domains) {
+            // nothing to do
+        }
+    };
+
+    /**
+     * Load the domains saved last time.
+     * @return Domains by name, empty if there is nothing saved
+     */
+    Map<String, Domain> load();
+
+    /**
+     * Save the domains.
+     * @param domains Domains by name
+     */
+    void save(Map<String, Domain> domains);
+}
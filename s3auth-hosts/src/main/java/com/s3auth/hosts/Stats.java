@@ -5,6 +5,7 @@
 package com.s3auth.hosts;
 
 import com.jcabi.aspects.Immutable;
+import java.util.Objects;
 
 /**
  * Statistics for a given domain.
@@ -20,6 +21,30 @@ public interface Stats {
      */
     long bytesTransferred();
 
+    /**
+     * How many samples the bytes transferred are the sum of.
+     * @return Number of samples
+     */
+    default long samples() {
+        return 1L;
+    }
+
+    /**
+     * The smallest sample.
+     * @return Bytes transferred
+     */
+    default long minimum() {
+        return this.bytesTransferred();
+    }
+
+    /**
+     * The largest sample.
+     * @return Bytes transferred
+     */
+    default long maximum() {
+        return this.bytesTransferred();
+    }
+
     /**
      * Simple stats.
      * @since 0.0.1
@@ -32,12 +57,43 @@ public interface Stats {
          */
         private final transient long bytes;
 
+        /**
+         * Number of samples.
+         */
+        private final transient long count;
+
+        /**
+         * Smallest sample.
+         */
+        private final transient long min;
+
+        /**
+         * Largest sample.
+         */
+        private final transient long max;
+
         /**
          * Ctor.
          * @param transferred Number of bytes transferred
          */
         public Simple(final long transferred) {
+            this(transferred, 1L, transferred, transferred);
+        }
+
+        /**
+         * Ctor.
+         * @param transferred Number of bytes transferred
+         * @param samples Number of samples
+         * @param smallest Smallest sample
+         * @param largest Largest sample
+         * @checkstyle ParameterNumber (3 lines)
+         */
+        public Simple(final long transferred, final long samples,
+            final long smallest, final long largest) {
             this.bytes = transferred;
+            this.count = samples;
+            this.min = smallest;
+            this.max = largest;
         }
 
         @Override
@@ -45,15 +101,54 @@ public interface Stats {
             return this.bytes;
         }
 
+        @Override
+        public long samples() {
+            return this.count;
+        }
+
+        @Override
+        public long minimum() {
+            return this.min;
+        }
+
+        @Override
+        public long maximum() {
+            return this.max;
+        }
+
         @Override
         public int hashCode() {
-            return Long.hashCode(this.bytes);
+            return Objects.hash(this.bytes, this.count, this.min, this.max);
         }
 
         @Override
         public boolean equals(final Object obj) {
-            return obj instanceof Simple
-                && this.bytes == ((Simple) obj).bytes;
+            final boolean equal;
+            if (obj instanceof Simple) {
+                final Simple other = (Simple) obj;
+                equal = this.bytes == other.bytes
+                    && this.count == other.count
+                    && this.min == other.min
+                    && this.max == other.max;
+            } else {
+                equal = false;
+            }
+            return equal;
+        }
+
+        /**
+         * Add up samples of two stats.
+         * @param left One stats
+         * @param right Another stats
+         * @return Stats with samples of both
+         */
+        public static Stats plus(final Stats left, final Stats right) {
+            return new Stats.Simple(
+                left.bytesTransferred() + right.bytesTransferred(),
+                left.samples() + right.samples(),
+                Math.min(left.minimum(), right.minimum()),
+                Math.max(left.maximum(), right.maximum())
+            );
         }
     }
 }
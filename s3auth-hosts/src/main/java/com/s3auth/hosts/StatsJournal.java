@@ -0,0 +1,461 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Loggable;
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Append-only journal of {@link Stats} per domain, in local files.
+ *
+ * <p>Records are appended to an active segment, which is a file of fixed
+ * size mapped into memory, so that an append is a copy of a few bytes,
+ * without a system call. Every record is the length of the domain, the
+ * domain, the bytes and a CRC32 of them. The length is written last,
+ * so that a record cut by a crash is never read, and the CRC rejects
+ * records torn by a power loss.
+ *
+ * <p>A segment is sealed, by renaming it atomically, when it is full,
+ * when it is a minute old and a new record comes, when the journal is
+ * closed, and when the journal is read. Reading sums all sealed segments,
+ * counting every record as a sample, see {@link Stats#samples()},
+ * and deletes nothing, the segments read are deleted only when the caller
+ * acknowledges that it has handled the sums, see {@link #acknowledge()}.
+ * If the caller fails or the process crashes before that, the same
+ * records are read again next time, so that they are never lost, though
+ * they may be counted twice.
+ * Segments left active by a crashed process are sealed when a journal
+ * in the same directory is used for the first time. Every journal
+ * appends to its own segment, locked while it is active, so that many
+ * journals, even in different processes, may share the same directory.
+ * The directory is private to the user of the process, see
+ * {@link PrivateDir}, since names of domains are in the segments.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class StatsJournal implements DomainStatsData, Closeable {
+
+    /**
+     * Suffix of the active segment.
+     */
+    private static final String ACTIVE = ".active";
+
+    /**
+     * Suffix of sealed segments.
+     */
+    private static final String SEALED = ".sealed";
+
+    /**
+     * Size of a segment, in bytes.
+     */
+    private static final int SIZE = 1 << 20;
+
+    /**
+     * Age of a segment when it is sealed, in milliseconds.
+     */
+    private static final long AGE = TimeUnit.MINUTES.toMillis(1L);
+
+    /**
+     * Directory with segments.
+     */
+    private final transient Path dir;
+
+    /**
+     * Size of a segment, in bytes.
+     */
+    private final transient int size;
+
+    /**
+     * Current active segment, or NULL if there is none.
+     */
+    private transient StatsJournal.Segment active;
+
+    /**
+     * Is the directory created and recovered after a crash?
+     */
+    private transient boolean ready;
+
+    /**
+     * Sealed segments read and not acknowledged yet.
+     */
+    private final transient List<Path> pending;
+
+    /**
+     * Public ctor, with segments in the private directory, see
+     * {@link PrivateDir}.
+     */
+    StatsJournal() {
+        this(new PrivateDir().resolve("stats"));
+    }
+
+    /**
+     * Public ctor.
+     * @param path Directory with segments
+     */
+    StatsJournal(@NotNull final Path path) {
+        this(path, StatsJournal.SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param path Directory with segments
+     * @param bytes Size of a segment, in bytes
+     */
+    StatsJournal(@NotNull final Path path, final int bytes) {
+        this.dir = path;
+        this.size = bytes;
+        this.pending = new LinkedList<>();
+    }
+
+    @Override
+    public String toString() {
+        return this.dir.toString();
+    }
+
+    @Override
+    public synchronized void put(@NotNull final String domain,
+        @NotNull final Stats stats) throws IOException {
+        final byte[] name = domain.getBytes(StandardCharsets.UTF_8);
+        final int length = Integer.BYTES + name.length + Long.BYTES
+            + Integer.BYTES;
+        if (length > this.size) {
+            throw new IOException(
+                String.format("domain '%s' is too long", domain)
+            );
+        }
+        if (this.active != null
+            && (this.active.free() < length || this.active.old())) {
+            this.seal();
+        }
+        if (this.active == null) {
+            this.prepare();
+            this.active = new StatsJournal.Segment(
+                this.dir.resolve(
+                    String.format(
+                        "%d-%s%s", System.currentTimeMillis(),
+                        UUID.randomUUID(), StatsJournal.ACTIVE
+                    )
+                ),
+                this.size
+            );
+        }
+        this.active.append(name, stats.bytesTransferred());
+    }
+
+    @Override
+    public synchronized void putAll(@NotNull final Map<String, Stats> batch)
+        throws IOException {
+        for (final Map.Entry<String, Stats> entry : batch.entrySet()) {
+            this.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Drain the stats of this domain only, keeping the records of
+     * the others.
+     * @param domain The domain whose stats we're interested in
+     * @return The stats for this domain
+     * @throws IOException If something goes wrong
+     */
+    @Override
+    public synchronized Stats get(@NotNull final String domain)
+        throws IOException {
+        this.prepare();
+        this.seal();
+        final List<Path> sealed = this.segments(StatsJournal.SEALED);
+        Stats stats = null;
+        for (final Path segment : sealed) {
+            for (final Map.Entry<String, Long> record
+                : StatsJournal.records(segment)) {
+                final Stats bytes = new Stats.Simple(record.getValue());
+                if (!domain.equals(record.getKey())) {
+                    this.put(record.getKey(), bytes);
+                } else if (stats == null) {
+                    stats = bytes;
+                } else {
+                    stats = Stats.Simple.plus(stats, bytes);
+                }
+            }
+        }
+        this.seal();
+        this.pending.clear();
+        this.pending.addAll(sealed);
+        this.acknowledge();
+        final Stats result;
+        if (stats == null) {
+            result = new Stats.Simple(0L);
+        } else {
+            result = stats;
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Map<String, Stats> all() throws IOException {
+        this.prepare();
+        this.seal();
+        final Map<String, Stats> sums = new HashMap<>(0);
+        final List<Path> sealed = this.segments(StatsJournal.SEALED);
+        for (final Path segment : sealed) {
+            for (final Map.Entry<String, Long> record
+                : StatsJournal.records(segment)) {
+                sums.merge(
+                    record.getKey(), new Stats.Simple(record.getValue()),
+                    Stats.Simple::plus
+                );
+            }
+        }
+        this.pending.clear();
+        this.pending.addAll(sealed);
+        return sums;
+    }
+
+    /**
+     * Delete the segments read by the last {@link #all()}, since their
+     * sums are handled.
+     * @throws IOException If something goes wrong
+     */
+    @Override
+    public synchronized void acknowledge() throws IOException {
+        for (final Path segment : this.pending) {
+            Files.deleteIfExists(segment);
+        }
+        this.pending.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.seal();
+    }
+
+    private void seal() throws IOException {
+        if (this.active != null) {
+            this.active.seal();
+            this.active = null;
+        }
+    }
+
+    private void prepare() throws IOException {
+        if (!this.ready) {
+            new PrivateDir(this.dir.toString()).create();
+            this.recover();
+            this.ready = true;
+        }
+    }
+
+    private void recover() throws IOException {
+        for (final Path segment : this.segments(StatsJournal.ACTIVE)) {
+            try (FileChannel channel = FileChannel.open(
+                segment, StandardOpenOption.WRITE
+            )) {
+                final FileLock lock = channel.tryLock();
+                if (lock != null) {
+                    lock.release();
+                    StatsJournal.Segment.move(segment);
+                    Logger.info(
+                        this, "#recover(): %s left by a crash is sealed",
+                        segment.getFileName()
+                    );
+                }
+            } catch (final OverlappingFileLockException ex) {
+                Logger.debug(
+                    this, "#recover(): %s is active here",
+                    segment.getFileName()
+                );
+            }
+        }
+    }
+
+    private List<Path> segments(final String suffix) throws IOException {
+        final List<Path> segments = new LinkedList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(
+            this.dir, String.format("*%s", suffix)
+        )) {
+            for (final Path file : files) {
+                segments.add(file);
+            }
+        }
+        return segments;
+    }
+
+    private static List<Map.Entry<String, Long>> records(final Path segment)
+        throws IOException {
+        final List<Map.Entry<String, Long>> records = new LinkedList<>();
+        final ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(segment));
+        while (buf.remaining() >= Integer.BYTES) {
+            final int length = buf.getInt();
+            if (length <= 0
+                || length > buf.remaining() - Long.BYTES - Integer.BYTES) {
+                break;
+            }
+            final byte[] name = new byte[length];
+            buf.get(name);
+            final long bytes = buf.getLong();
+            if (buf.getInt() != StatsJournal.crc(name, bytes)) {
+                Logger.warn(
+                    StatsJournal.class, "#records(): broken record in %s",
+                    segment.getFileName()
+                );
+                break;
+            }
+            records.add(
+                new AbstractMap.SimpleImmutableEntry<>(
+                    new String(name, StandardCharsets.UTF_8), bytes
+                )
+            );
+        }
+        return records;
+    }
+
+    private static int crc(final byte[] name, final long bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, bytes));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Active segment.
+     *
+     * <p>The class is not thread-safe, the journal synchronizes access.
+     *
+     * @since 0.0.1
+     */
+    private static final class Segment {
+
+        /**
+         * Path of the file.
+         */
+        private final transient Path path;
+
+        /**
+         * Open channel.
+         */
+        private final transient FileChannel channel;
+
+        /**
+         * Lock held while the segment is active.
+         */
+        private final transient FileLock lock;
+
+        /**
+         * Mapped content.
+         */
+        private final transient MappedByteBuffer buffer;
+
+        /**
+         * When created, in milliseconds.
+         */
+        private final transient long created;
+
+        /**
+         * Ctor.
+         * @param file Path of the file
+         * @param bytes Size of the file, in bytes
+         * @throws IOException If fails
+         */
+        Segment(final Path file, final int bytes) throws IOException {
+            this.path = file;
+            this.channel = FileChannel.open(
+                file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE
+            );
+            this.lock = this.channel.lock();
+            this.buffer = this.channel.map(
+                FileChannel.MapMode.READ_WRITE, 0L, bytes
+            );
+            this.created = System.currentTimeMillis();
+        }
+
+        /**
+         * How many bytes are still free.
+         * @return Free bytes
+         */
+        int free() {
+            return this.buffer.remaining();
+        }
+
+        /**
+         * Is it time to seal it?
+         * @return TRUE if it is
+         */
+        boolean old() {
+            return System.currentTimeMillis() - this.created
+                > StatsJournal.AGE;
+        }
+
+        /**
+         * Append a record, which must fit.
+         * @param name Domain
+         * @param bytes Bytes transferred
+         */
+        void append(final byte[] name, final long bytes) {
+            final int start = this.buffer.position();
+            this.buffer.position(start + Integer.BYTES);
+            this.buffer.put(name);
+            this.buffer.putLong(bytes);
+            this.buffer.putInt(StatsJournal.crc(name, bytes));
+            this.buffer.putInt(start, name.length);
+        }
+
+        /**
+         * Flush it to disk and seal it.
+         * @throws IOException If fails
+         */
+        void seal() throws IOException {
+            this.buffer.force();
+            this.lock.release();
+            this.channel.close();
+            Segment.move(this.path);
+        }
+
+        /**
+         * Seal the file.
+         * @param file Path of the active segment
+         * @throws IOException If fails
+         */
+        static void move(final Path file) throws IOException {
+            final String name = file.getFileName().toString();
+            Files.move(
+                file,
+                file.resolveSibling(
+                    String.format(
+                        "%s%s",
+                        name.substring(
+                            0, name.length() - StatsJournal.ACTIVE.length()
+                        ),
+                        StatsJournal.SEALED
+                    )
+                ),
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Loggable;
+import com.jcabi.dynamo.Region;
+import com.jcabi.log.Logger;
+import com.jcabi.manifests.Manifests;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbServiceClientConfiguration;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
+import software.amazon.awssdk.services.dynamodb.model.OperationType;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.Shard;
+import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+import software.amazon.awssdk.services.dynamodb.model.StreamDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClient;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClientBuilder;
+
+/**
+ * Changes in the registry of domains, read from DynamoDB Streams.
+ *
+ * <p>The stream must be enabled on the table, with {@code NEW_IMAGE} or
+ * {@code NEW_AND_OLD_IMAGES} view. If it is not, that is reported once and
+ * there are no changes ever, just like {@link Changes#NONE}. Shards open
+ * at the first call are read from their latest records, shards appearing
+ * later are read from the beginning, so that nothing is lost when DynamoDB
+ * splits them. After a failure the stream is not read for a few minutes
+ * and is not live, so that {@link DomainIndex} is rebuilt from full scans
+ * on its usual schedule, instead of a full scan after every poll. Then
+ * the reader starts over from the latest records, and reports that
+ * changes may have been lost, so that the index is rebuilt right away.
+ *
+ * <p>Both clients talk to the region and the endpoint of the
+ * {@link Region} the registry is loaded from, with the
+ * same credentials.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class StreamChanges implements Changes {
+
+    /**
+     * How often to look for new shards, in milliseconds.
+     */
+    private static final long DESCRIBE = TimeUnit.MINUTES.toMillis(1L);
+
+    /**
+     * How long not to read the stream after a failure, in milliseconds.
+     */
+    private static final long BACKOFF = TimeUnit.MINUTES.toMillis(5L);
+
+    /**
+     * DynamoDB client.
+     */
+    private final transient DynamoDbClient dynamo;
+
+    /**
+     * DynamoDB Streams client.
+     */
+    private final transient DynamoDbStreamsClient streams;
+
+    /**
+     * Table name.
+     */
+    private final transient String table;
+
+    /**
+     * Iterators of shards being read, by shard ID.
+     */
+    private final transient ConcurrentMap<String, String> iterators;
+
+    /**
+     * Shards that are closed and read to the end.
+     */
+    private final transient Set<String> finished;
+
+    /**
+     * ARN of the stream, NULL until known.
+     */
+    private final transient AtomicReference<String> arn;
+
+    /**
+     * When shards were described last time, in milliseconds.
+     */
+    private final transient AtomicLong described;
+
+    /**
+     * Is the stream not enabled on the table?
+     */
+    private final transient AtomicBoolean missing;
+
+    /**
+     * When the stream failed last time, in milliseconds.
+     */
+    private final transient AtomicLong failed;
+
+    /**
+     * Public ctor, with the table from the manifest.
+     * @param region The jcabi-dynamo Region of the registry
+     */
+    StreamChanges(final Region region) {
+        this(region.aws(), Manifests.read("S3Auth-AwsDynamoTable"));
+    }
+
+    /**
+     * Ctor.
+     * @param dnm DynamoDB client
+     * @param tbl Table name
+     */
+    private StreamChanges(final DynamoDbClient dnm, final String tbl) {
+        this(dnm, StreamChanges.streams(dnm), tbl);
+    }
+
+    /**
+     * Ctor.
+     * @param dnm DynamoDB client
+     * @param strms DynamoDB Streams client
+     * @param tbl Table name
+     */
+    StreamChanges(final DynamoDbClient dnm, final DynamoDbStreamsClient strms,
+        final String tbl) {
+        this.dynamo = dnm;
+        this.streams = strms;
+        this.table = tbl;
+        this.iterators = new ConcurrentHashMap<>(0);
+        this.finished = ConcurrentHashMap.newKeySet();
+        this.arn = new AtomicReference<>();
+        this.described = new AtomicLong();
+        this.missing = new AtomicBoolean();
+        this.failed = new AtomicLong();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "stream of %s, %d shard(s)", this.table, this.iterators.size()
+        );
+    }
+
+    @Override
+    public synchronized Iterable<Changes.Change> next() throws IOException {
+        try {
+            final Iterable<Changes.Change> changes;
+            if (!this.live()) {
+                changes = Collections.emptyList();
+            } else if (this.arn.get() == null) {
+                changes = this.start();
+            } else {
+                if (System.currentTimeMillis() - this.described.get()
+                    > StreamChanges.DESCRIBE) {
+                    this.shards(ShardIteratorType.TRIM_HORIZON);
+                }
+                changes = this.records();
+            }
+            return changes;
+        } catch (final DynamoDbException ex) {
+            this.arn.set(null);
+            this.iterators.clear();
+            this.finished.clear();
+            this.failed.set(System.currentTimeMillis());
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public boolean live() {
+        return !this.missing.get()
+            && System.currentTimeMillis() - this.failed.get()
+            >= StreamChanges.BACKOFF;
+    }
+
+    private Iterable<Changes.Change> start() {
+        final TableDescription desc = this.dynamo.describeTable(
+            DescribeTableRequest.builder().tableName(this.table).build()
+        ).table();
+        Iterable<Changes.Change> changes = null;
+        if (desc.latestStreamArn() == null
+            || desc.streamSpecification() == null
+            || !Boolean.TRUE.equals(
+                desc.streamSpecification().streamEnabled()
+            )) {
+            this.missing.set(true);
+            Logger.warn(
+                this, "#start(): no stream on table '%s', full scans only",
+                this.table
+            );
+            changes = Collections.emptyList();
+        } else {
+            this.arn.set(desc.latestStreamArn());
+            this.shards(ShardIteratorType.LATEST);
+        }
+        return changes;
+    }
+
+    private Collection<Changes.Change> records() {
+        final Collection<Changes.Change> changes = new LinkedList<>();
+        for (final Map.Entry<String, String> entry
+            : this.iterators.entrySet()) {
+            final GetRecordsResponse resp = this.streams.getRecords(
+                GetRecordsRequest.builder()
+                    .shardIterator(entry.getValue())
+                    .build()
+            );
+            for (final Record rec : resp.records()) {
+                final Changes.Change change = StreamChanges.change(rec);
+                if (change != null) {
+                    changes.add(change);
+                }
+            }
+            if (resp.nextShardIterator() == null) {
+                this.iterators.remove(entry.getKey());
+                this.finished.add(entry.getKey());
+            } else {
+                this.iterators.put(entry.getKey(), resp.nextShardIterator());
+            }
+        }
+        return changes;
+    }
+
+    private void shards(final ShardIteratorType type) {
+        String start = null;
+        do {
+            final StreamDescription desc = this.streams.describeStream(
+                DescribeStreamRequest.builder()
+                    .streamArn(this.arn.get())
+                    .exclusiveStartShardId(start)
+                    .build()
+            ).streamDescription();
+            for (final Shard shard : desc.shards()) {
+                final String sid = shard.shardId();
+                if (this.iterators.containsKey(sid)
+                    || this.finished.contains(sid)) {
+                    continue;
+                }
+                if (type == ShardIteratorType.LATEST
+                    && shard.sequenceNumberRange() != null
+                    && shard.sequenceNumberRange().endingSequenceNumber() != null) {
+                    this.finished.add(sid);
+                    continue;
+                }
+                this.iterators.put(
+                    sid,
+                    this.streams.getShardIterator(
+                        GetShardIteratorRequest.builder()
+                            .streamArn(this.arn.get())
+                            .shardId(sid)
+                            .shardIteratorType(type)
+                            .build()
+                    ).shardIterator()
+                );
+            }
+            start = desc.lastEvaluatedShardId();
+        } while (start != null);
+        this.described.set(System.currentTimeMillis());
+    }
+
+    private static Changes.Change change(final Record rec) {
+        Changes.Change change = null;
+        if (rec.eventName() == OperationType.REMOVE) {
+            String name = StreamChanges.value(
+                rec.dynamodb().keys(), DefaultDynamo.NAME, null
+            );
+            if (name == null) {
+                name = StreamChanges.value(
+                    rec.dynamodb().oldImage(), DefaultDynamo.NAME, null
+                );
+            }
+            if (name != null) {
+                change = new Changes.Change(name, null);
+            }
+        } else if (rec.dynamodb().hasNewImage()
+            && rec.dynamodb().newImage().containsKey(DefaultDynamo.NAME)) {
+            final Map<String, AttributeValue> img = rec.dynamodb().newImage();
+            final String name = StreamChanges.value(img, DefaultDynamo.NAME, "");
+            change = new Changes.Change(
+                name,
+                new DefaultDomain(
+                    name,
+                    StreamChanges.value(img, DefaultDynamo.KEY, ""),
+                    StreamChanges.value(img, DefaultDynamo.SECRET, ""),
+                    StreamChanges.value(img, DefaultDynamo.BUCKET, name),
+                    StreamChanges.value(img, DefaultDynamo.REGION, ""),
+                    StreamChanges.value(
+                        img, DefaultDynamo.SYSLOG, DefaultDynamo.DEFAULT_SYSLOG
+                    )
+                )
+            );
+        }
+        return change;
+    }
+
+    private static String value(final Map<String, AttributeValue> attrs,
+        final String name, final String def) {
+        String value = def;
+        if (attrs != null && attrs.containsKey(name)
+            && attrs.get(name).s() != null) {
+            value = attrs.get(name).s();
+        }
+        return value;
+    }
+
+    private static DynamoDbStreamsClient streams(final DynamoDbClient dnm) {
+        final DynamoDbServiceClientConfiguration config =
+            dnm.serviceClientConfiguration();
+        final DynamoDbStreamsClientBuilder builder =
+            DynamoDbStreamsClient.builder()
+                .region(config.region())
+                .credentialsProvider(config.credentialsProvider());
+        config.endpointOverride().ifPresent(builder::endpointOverride);
+        return builder.build();
+    }
+}
@@ -6,6 +6,7 @@ package com.s3auth.hosts;
 
 import com.jcabi.aspects.Immutable;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.URI;
 import java.util.Objects;
 import java.util.regex.Matcher;
@@ -46,6 +47,12 @@ final class SyslogHost implements Host {
     @Override
     public Resource fetch(final URI uri, final Range range,
         final Version version) throws IOException {
+        return this.fetch(uri, range, version, "");
+    }
+
+    @Override
+    public Resource fetch(final URI uri, final Range range,
+        final Version version, final String client) throws IOException {
         final Matcher matcher = SyslogHost.PATTERN.matcher(this.host.syslog());
         final Resource res;
         if (matcher.find()) {
@@ -57,14 +64,21 @@ final class SyslogHost implements Host {
                 port = Integer.parseInt(matcher.group(3));
             }
             res = new SyslogResource(
-                this.host.fetch(uri, range, version), uri, syslg, port
+                this.host.fetch(uri, range, version, client),
+                uri, syslg, port
             );
         } else {
-            res = this.host.fetch(uri, range, version);
+            res = this.host.fetch(uri, range, version, client);
         }
         return res;
     }
 
+    @Override
+    public Resource head(final URI uri, final Range range,
+        final Version version) throws IOException {
+        return this.host.head(uri, range, version);
+    }
+
     @Override
     public boolean isHidden(final URI uri) throws IOException {
         return this.host.isHidden(uri);
@@ -76,6 +90,17 @@ final class SyslogHost implements Host {
         return this.host.authorized(user, password);
     }
 
+    @Override
+    public String credentials(final String user) throws IOException {
+        return this.host.credentials(user);
+    }
+
+    @Override
+    public boolean isBlocked(final InetAddress address)
+        throws IOException {
+        return this.host.isBlocked(address);
+    }
+
     @Override
     public String syslog() {
         return this.host.syslog();
@@ -8,6 +8,7 @@ import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import java.io.IOException;
 import java.util.Objects;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -64,4 +65,10 @@ public final class SyslogHosts implements Hosts {
     public Set<Domain> domains(final User user) throws IOException {
         return this.hosts.domains(user);
     }
+
+    @Override
+    public List<Domain> domains(final User user, final String from,
+        final boolean forward, final int limit) throws IOException {
+        return this.hosts.domains(user, from, forward, limit);
+    }
 }
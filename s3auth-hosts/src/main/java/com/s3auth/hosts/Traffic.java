@@ -0,0 +1,205 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Loggable;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Traffic of domains, accumulated in memory and flushed in batches.
+ *
+ * <p>Every response adds its bytes to a counter of its domain, which is
+ * a {@link LongAdder}, so that threads serving the same domain don't
+ * contend for it. A background thread drains all counters every few
+ * seconds and posts them to the underlying store in one batch, see
+ * {@link DomainStatsData#putAll(Map)}. Request threads never touch the
+ * store. If the store fails, the bytes are added back to the counters
+ * and posted next time. Bytes are also added to a {@link TrafficWindow}
+ * right away, so that stats of the last week are always fresh. When it
+ * is closed, everything accumulated is flushed and the store is closed,
+ * if it is {@link Closeable}, so that nothing is lost when the relay
+ * stops.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class Traffic implements DomainStatsData, Closeable {
+
+    /**
+     * How often to flush, in seconds.
+     */
+    private static final long PERIOD = 10L;
+
+    /**
+     * The underlying store.
+     */
+    private final transient DomainStatsData origin;
+
+    /**
+     * Traffic of the last week.
+     */
+    private final transient TrafficWindow window;
+
+    /**
+     * How often to flush, in milliseconds.
+     */
+    private final transient long period;
+
+    /**
+     * Bytes not flushed yet, by domain.
+     */
+    private final transient ConcurrentMap<String, LongAdder> counters;
+
+    /**
+     * Is the flushing thread started?
+     */
+    private final transient AtomicBoolean started;
+
+    /**
+     * Background flusher.
+     */
+    private final transient ScheduledExecutorService service;
+
+    /**
+     * Public ctor.
+     * @param data The underlying store
+     * @param wnd Traffic of the last week
+     */
+    Traffic(@NotNull final DomainStatsData data,
+        @NotNull final TrafficWindow wnd) {
+        this(data, wnd, TimeUnit.SECONDS.toMillis(Traffic.PERIOD));
+    }
+
+    /**
+     * Ctor.
+     * @param data The underlying store
+     * @param wnd Traffic of the last week
+     * @param prd How often to flush, in milliseconds
+     */
+    Traffic(@NotNull final DomainStatsData data,
+        @NotNull final TrafficWindow wnd, final long prd) {
+        this.origin = data;
+        this.window = wnd;
+        this.period = prd;
+        this.counters = new ConcurrentHashMap<>(0);
+        this.started = new AtomicBoolean();
+        this.service = Executors.newSingleThreadScheduledExecutor(
+            new VerboseThreads("traffic")
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format("traffic of %d domain(s)", this.counters.size());
+    }
+
+    @Override
+    public void put(@NotNull final String domain, @NotNull final Stats stats) {
+        this.counters.computeIfAbsent(domain, key -> new LongAdder())
+            .add(stats.bytesTransferred());
+        this.window.add(domain, stats.bytesTransferred());
+        if (this.started.compareAndSet(false, true)) {
+            this.service.scheduleWithFixedDelay(
+                new VerboseRunnable(
+                    () -> {
+                        this.flush();
+                        return null;
+                    },
+                    true
+                ),
+                this.period, this.period, TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    @Override
+    public void putAll(@NotNull final Map<String, Stats> batch) {
+        for (final Map.Entry<String, Stats> entry : batch.entrySet()) {
+            this.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Stats get(@NotNull final String domain) throws IOException {
+        this.flush();
+        return this.origin.get(domain);
+    }
+
+    @Override
+    public Map<String, Stats> all() throws IOException {
+        this.flush();
+        return this.origin.all();
+    }
+
+    @Override
+    public void acknowledge() throws IOException {
+        this.origin.acknowledge();
+    }
+
+    /**
+     * Stop flushing in background, flush what is left and close the
+     * underlying store, if it is closeable.
+     *
+     * <p>A flush in progress is not interrupted, since an interrupt
+     * closes the files of the store. Bytes added after that are only
+     * flushed by {@link #flush()}, {@link #get(String)} and
+     * {@link #all()}.
+     *
+     * @throws IOException If fails
+     */
+    @Override
+    public void close() throws IOException {
+        this.started.set(true);
+        this.service.shutdown();
+        try {
+            this.flush();
+        } finally {
+            if (this.origin instanceof Closeable) {
+                ((Closeable) this.origin).close();
+            }
+        }
+    }
+
+    /**
+     * Post all accumulated bytes to the underlying store.
+     * @throws IOException If fails
+     */
+    synchronized void flush() throws IOException {
+        final Map<String, Stats> batch = new HashMap<>(0);
+        for (final Map.Entry<String, LongAdder> entry
+            : this.counters.entrySet()) {
+            final long bytes = entry.getValue().sumThenReset();
+            if (bytes != 0L) {
+                batch.put(entry.getKey(), new Stats.Simple(bytes));
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                this.origin.putAll(batch);
+            } catch (final IOException ex) {
+                for (final Map.Entry<String, Stats> entry : batch.entrySet()) {
+                    this.counters.get(entry.getKey())
+                        .add(entry.getValue().bytesTransferred());
+                }
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Loggable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Traffic of domains over the last week, in memory.
+ *
+ * <p>Every domain with traffic has a ring of hourly slots, which
+ * covers seven days. Bytes are added to the slot of the current hour,
+ * and a slot is cleared when its hour comes again a week later. The sum
+ * of the week is the sum of the slots that are not older than that,
+ * so it includes bytes of the last second, without any remote calls.
+ * A ring takes less than three kilobytes.
+ *
+ * <p>Traffic is counted since the start of the relay and only by this
+ * relay.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class TrafficWindow {
+
+    /**
+     * Number of hourly slots in a ring.
+     */
+    private static final int SLOTS = (int) TimeUnit.DAYS.toHours(7L);
+
+    /**
+     * Rings by domain.
+     */
+    private final transient ConcurrentMap<String, TrafficWindow.Ring> rings;
+
+    /**
+     * Public ctor.
+     */
+    TrafficWindow() {
+        this.rings = new ConcurrentHashMap<>(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "traffic of %d domain(s) over %d hours",
+            this.rings.size(), TrafficWindow.SLOTS
+        );
+    }
+
+    /**
+     * Add bytes transferred right now.
+     * @param domain The domain
+     * @param bytes Bytes transferred
+     */
+    void add(@NotNull final String domain, final long bytes) {
+        this.add(domain, bytes, System.currentTimeMillis());
+    }
+
+    /**
+     * Add bytes transferred at the given time.
+     * @param domain The domain
+     * @param bytes Bytes transferred
+     * @param time When, in milliseconds
+     */
+    void add(@NotNull final String domain, final long bytes,
+        final long time) {
+        this.rings.computeIfAbsent(domain, key -> new TrafficWindow.Ring())
+            .add(TrafficWindow.hour(time), bytes);
+    }
+
+    /**
+     * Bytes transferred during the last week.
+     * @param domain The domain
+     * @return Bytes
+     */
+    long week(@NotNull final String domain) {
+        return this.week(domain, System.currentTimeMillis());
+    }
+
+    /**
+     * Bytes transferred during the week before the given time.
+     * @param domain The domain
+     * @param time When, in milliseconds
+     * @return Bytes
+     */
+    long week(@NotNull final String domain, final long time) {
+        final TrafficWindow.Ring ring = this.rings.get(domain);
+        long bytes = 0L;
+        if (ring != null) {
+            bytes = ring.sum(TrafficWindow.hour(time));
+        }
+        return bytes;
+    }
+
+    private static long hour(final long time) {
+        return TimeUnit.MILLISECONDS.toHours(time);
+    }
+
+    /**
+     * Ring of hourly slots of one domain.
+     *
+     * <p>The class is thread-safe.
+     *
+     * @since 0.0.1
+     */
+    private static final class Ring {
+
+        /**
+         * Bytes in slots.
+         */
+        private final transient AtomicLongArray bytes;
+
+        /**
+         * Hours of slots.
+         */
+        private final transient AtomicLongArray hours;
+
+        /**
+         * Ctor.
+         */
+        Ring() {
+            this.bytes = new AtomicLongArray(TrafficWindow.SLOTS);
+            this.hours = new AtomicLongArray(TrafficWindow.SLOTS);
+        }
+
+        /**
+         * Add bytes to the slot of this hour.
+         * @param hour The hour
+         * @param amount Bytes transferred
+         */
+        void add(final long hour, final long amount) {
+            final int slot = (int) (hour % TrafficWindow.SLOTS);
+            if (this.hours.get(slot) != hour) {
+                synchronized (this) {
+                    if (this.hours.get(slot) != hour) {
+                        this.bytes.set(slot, 0L);
+                        this.hours.set(slot, hour);
+                    }
+                }
+            }
+            this.bytes.addAndGet(slot, amount);
+        }
+
+        /**
+         * Sum of slots of the week until this hour.
+         * @param hour The hour
+         * @return Bytes
+         */
+        long sum(final long hour) {
+            long sum = 0L;
+            for (int slot = 0; slot < TrafficWindow.SLOTS; ++slot) {
+                final long when = this.hours.get(slot);
+                if (when <= hour && when > hour - TrafficWindow.SLOTS) {
+                    sum += this.bytes.get(slot);
+                }
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.jcabi.aspects.Loggable;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Outcomes of password verifications, successful and failed.
+ *
+ * <p>Verifying a password against an apr1 hash takes a thousand rounds
+ * of MD5, and the browser sends the same credentials with every request.
+ * The outcome depends only on the hash from {@code .htpasswd} and the
+ * password, so it is remembered by an HMAC of both, with a random key
+ * generated on start. Neither passwords nor their plain digests are
+ * kept in memory. When the line of the user in {@code .htpasswd} changes,
+ * its hash changes too, and the old outcome is never used again.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class Verifications {
+
+    /**
+     * HMAC algorithm.
+     */
+    private static final String HMAC = "HmacSHA256";
+
+    /**
+     * Maximum number of outcomes.
+     */
+    private static final long MAX = 50_000L;
+
+    /**
+     * Lifetime of an outcome, in minutes.
+     */
+    private static final long LIFETIME = 60L;
+
+    /**
+     * Secret key of HMAC.
+     */
+    private final transient SecretKeySpec secret;
+
+    /**
+     * Outcomes by HMAC of hash and password.
+     */
+    private final transient Cache<String, Boolean> outcomes;
+
+    /**
+     * Public ctor.
+     */
+    Verifications() {
+        this(Verifications.MAX);
+    }
+
+    /**
+     * Ctor.
+     * @param max Maximum number of outcomes
+     */
+    Verifications(final long max) {
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.secret = new SecretKeySpec(key, Verifications.HMAC);
+        this.outcomes = CacheBuilder.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(Verifications.LIFETIME))
+            .maximumSize(max)
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public String toString() {
+        final CacheStats stats = this.outcomes.stats();
+        return String.format(
+            "%d verification(s), %d hit(s), %d miss(es)",
+            this.outcomes.size(), stats.hitCount(), stats.missCount()
+        );
+    }
+
+    /**
+     * Does the password match the hash?
+     * @param hash The hash
+     * @param password The password
+     * @param algo The algorithm to use, if the outcome is not known yet
+     * @return TRUE if they match
+     */
+    boolean matches(@NotNull final String hash, @NotNull final String password,
+        @NotNull final Htpasswd.Algorithm algo) {
+        final String key = this.key(hash, password);
+        Boolean matches = this.outcomes.getIfPresent(key);
+        if (matches == null) {
+            matches = algo.matches(hash, password);
+            this.outcomes.put(key, matches);
+        }
+        return matches;
+    }
+
+    private String key(final String hash, final String password) {
+        final Mac mac;
+        try {
+            mac = Mac.getInstance(Verifications.HMAC);
+            mac.init(this.secret);
+        } catch (final GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+        mac.update(hash.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(
+            mac.doFinal(password.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
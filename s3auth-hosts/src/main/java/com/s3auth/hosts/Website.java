@@ -0,0 +1,103 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.jcabi.aspects.Immutable;
+import java.util.Objects;
+import software.amazon.awssdk.services.s3.model.GetBucketWebsiteResponse;
+
+/**
+ * Website configuration of an S3 bucket, as much as we need of it.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Immutable
+final class Website {
+
+    /**
+     * No website configuration in the bucket.
+     */
+    static final Website EMPTY = new Website(null, null);
+
+    /**
+     * Suffix of the index document, or NULL.
+     */
+    private final transient String index;
+
+    /**
+     * Key of the error document, or NULL.
+     */
+    private final transient String error;
+
+    /**
+     * Public ctor.
+     * @param suffix Suffix of the index document, or NULL
+     * @param doc Key of the error document, or NULL
+     */
+    Website(final String suffix, final String doc) {
+        this.index = suffix;
+        this.error = doc;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("index=%s, error=%s", this.index, this.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.index, this.error);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        final boolean result;
+        if (obj instanceof Website) {
+            final Website other = (Website) obj;
+            result = Objects.equals(this.index, other.index)
+                && Objects.equals(this.error, other.error);
+        } else {
+            result = false;
+        }
+        return result;
+    }
+
+    /**
+     * Suffix of the index document.
+     * @return Suffix or NULL if not configured
+     */
+    String suffix() {
+        return this.index;
+    }
+
+    /**
+     * Key of the error document.
+     * @return Key or NULL if not configured
+     */
+    String errorDocument() {
+        return this.error;
+    }
+
+    /**
+     * Make it from the response of {@code GetBucketWebsite}.
+     * @param resp The response, maybe NULL
+     * @return Website
+     */
+    static Website of(final GetBucketWebsiteResponse resp) {
+        String suffix = null;
+        String doc = null;
+        if (resp != null) {
+            if (resp.indexDocument() != null) {
+                suffix = resp.indexDocument().suffix();
+            }
+            if (resp.errorDocument() != null) {
+                doc = resp.errorDocument().key();
+            }
+        }
+        return new Website(suffix, doc);
+    }
+}
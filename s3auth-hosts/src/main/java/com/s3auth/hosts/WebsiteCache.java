@@ -0,0 +1,120 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.log.VerboseThreads;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.validation.constraints.NotNull;
+import software.amazon.awssdk.services.s3.model.GetBucketWebsiteRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Cache of website configurations, by bucket.
+ *
+ * <p>A configuration is refreshed in background a minute after it was
+ * loaded, while requests keep using the old one. Buckets without website
+ * configuration are remembered too, so that they don't cost an extra
+ * request to S3 every time, and so are buckets whose configuration we
+ * are not allowed to read, since the credentials of many domains don't
+ * grant {@code s3:GetBucketWebsite}. Only so many buckets are kept, the least
+ * recently used ones are evicted first.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Loggable(Loggable.DEBUG)
+final class WebsiteCache {
+
+    /**
+     * Maximum number of buckets.
+     */
+    private static final long MAX = 10_000L;
+
+    /**
+     * Configurations by bucket.
+     */
+    private final transient LoadingCache<Bucket, Website> sites;
+
+    /**
+     * Public ctor.
+     */
+    WebsiteCache() {
+        this(
+            Executors.newSingleThreadExecutor(new VerboseThreads("website")),
+            1L, TimeUnit.MINUTES
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param exec Executor of background refreshes
+     * @param refresh How soon to refresh a configuration
+     * @param unit Time unit of the refresh period
+     */
+    WebsiteCache(final Executor exec, final long refresh,
+        final TimeUnit unit) {
+        this.sites = CacheBuilder.newBuilder()
+            .refreshAfterWrite(Duration.ofMillis(unit.toMillis(refresh)))
+            .expireAfterWrite(Duration.ofMillis(unit.toMillis(refresh) * 10L))
+            .maximumSize(WebsiteCache.MAX)
+            .build(
+                CacheLoader.asyncReloading(
+                    CacheLoader.from(WebsiteCache::load), exec
+                )
+            );
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d bucket(s)", this.sites.size());
+    }
+
+    /**
+     * Get website configuration of the bucket.
+     * @param bucket The bucket
+     * @return Configuration, maybe {@link Website#EMPTY}
+     * @throws S3Exception If S3 fails to return it
+     */
+    Website get(@NotNull final Bucket bucket) {
+        try {
+            return this.sites.getUnchecked(bucket);
+        } catch (final UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof S3Exception) {
+                throw (S3Exception) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private static Website load(final Bucket bucket) {
+        Website site;
+        try {
+            site = Website.of(
+                bucket.client().getBucketWebsite(
+                    GetBucketWebsiteRequest.builder()
+                        .bucket(bucket.bucket())
+                        .build()
+                )
+            );
+        } catch (final S3Exception ex) {
+            if (ex.statusCode() != HttpURLConnection.HTTP_NOT_FOUND
+                && ex.statusCode() != HttpURLConnection.HTTP_FORBIDDEN) {
+                throw ex;
+            }
+            site = Website.EMPTY;
+        }
+        return site;
+    }
+}
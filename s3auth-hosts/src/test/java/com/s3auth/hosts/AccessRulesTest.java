@@ -0,0 +1,185 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.AbstractMap;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Test case for {@link AccessRules}.
+ * @since 0.0.1
+ */
+final class AccessRulesTest {
+
+    /**
+     * AccessRules can match prefixes, exact paths and globs.
+     */
+    @Test
+    void matchesRules() {
+        final AccessRules paths = new AccessRules(
+            etag -> new AbstractMap.SimpleImmutableEntry<>(
+                "\"a\"",
+                String.join(
+                    "\n",
+                    "# public assets",
+                    "/robots.txt",
+                    "favicon.ico",
+                    "/assets/",
+                    "/images/*",
+                    "*.css",
+                    "/docs/*/index.html"
+                )
+            )
+        );
+        final String[] open = {
+            "/robots.txt",
+            "/favicon.ico",
+            "/assets/app.js",
+            "/images/logo.png",
+            "/theme/main.css",
+            "/docs/v1/index.html",
+        };
+        for (final String path : open) {
+            MatcherAssert.assertThat(path, paths.open(path), Matchers.is(true));
+        }
+        final String[] hidden = {
+            "/",
+            "/robots.txt.bak",
+            "/assets",
+            "/secret/robots.txt",
+            "/docs/v1/secret.html",
+            "/.htpasswd",
+        };
+        for (final String path : hidden) {
+            MatcherAssert.assertThat(path, paths.open(path), Matchers.is(false));
+        }
+    }
+
+    /**
+     * AccessRules can hide everything without the file.
+     */
+    @Test
+    void hidesEverythingWithoutFile() {
+        MatcherAssert.assertThat(
+            new AccessRules(
+                etag -> new AbstractMap.SimpleImmutableEntry<>(null, "")
+            ).open("/index.html"),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * AccessRules can allow and deny networks.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void permitsNetworks() throws Exception {
+        final AccessRules rules = new AccessRules(
+            etag -> new AbstractMap.SimpleImmutableEntry<>(
+                null, "/robots.txt\nallow 10.0.0.0/8\ndeny 10.1.0.0/16\n"
+            )
+        );
+        MatcherAssert.assertThat(
+            rules.permits(InetAddress.getByName("10.2.3.4")),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            rules.permits(InetAddress.getByName("10.1.3.4")),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            rules.permits(InetAddress.getByName("192.168.0.1")),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(rules.open("/robots.txt"), Matchers.is(true));
+    }
+
+    /**
+     * AccessRules can deny everybody if a network is not valid.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void deniesEverybodyOnBrokenNetwork() throws Exception {
+        MatcherAssert.assertThat(
+            new AccessRules(
+                etag -> new AbstractMap.SimpleImmutableEntry<>(
+                    null, "deny 10.0.0.0/99"
+                )
+            ).permits(InetAddress.getByName("192.168.0.1")),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * AccessRules can allow everybody, if S3 doesn't let it read the file.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void allowsEverybodyWhenFileIsForbidden() throws Exception {
+        final S3Client aws = Mockito.mock(S3Client.class);
+        Mockito.doThrow(
+            S3Exception.builder().statusCode(403).message("denied").build()
+        ).when(aws).getObject(Mockito.any(GetObjectRequest.class));
+        final AccessRules rules = new AccessRules(
+            new BucketMocker().init().withClient(aws).mock()
+        );
+        MatcherAssert.assertThat(
+            rules.permits(InetAddress.getByName("10.0.0.1")),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            rules.open("/robots.txt"),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * AccessRules can allow everybody, if the file was never loaded.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void allowsEverybodyWhenFileIsNotLoaded() throws Exception {
+        MatcherAssert.assertThat(
+            new AccessRules(
+                etag -> {
+                    throw new IOException("timeout");
+                }
+            ).permits(InetAddress.getByName("10.0.0.2")),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * AccessRules can reject resources by regex.
+     */
+    @Test
+    void rejectsResources() {
+        final AccessRules rules = new AccessRules(
+            etag -> new AbstractMap.SimpleImmutableEntry<>(
+                null, "/robots.txt\nreject /old/.*\nreject .*\\.php\n"
+            )
+        );
+        MatcherAssert.assertThat(
+            rules.rejects("/old/a.txt"), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            rules.rejects("/x/index.php"), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            rules.rejects("/robots.txt"), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            rules.open("/old/a.txt"), Matchers.is(false)
+        );
+    }
+}
@@ -4,12 +4,14 @@
  */
 package com.s3auth.hosts;
 
+import com.jcabi.dynamo.Region;
 import com.jcabi.dynamo.Table;
 import com.jcabi.dynamo.mock.H2Data;
 import com.jcabi.dynamo.mock.MkRegion;
 import com.jcabi.urn.URN;
 import com.jcabi.urn.URNMocker;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
@@ -18,7 +20,11 @@ import javax.validation.constraints.NotNull;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
 
 /**
  * Test case for {@link DefaultDynamo}.
@@ -56,6 +62,89 @@ final class DefaultDynamoTest {
         dynamo.close();
     }
 
+    /**
+     * DefaultDynamo can load domains of one user only.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void loadsDomainsOfOneUser() throws Exception {
+        final String table = "table";
+        final Dynamo dynamo = new DefaultDynamo(
+            this.mockRegion(table),
+            table
+        );
+        final URN owner = new URN("urn:test:lister");
+        dynamo.add(
+            owner,
+            new DomainMocker().init().withName("listed.example.com").mock()
+        );
+        MatcherAssert.assertThat(
+            dynamo.domains(owner),
+            Matchers.contains(
+                Matchers.hasToString(Matchers.startsWith("listed.example.com"))
+            )
+        );
+        dynamo.close();
+    }
+
+    /**
+     * DefaultDynamo can remove a domain only by its owner.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void removesDomainByOwnerAndName() throws Exception {
+        final String table = "table";
+        final Dynamo dynamo = new DefaultDynamo(
+            this.mockRegion(table),
+            table
+        );
+        final URN owner = new URN("urn:test:owner");
+        final Domain domain = new DomainMocker().init()
+            .withName("owned.example.com").mock();
+        dynamo.add(owner, domain);
+        MatcherAssert.assertThat(
+            dynamo.remove(new URN("urn:test:stranger"), domain),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(dynamo.remove(owner, domain), Matchers.is(true));
+        MatcherAssert.assertThat(
+            dynamo.load().containsKey(owner),
+            Matchers.is(false)
+        );
+        dynamo.close();
+    }
+
+    /**
+     * DefaultDynamo can scan all segments of the table, page by page.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void scansSegmentsInParallel() throws Exception {
+        final DynamoDbClient aws = Mockito.mock(DynamoDbClient.class);
+        Mockito.doAnswer(
+            inv -> {
+                final ScanRequest req = inv.getArgument(0);
+                final ScanResponse.Builder resp = ScanResponse.builder()
+                    .items(Collections.singletonList(this.item()));
+                if (req.segment() == 0 && !req.hasExclusiveStartKey()) {
+                    resp.lastEvaluatedKey(
+                        Collections.singletonMap(
+                            DefaultDynamo.USER,
+                            AttributeValue.builder().s("urn:test:1").build()
+                        )
+                    );
+                }
+                return resp.build();
+            }
+        ).when(aws).scan(Mockito.any(ScanRequest.class));
+        final Region region = Mockito.mock(Region.class);
+        Mockito.doReturn(aws).when(region).aws();
+        final Dynamo dynamo = new DefaultDynamo(region, "table", 4);
+        MatcherAssert.assertThat(dynamo.load().size(), Matchers.is(5));
+        Mockito.verify(aws, Mockito.times(5))
+            .scan(Mockito.any(ScanRequest.class));
+    }
+
     /**
      * DefaultDynamo can instantiate from default constructor.
      */
@@ -74,8 +163,7 @@ final class DefaultDynamoTest {
         final MkRegion region = new MkRegion(
             new H2Data().with(
                 table,
-                new String[] {DefaultDynamo.USER},
-                DefaultDynamo.NAME,
+                new String[] {DefaultDynamo.USER, DefaultDynamo.NAME},
                 DefaultDynamo.KEY,
                 DefaultDynamo.SECRET,
                 DefaultDynamo.BUCKET,
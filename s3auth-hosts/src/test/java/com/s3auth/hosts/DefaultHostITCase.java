@@ -4,7 +4,6 @@
  */
 package com.s3auth.hosts;
 
-import com.s3auth.hosts.Host.CloudWatch;
 import java.io.IOException;
 import java.net.URI;
 import org.hamcrest.MatcherAssert;
@@ -12,8 +11,6 @@ import org.hamcrest.Matchers;
 import org.junit.Assume;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
-import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
 
 /**
  * Integration test case for {@link DefaultHost}.
@@ -41,7 +38,7 @@ final class DefaultHostITCase {
                     .withRegion("us-east-1")
                     .mock()
             ),
-            this.cloudWatch()
+            new TrafficWindow()
         );
         final Resource resource = host.fetch(
             URI.create("/index.html"), new Range.Simple(3, 500), Version.LATEST
@@ -69,15 +66,11 @@ final class DefaultHostITCase {
                     .withSecret("invalid-data")
                     .mock()
             ),
-            this.cloudWatch()
+            new TrafficWindow()
         );
         Assertions.assertThrows(
             IOException.class,
             () -> host.fetch(URI.create("foo.html"), Range.ENTIRE, Version.LATEST)
         );
     }
-
-    private CloudWatch cloudWatch() {
-        return () -> Mockito.mock(CloudWatchClient.class);
-    }
 }
@@ -5,7 +5,6 @@
 package com.s3auth.hosts;
 
 import com.rexsl.test.XhtmlMatchers;
-import com.s3auth.hosts.Host.CloudWatch;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
@@ -22,16 +21,14 @@ import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.http.AbortableInputStream;
-import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
-import software.amazon.awssdk.services.cloudwatch.model.Datapoint;
-import software.amazon.awssdk.services.cloudwatch.model.GetMetricStatisticsRequest;
-import software.amazon.awssdk.services.cloudwatch.model.GetMetricStatisticsResponse;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.ErrorDocument;
 import software.amazon.awssdk.services.s3.model.GetBucketWebsiteRequest;
 import software.amazon.awssdk.services.s3.model.GetBucketWebsiteResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.IndexDocument;
 import software.amazon.awssdk.services.s3.model.ListObjectVersionsRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectVersionsResponse;
@@ -82,7 +79,7 @@ final class DefaultHostTest {
             Mockito.any(GetBucketWebsiteRequest.class)
         );
         final Host host = new DefaultHost(
-            new BucketMocker().init().withClient(aws).mock(), this.cloudWatch()
+            new BucketMocker().init().withClient(aws).mock(), new TrafficWindow()
         );
         final ConcurrentMap<String, String> paths =
             new ConcurrentHashMap<String, String>() {
@@ -107,6 +104,62 @@ final class DefaultHostTest {
         }
     }
 
+    /**
+     * DefaultHost can describe a resource without fetching its content.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void describesResourceWithoutFetchingContent() throws Exception {
+        final S3Client aws = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            HeadObjectResponse.builder()
+                .contentLength(42L)
+                .contentType("text/plain")
+                .build()
+        ).when(aws).headObject(Mockito.any(HeadObjectRequest.class));
+        final Resource res = new DefaultHost(
+            new BucketMocker().init().withClient(aws).mock(), new TrafficWindow()
+        ).head(URI.create("/a/b.txt"), Range.ENTIRE, Version.LATEST);
+        MatcherAssert.assertThat(
+            res.headers(),
+            Matchers.hasItems("Content-Length: 42", "Content-Type: text/plain")
+        );
+        MatcherAssert.assertThat(
+            ResourceMocker.toString(res),
+            Matchers.is("")
+        );
+        Mockito.verify(aws, Mockito.never())
+            .getObject(Mockito.any(GetObjectRequest.class));
+    }
+
+    /**
+     * DefaultHost can remember keys missing in S3.
+     */
+    @Test
+    void doesNotAskForMissingKeysTwice() throws Exception {
+        final S3Client aws = Mockito.mock(S3Client.class);
+        Mockito.doThrow(
+            NoSuchKeyException.builder().message("no such key").build()
+        ).when(aws).getObject(Mockito.any(GetObjectRequest.class));
+        Mockito.doReturn(ListObjectsResponse.builder().isTruncated(false).build())
+            .when(aws).listObjects(Mockito.any(ListObjectsRequest.class));
+        final Host host = new DefaultHost(
+            new BucketMocker().init().withBucket("missing-keys")
+                .withClient(aws).mock(),
+            new TrafficWindow()
+        );
+        for (int idx = 0; idx < 3; ++idx) {
+            host.fetch(
+                URI.create("/wp-admin/setup.php"), Range.ENTIRE, Version.LATEST
+            ).close();
+        }
+        Mockito.verify(aws, Mockito.times(1)).getObject(
+            Mockito.argThat(
+                (GetObjectRequest req) -> "wp-admin/setup.php".equals(req.key())
+            )
+        );
+    }
+
     /**
      * DefaultHost can show some stats in {@code #toString()}.
      */
@@ -126,7 +179,7 @@ final class DefaultHostTest {
     void rejectsAuthorizationWhenInvalidCredentials() throws Exception {
         MatcherAssert.assertThat(
             new DefaultHost(
-                new BucketMocker().init().mock(), this.cloudWatch()
+                new BucketMocker().init().mock(), new TrafficWindow()
             ).authorized("1", "2"),
             Matchers.is(false)
         );
@@ -155,7 +208,7 @@ final class DefaultHostTest {
                 IOException.class,
                 () -> new DefaultHost(
                     new BucketMocker().init().withBucket(bucket).withClient(aws).mock(),
-                    this.cloudWatch()
+                    new TrafficWindow()
                 ).fetch(URI.create("/.htpasswd"), Range.ENTIRE, Version.LATEST)
             ).getMessage(),
             Matchers.allOf(
@@ -194,7 +247,7 @@ final class DefaultHostTest {
             ResourceMocker.toString(
                 new DefaultHost(
                     new BucketMocker().init().withClient(client).mock(),
-                    this.cloudWatch()
+                    new TrafficWindow()
                 ).fetch(new URI("foo/bar/index.html"), Range.ENTIRE, Version.LATEST)
             ),
             XhtmlMatchers.hasXPath(
@@ -231,7 +284,7 @@ final class DefaultHostTest {
             ResourceMocker.toString(
                 new DefaultHost(
                     new BucketMocker().init().withClient(client).mock(),
-                    this.cloudWatch()
+                    new TrafficWindow()
                 ).fetch(new URI(key), Range.ENTIRE, Version.LIST)
             ),
             XhtmlMatchers.hasXPaths(
@@ -266,7 +319,7 @@ final class DefaultHostTest {
             ResourceMocker.toString(
                 new DefaultHost(
                     new BucketMocker().init().withClient(client).mock(),
-                    this.cloudWatch()
+                    new TrafficWindow()
                 ).fetch(new URI(key), Range.ENTIRE, Version.LIST)
             ),
             XhtmlMatchers.hasXPaths(
@@ -276,32 +329,17 @@ final class DefaultHostTest {
     }
 
     /**
-     * DefaultHost can retrieve Cloudwatch stats and cache the results.
+     * DefaultHost can show traffic of the last week from its window.
      */
     @Test
-    void retrievesAndCachesCloudWatchStats() {
-        final long sum = 10;
-        final CloudWatch cloudwatch = this.cloudWatch();
-        Mockito.doReturn(
-            GetMetricStatisticsResponse.builder()
-                .datapoints(Datapoint.builder().sum(Double.valueOf(sum)).build())
-                .build()
-        ).when(cloudwatch.get())
-            .getMetricStatistics(Mockito.any(GetMetricStatisticsRequest.class));
+    void showsTrafficOfLastWeek() {
+        final Bucket bucket = new BucketMocker().init().mock();
+        final TrafficWindow window = new TrafficWindow();
+        window.add(bucket.bucket(), 10L);
+        window.add(bucket.bucket(), 5L);
         MatcherAssert.assertThat(
-            new DefaultHost(
-                new BucketMocker().init().mock(),
-                cloudwatch
-            ).stats().bytesTransferred(),
-            Matchers.allOf(
-                Matchers.is(sum),
-                Matchers.is(
-                    new DefaultHost(
-                        new BucketMocker().init().mock(),
-                        cloudwatch
-                    ).stats().bytesTransferred()
-                )
-            )
+            new DefaultHost(bucket, window).stats().bytesTransferred(),
+            Matchers.is(15L)
         );
     }
 
@@ -345,7 +383,7 @@ final class DefaultHostTest {
         MatcherAssert.assertThat(
             ResourceMocker.toString(
                 new DefaultHost(
-                    new BucketMocker().init().withClient(aws).mock(), this.cloudWatch()
+                    new BucketMocker().init().withClient(aws).mock(), new TrafficWindow()
                 ).fetch(
                     URI.create(suffix), Range.ENTIRE, Version.LATEST
                 )
@@ -366,20 +404,8 @@ final class DefaultHostTest {
         Assertions.assertThrows(
             IOException.class,
             () -> new DefaultHost(
-                new BucketMocker().init().withClient(aws).mock(), this.cloudWatch()
+                new BucketMocker().init().withClient(aws).mock(), new TrafficWindow()
             ).fetch(URI.create("failed.html"), Range.ENTIRE, Version.LATEST)
         );
     }
-
-    private CloudWatch cloudWatch() {
-        return new Host.CloudWatch() {
-            private final transient CloudWatchClient cwatch =
-                Mockito.mock(CloudWatchClient.class);
-
-            @Override
-            public CloudWatchClient get() {
-                return this.cwatch;
-            }
-        };
-    }
 }
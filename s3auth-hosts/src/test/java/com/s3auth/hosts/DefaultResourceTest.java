@@ -6,6 +6,7 @@ package com.s3auth.hosts;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.Date;
@@ -48,7 +49,8 @@ final class DefaultResourceTest {
             DefaultResource.fetch(
                 client,
                 new Locator("a", "", Range.ENTIRE, Version.LATEST),
-                Mockito.mock(DomainStatsData.class)
+                Mockito.mock(DomainStatsData.class),
+                new MetadataCache()
             ).headers(),
             Matchers.hasItem("Content-Length: 1")
         );
@@ -75,7 +77,8 @@ final class DefaultResourceTest {
                 DefaultResource.fetch(
                     client,
                     new Locator("b", "", Range.ENTIRE, Version.LATEST),
-                    Mockito.mock(DomainStatsData.class)
+                    Mockito.mock(DomainStatsData.class),
+                    new MetadataCache()
                 )
             ),
             Matchers.equalTo("")
@@ -109,7 +112,8 @@ final class DefaultResourceTest {
                 DefaultResource.fetch(
                     client,
                     new Locator("c", "", Range.ENTIRE, Version.LATEST),
-                    Mockito.mock(DomainStatsData.class)
+                    Mockito.mock(DomainStatsData.class),
+                    new MetadataCache()
                 )
             ),
             Matchers.equalTo(data)
@@ -151,7 +155,8 @@ final class DefaultResourceTest {
                 DefaultResource.fetch(
                     client,
                     new Locator("d", "", Range.ENTIRE, Version.LATEST),
-                    Mockito.mock(DomainStatsData.class)
+                    Mockito.mock(DomainStatsData.class),
+                    new MetadataCache()
                 )
             )
         );
@@ -178,7 +183,8 @@ final class DefaultResourceTest {
             DefaultResource.fetch(
                 client,
                 new Locator("x", "", Range.ENTIRE, Version.LATEST),
-                Mockito.mock(DomainStatsData.class)
+                Mockito.mock(DomainStatsData.class),
+                new MetadataCache()
             ).lastModified(),
             Matchers.is(Date.from(date))
         );
@@ -205,7 +211,8 @@ final class DefaultResourceTest {
             DefaultResource.fetch(
                 client,
                 new Locator("e", "", Range.ENTIRE, Version.LATEST),
-                Mockito.mock(DomainStatsData.class)
+                Mockito.mock(DomainStatsData.class),
+                new MetadataCache()
             ).headers(),
             Matchers.hasItem("Cache-Control: max-age: 600, public")
         );
@@ -232,7 +239,8 @@ final class DefaultResourceTest {
             DefaultResource.fetch(
                 client,
                 new Locator("f", "", Range.ENTIRE, Version.LATEST),
-                Mockito.mock(DomainStatsData.class)
+                Mockito.mock(DomainStatsData.class),
+                new MetadataCache()
             ).headers(),
             Matchers.hasItem("Cache-Control: must-revalidate")
         );
@@ -267,7 +275,8 @@ final class DefaultResourceTest {
                 DefaultResource.fetch(
                     client,
                     new Locator(bucket, "", Range.ENTIRE, Version.LATEST),
-                    stats
+                    stats,
+                    new MetadataCache()
                 )
             ),
             Matchers.equalTo(data)
@@ -303,7 +312,8 @@ final class DefaultResourceTest {
             new Locator(
                 "h", "", Range.ENTIRE, new Version.Simple(version)
             ),
-            Mockito.mock(DomainStatsData.class)
+            Mockito.mock(DomainStatsData.class),
+            new MetadataCache()
         );
     }
 
@@ -330,24 +340,26 @@ final class DefaultResourceTest {
         DefaultResource.fetch(
             client,
             new Locator("i", "", Range.ENTIRE, Version.LATEST),
-            Mockito.mock(DomainStatsData.class)
+            Mockito.mock(DomainStatsData.class),
+            new MetadataCache()
         ).close();
         Mockito.verify(stream, Mockito.times(1)).close();
     }
 
     /**
-     * DefaultResource closes the underlying object when obtaining the full
-     * object size from the Content-Range header.
+     * DefaultResource takes the full object size from the Content-Range
+     * header of the ranged response, with just one request to S3.
      * @throws Exception If there is some problem inside
      */
     @Test
-    void closesUnderlyingObjectWhenSizeIsInvoked() throws Exception {
+    void readsSizeFromContentRangeOfRangedResponse() throws Exception {
         final S3Client client = Mockito.mock(S3Client.class);
         Mockito.doAnswer(
             (Answer<ResponseInputStream<GetObjectResponse>>) invocation -> {
                 return new ResponseInputStream<>(
                     GetObjectResponse.builder()
-                        .contentLength(10L)
+                        .contentLength(2L)
+                        .contentRange("bytes 0-1/10")
                         .build(),
                     AbortableInputStream.create(new ByteArrayInputStream(new byte[0]))
                 );
@@ -359,12 +371,54 @@ final class DefaultResourceTest {
                 new Locator(
                     "j", "", new Range.Simple(0, 1), Version.LATEST
                 ),
-                Mockito.mock(DomainStatsData.class)
+                Mockito.mock(DomainStatsData.class),
+                new MetadataCache()
             ).headers(),
             Matchers.hasItem(
                 Matchers.containsString("Content-Range: bytes 0-1/10")
             )
         );
+        Mockito.verify(client, Mockito.times(1))
+            .getObject(Mockito.any(GetObjectRequest.class));
+    }
+
+    /**
+     * DefaultResource takes the full object size from the cache, when
+     * the ranged response doesn't report it.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void readsSizeFromMetadataCache() throws Exception {
+        final S3Client client = Mockito.mock(S3Client.class);
+        Mockito.doAnswer(
+            (Answer<ResponseInputStream<GetObjectResponse>>) invocation -> {
+                return new ResponseInputStream<>(
+                    GetObjectResponse.builder()
+                        .contentLength(3L)
+                        .eTag("abc")
+                        .build(),
+                    AbortableInputStream.create(new ByteArrayInputStream(new byte[0]))
+                );
+            }
+        ).when(client).getObject(Mockito.any(GetObjectRequest.class));
+        final MetadataCache cache = new MetadataCache();
+        cache.remember(
+            new Locator("k", "x", Range.ENTIRE, Version.LATEST),
+            new Metadata(20L, "abc", null, null, null, 0L)
+        );
+        MatcherAssert.assertThat(
+            DefaultResource.fetch(
+                client,
+                new Locator(
+                    "k", "x", new Range.Simple(2, 4), Version.LATEST
+                ),
+                Mockito.mock(DomainStatsData.class),
+                cache
+            ).headers(),
+            Matchers.hasItem("Content-Range: bytes 2-4/20")
+        );
+        Mockito.verify(client, Mockito.times(1))
+            .getObject(Mockito.any(GetObjectRequest.class));
     }
 
     /**
@@ -388,9 +442,88 @@ final class DefaultResourceTest {
             DefaultResource.fetch(
                 client,
                 new Locator("abcdef", "", Range.ENTIRE, Version.LATEST),
-                Mockito.mock(DomainStatsData.class)
+                Mockito.mock(DomainStatsData.class),
+                new MetadataCache()
             ).headers(),
             Matchers.hasItem("Content-Encoding: gzip")
         );
     }
+
+    /**
+     * DefaultResource can ask for the first part only, when the size of
+     * the object is not known yet, and present it as the whole object.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void asksForFirstPartOfObjectWithUnknownSize() throws Exception {
+        final S3Client client = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            new ResponseInputStream<>(
+                GetObjectResponse.builder()
+                    .contentLength(5L)
+                    .contentRange("bytes 0-4/5")
+                    .eTag("e")
+                    .build(),
+                AbortableInputStream.create(
+                    new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8))
+                )
+            )
+        ).when(client).getObject(Mockito.any(GetObjectRequest.class));
+        final Resource res = DefaultResource.fetch(
+            client,
+            new Locator("p", "a.txt", Range.ENTIRE, Version.LATEST),
+            Mockito.mock(DomainStatsData.class),
+            new MetadataCache(),
+            new ReadAhead(),
+            ""
+        );
+        MatcherAssert.assertThat(
+            res.headers(),
+            Matchers.allOf(
+                Matchers.hasItem("Content-Length: 5"),
+                Matchers.not(
+                    Matchers.hasItem(Matchers.startsWith("Content-Range"))
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            ResourceMocker.toString(res), Matchers.equalTo("hello")
+        );
+        Mockito.verify(client).getObject(
+            Mockito.argThat(
+                (GetObjectRequest req) -> "bytes=0-8388607".equals(req.range())
+            )
+        );
+    }
+
+    /**
+     * DefaultResource can fetch an object and remember its range, to
+     * read the next one ahead.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void fetchesObjectWithReadAhead() throws Exception {
+        final S3Client client = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength(5L).build(),
+                AbortableInputStream.create(
+                    new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8))
+                )
+            )
+        ).when(client).getObject(Mockito.any(GetObjectRequest.class));
+        MatcherAssert.assertThat(
+            ResourceMocker.toString(
+                DefaultResource.fetch(
+                    client,
+                    new Locator("f", "a.txt", Range.ENTIRE, Version.LATEST),
+                    Mockito.mock(DomainStatsData.class),
+                    new MetadataCache(),
+                    new ReadAhead(),
+                    ""
+                )
+            ),
+            Matchers.equalTo("hello")
+        );
+    }
 }
@@ -0,0 +1,210 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.collect.ImmutableMap;
+import com.jcabi.urn.URN;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link DomainIndex}.
+ * @since 0.0.1
+ */
+final class DomainIndexTest {
+
+    /**
+     * DomainIndex can find domains by name.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void findsDomainsByName() throws Exception {
+        final Dynamo dynamo = new DynamoMocker().mock();
+        dynamo.add(
+            new URN("urn:test:1"),
+            new DomainMocker().init().withName("a.example.com").mock()
+        );
+        try (DomainIndex index = new DomainIndex(dynamo)) {
+            MatcherAssert.assertThat(
+                index.find("a.example.com").name(),
+                Matchers.is("a.example.com")
+            );
+            MatcherAssert.assertThat(
+                index.find("b.example.com"),
+                Matchers.nullValue()
+            );
+        }
+    }
+
+    /**
+     * DomainIndex can see new domains only after refresh.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void swapsIndexOnRefresh() throws Exception {
+        final Dynamo dynamo = new DynamoMocker().mock();
+        try (DomainIndex index = new DomainIndex(dynamo)) {
+            MatcherAssert.assertThat(index.find("c.example.com"), Matchers.nullValue());
+            dynamo.add(
+                new URN("urn:test:2"),
+                new DomainMocker().init().withName("c.example.com").mock()
+            );
+            MatcherAssert.assertThat(index.find("c.example.com"), Matchers.nullValue());
+            index.refresh();
+            MatcherAssert.assertThat(
+                index.find("c.example.com"),
+                Matchers.notNullValue()
+            );
+            MatcherAssert.assertThat(index, Matchers.hasToString("1 domain(s)"));
+        }
+    }
+
+    /**
+     * DomainIndex can list domains in order, sorting them once for
+     * every version of the index.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void listsDomainsInOrder() throws Exception {
+        final Dynamo dynamo = new DynamoMocker().mock();
+        dynamo.add(
+            new URN("urn:test:4"),
+            new DomainMocker().init().withName("z.example.com").mock()
+        );
+        dynamo.add(
+            new URN("urn:test:5"),
+            new DomainMocker().init().withName("m.example.com").mock()
+        );
+        try (DomainIndex index = new DomainIndex(dynamo)) {
+            MatcherAssert.assertThat(
+                index.all().firstKey(), Matchers.is("m.example.com")
+            );
+            MatcherAssert.assertThat(
+                index.all(), Matchers.sameInstance(index.all())
+            );
+            index.apply(
+                Collections.singleton(
+                    new Changes.Change(
+                        "a.example.com",
+                        new DomainMocker().init().withName("a.example.com")
+                            .mock()
+                    )
+                )
+            );
+            MatcherAssert.assertThat(
+                index.all().keySet(),
+                Matchers.contains(
+                    "a.example.com", "m.example.com", "z.example.com"
+                )
+            );
+        }
+    }
+
+    /**
+     * DomainIndex can apply changes without a full scan and keep them
+     * after the next full scan.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void appliesChangesWithoutFullScan() throws Exception {
+        final Dynamo dynamo = new DynamoMocker().mock();
+        dynamo.add(
+            new URN("urn:test:3"),
+            new DomainMocker().init().withName("d.example.com").mock()
+        );
+        final Queue<Changes.Change> queue = new ConcurrentLinkedQueue<>();
+        final Changes changes = () -> {
+            final Changes.Change change = queue.poll();
+            final Iterable<Changes.Change> list;
+            if (change == null) {
+                list = Collections.emptyList();
+            } else {
+                list = Collections.singletonList(change);
+            }
+            return list;
+        };
+        try (DomainIndex index = new DomainIndex(dynamo, changes, Snapshot.NONE)) {
+            MatcherAssert.assertThat(index.find("e.example.com"), Matchers.nullValue());
+            queue.add(
+                new Changes.Change(
+                    "e.example.com",
+                    new DomainMocker().init().withName("e.example.com").mock()
+                )
+            );
+            queue.add(new Changes.Change("d.example.com", null));
+            index.update();
+            index.update();
+            MatcherAssert.assertThat(
+                index.find("e.example.com"),
+                Matchers.notNullValue()
+            );
+            MatcherAssert.assertThat(index.find("d.example.com"), Matchers.nullValue());
+            index.refresh();
+            MatcherAssert.assertThat(index, Matchers.hasToString("1 domain(s)"));
+            MatcherAssert.assertThat(index.find("d.example.com"), Matchers.nullValue());
+        }
+    }
+
+    /**
+     * DomainIndex can serve lookups from a snapshot when DynamoDB fails.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void servesFromSnapshotWithoutDynamo() throws Exception {
+        final Dynamo dynamo = Mockito.mock(Dynamo.class);
+        Mockito.doThrow(new IOException("throttled")).when(dynamo).load();
+        final Domain domain = new DomainMocker().init()
+            .withName("f.example.com").mock();
+        final Snapshot snapshot = new Snapshot() {
+            @Override
+            public Map<String, Domain> load() {
+                return ImmutableMap.of(domain.name(), domain);
+            }
+
+            @Override
+            public void save(final Map<String, Domain> domains) {
+                throw new UnsupportedOperationException("#save()");
+            }
+        };
+        try (DomainIndex index = new DomainIndex(
+            dynamo, Changes.NONE, snapshot
+        )) {
+            MatcherAssert.assertThat(
+                index.find("f.example.com"),
+                Matchers.sameInstance(domain)
+            );
+        }
+    }
+
+    /**
+     * DomainIndex can rebuild itself when changes may have been lost.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void rebuildsWhenChangesAreLost() throws Exception {
+        final Dynamo dynamo = new DynamoMocker().mock();
+        try (DomainIndex index = new DomainIndex(
+            dynamo, () -> null, Snapshot.NONE
+        )) {
+            MatcherAssert.assertThat(index.find("h.example.com"), Matchers.nullValue());
+            dynamo.add(
+                new URN("urn:test:5"),
+                new DomainMocker().init().withName("h.example.com").mock()
+            );
+            index.update();
+            MatcherAssert.assertThat(
+                index.find("h.example.com"),
+                Matchers.notNullValue()
+            );
+        }
+    }
+}
@@ -4,12 +4,16 @@
  */
 package com.s3auth.hosts;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.hamcrest.CustomMatcher;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 /**
  * Test case for {@link DynamoHosts}.
@@ -275,4 +279,134 @@ final class DynamoHostsTest {
         );
         hosts.close();
     }
+
+    /**
+     * DynamoHosts can list and remove domains of a user, without loading
+     * all of them.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void removesDomainWithoutLoadingAll() throws Exception {
+        final Dynamo dynamo = Mockito.mock(Dynamo.class);
+        Mockito.doReturn(new Domains()).when(dynamo)
+            .domains(Mockito.any());
+        Mockito.doReturn(true).when(dynamo)
+            .remove(Mockito.any(), Mockito.any());
+        final Hosts hosts = new DynamoHosts(dynamo);
+        final User user = new UserMocker().init()
+            .withIdentity("urn:facebook:5549")
+            .mock();
+        final Set<Domain> domains = hosts.domains(user);
+        MatcherAssert.assertThat(
+            domains.remove(new DomainMocker().init().mock()),
+            Matchers.is(true)
+        );
+        Mockito.verify(dynamo, Mockito.never()).load();
+        hosts.close();
+    }
+
+    /**
+     * DynamoHosts can reuse the host of a domain until the domain changes.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void reusesHostUntilDomainChanges() throws Exception {
+        final Hosts hosts = new DynamoHosts(new DynamoMocker().mock());
+        final User user = new UserMocker().init()
+            .withIdentity("urn:facebook:5550")
+            .mock();
+        hosts.domains(user).add(
+            new DomainMocker().init().withName("reused.com").mock()
+        );
+        final Host host = hosts.find("reused.com");
+        MatcherAssert.assertThat(
+            hosts.find("reused.com"),
+            Matchers.sameInstance(host)
+        );
+        hosts.domains(user).remove(
+            new DomainMocker().init().withName("reused.com").mock()
+        );
+        hosts.domains(user).add(
+            new DomainMocker().init().withName("reused.com")
+                .withBucket("another").mock()
+        );
+        MatcherAssert.assertThat(
+            hosts.find("reused.com"),
+            Matchers.not(Matchers.sameInstance(host))
+        );
+        hosts.close();
+    }
+
+    /**
+     * DynamoHosts can page over domains of a user and of the super user.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void pagesOverDomains() throws Exception {
+        final Hosts hosts = new DynamoHosts(new DynamoMocker().mock());
+        final User user = new UserMocker().init()
+            .withIdentity("urn:facebook:5551")
+            .mock();
+        for (final String name : new String[] {"d.com", "a.com", "c.com", "b.com"}) {
+            hosts.domains(user).add(
+                new DomainMocker().init().withName(name).mock()
+            );
+        }
+        final User admin = new UserMocker().init()
+            .withIdentity("urn:github:526301")
+            .mock();
+        for (final User who : new User[] {user, admin}) {
+            MatcherAssert.assertThat(
+                DynamoHostsTest.names(hosts.domains(who, "", true, 2)),
+                Matchers.contains("a.com", "b.com")
+            );
+            MatcherAssert.assertThat(
+                DynamoHostsTest.names(hosts.domains(who, "b.com", true, 2)),
+                Matchers.contains("c.com", "d.com")
+            );
+            MatcherAssert.assertThat(
+                DynamoHostsTest.names(hosts.domains(who, "d.com", false, 2)),
+                Matchers.contains("b.com", "c.com")
+            );
+            MatcherAssert.assertThat(
+                DynamoHostsTest.names(hosts.domains(who, "", false, 3)),
+                Matchers.contains("b.com", "c.com", "d.com")
+            );
+            MatcherAssert.assertThat(
+                hosts.domains(who, "z.com", true, 2),
+                Matchers.empty()
+            );
+        }
+        hosts.close();
+    }
+
+    /**
+     * DynamoHosts can load one page of domains of a user, without
+     * loading all of them.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void loadsOnePageOfDomains() throws Exception {
+        final Dynamo dynamo = Mockito.mock(Dynamo.class);
+        Mockito.doReturn(new Domains()).when(dynamo).domains(
+            Mockito.any(), Mockito.anyString(), Mockito.anyBoolean(),
+            Mockito.anyInt()
+        );
+        final Hosts hosts = new DynamoHosts(dynamo);
+        final User user = new UserMocker().init()
+            .withIdentity("urn:facebook:5552")
+            .mock();
+        hosts.domains(user, "a.com", true, 50);
+        Mockito.verify(dynamo).domains(
+            user.identity(), "a.com", true, 50
+        );
+        Mockito.verify(dynamo, Mockito.never()).domains(user.identity());
+        Mockito.verify(dynamo, Mockito.never()).load();
+        hosts.close();
+    }
+
+    private static List<String> names(final List<Domain> domains) {
+        return domains.stream().map(Domain::name)
+            .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.collect.ImmutableMap;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link FileSnapshot}.
+ * @since 0.0.1
+ */
+final class FileSnapshotTest {
+
+    /**
+     * FileSnapshot can save domains and load them back.
+     * @param dir Temporary directory
+     */
+    @Test
+    void savesAndLoadsDomains(@TempDir final Path dir) {
+        final Snapshot snapshot = new FileSnapshot(
+            dir.resolve("domains.bin").toString()
+        );
+        final Domain domain = new DefaultDomain(
+            "a.example.com", "key", "secret", "bucket", "us-east-1",
+            "localhost:514"
+        );
+        snapshot.save(ImmutableMap.of(domain.name(), domain));
+        final Domain loaded = snapshot.load().get("a.example.com");
+        MatcherAssert.assertThat(loaded.secret(), Matchers.is("secret"));
+        MatcherAssert.assertThat(loaded.bucket(), Matchers.is("bucket"));
+        MatcherAssert.assertThat(loaded.syslog(), Matchers.is("localhost:514"));
+    }
+
+    /**
+     * FileSnapshot can ignore a missing or broken file.
+     * @param dir Temporary directory
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void ignoresBrokenFile(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("broken.bin");
+        final Snapshot snapshot = new FileSnapshot(file.toString());
+        MatcherAssert.assertThat(snapshot.load().isEmpty(), Matchers.is(true));
+        Files.write(file, "garbage".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(snapshot.load().isEmpty(), Matchers.is(true));
+    }
+
+    /**
+     * FileSnapshot can refuse a file that others may read.
+     * @param dir Temporary directory
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void refusesFileOpenToOthers(@TempDir final Path dir) throws Exception {
+        Assumptions.assumeTrue(
+            FileSystems.getDefault().supportedFileAttributeViews()
+                .contains("posix")
+        );
+        final Path file = dir.resolve("open.bin");
+        final Snapshot snapshot = new FileSnapshot(file.toString());
+        final Domain domain = new DefaultDomain(
+            "b.example.com", "key", "secret", "bucket", "us-east-1", ""
+        );
+        snapshot.save(ImmutableMap.of(domain.name(), domain));
+        MatcherAssert.assertThat(
+            PosixFilePermissions.toString(Files.getPosixFilePermissions(file)),
+            Matchers.is("rw-------")
+        );
+        MatcherAssert.assertThat(snapshot.load().size(), Matchers.is(1));
+        Files.setPosixFilePermissions(
+            file, PosixFilePermissions.fromString("rw-r--r--")
+        );
+        MatcherAssert.assertThat(snapshot.load().isEmpty(), Matchers.is(true));
+    }
+}
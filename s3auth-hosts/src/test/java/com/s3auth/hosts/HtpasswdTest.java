@@ -4,15 +4,18 @@
  */
 package com.s3auth.hosts;
 
-import com.s3auth.hosts.Host.CloudWatch;
+import java.io.ByteArrayInputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
 /**
@@ -38,7 +41,7 @@ final class HtpasswdTest {
             new Htpasswd(
                 new DefaultHost(
                     new BucketMocker().init().withClient(aws).mock(),
-                    this.cloudWatch()
+                    new TrafficWindow()
                 )
             ),
             Matchers.hasToString(Matchers.notNullValue())
@@ -158,13 +161,52 @@ final class HtpasswdTest {
             new Htpasswd(
                 new DefaultHost(
                     new BucketMocker().init().mock(),
-                    () -> Mockito.mock(CloudWatchClient.class)
+                    new TrafficWindow()
                 )
             ).authorized("jacky", "pwd"),
             Matchers.is(false)
         );
     }
 
+    /**
+     * Htpasswd can load the file from the bucket only once.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void loadsFileFromBucketOnce() throws Exception {
+        final S3Client aws = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            new ResponseInputStream<>(
+                GetObjectResponse.builder().eTag("\"v1\"").build(),
+                AbortableInputStream.create(
+                    new ByteArrayInputStream(
+                        "ann:{SHA}6qagQQ8seo0bw69C/mNKhYbSf34=".getBytes(
+                            StandardCharsets.UTF_8
+                        )
+                    )
+                )
+            )
+        ).when(aws).getObject(Mockito.any(GetObjectRequest.class));
+        final Bucket bucket = new BucketMocker().init().withClient(aws).mock();
+        final Htpasswd htpasswd = new Htpasswd(
+            new DefaultHost(bucket, new TrafficWindow()), bucket
+        );
+        MatcherAssert.assertThat(
+            htpasswd.authorized("ann", "victory"),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            htpasswd.authorized("ann", "defeat"),
+            Matchers.is(false)
+        );
+        Mockito.verify(aws).getObject(
+            Mockito.argThat(
+                (GetObjectRequest req) -> ".htpasswd".equals(req.key())
+                    && req.ifNoneMatch() == null
+            )
+        );
+    }
+
     private Host host(final String htpasswd) throws Exception {
         final Host host = Mockito.spy(new HostMocker().init().mock());
         Mockito.doReturn(new ResourceMocker().init().withContent(htpasswd).mock())
@@ -172,8 +214,4 @@ final class HtpasswdTest {
             .fetch(URI.create("/.htpasswd"), Range.ENTIRE, Version.LATEST);
         return host;
     }
-
-    private CloudWatch cloudWatch() {
-        return () -> Mockito.mock(CloudWatchClient.class);
-    }
 }
@@ -0,0 +1,113 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link MetadataCache}.
+ * @since 0.0.1
+ */
+final class MetadataCacheTest {
+
+    /**
+     * MetadataCache can remember and forget metadata.
+     */
+    @Test
+    void remembersAndForgetsMetadata() {
+        final MetadataCache cache = new MetadataCache();
+        final Locator loc = new Locator("a", "b", Range.ENTIRE, Version.LATEST);
+        final Metadata meta = new Metadata(5L, "x", "text/plain", null, null, 0L);
+        cache.remember(loc, meta);
+        MatcherAssert.assertThat(
+            cache.find(
+                new Locator("a", "b", new Range.Simple(1, 2), Version.LATEST)
+            ).get(),
+            Matchers.equalTo(meta)
+        );
+        MatcherAssert.assertThat(
+            cache.find(
+                new Locator("a", "b", Range.ENTIRE, new Version.Simple("v1"))
+            ).isPresent(),
+            Matchers.is(false)
+        );
+        cache.forget(loc);
+        MatcherAssert.assertThat(
+            cache.find(loc).isPresent(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * MetadataCache keeps the known size while ETag is the same, and
+     * drops it when ETag changes.
+     */
+    @Test
+    void invalidatesSizeByEtag() {
+        final MetadataCache cache = new MetadataCache();
+        final Locator loc = new Locator("c", "d", Range.ENTIRE, Version.LATEST);
+        cache.remember(loc, new Metadata(7L, "one", null, null, null, 0L));
+        MatcherAssert.assertThat(
+            cache.remember(
+                loc, new Metadata(-1L, "one", null, null, null, 0L)
+            ).size(),
+            Matchers.is(7L)
+        );
+        MatcherAssert.assertThat(
+            cache.remember(
+                loc, new Metadata(-1L, "two", null, null, null, 0L)
+            ).size(),
+            Matchers.is(-1L)
+        );
+        MatcherAssert.assertThat(
+            cache.find(loc).isPresent(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * MetadataCache can expire entries.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void expiresEntries() throws Exception {
+        final MetadataCache cache =
+            new MetadataCache(new MissingKeys(), 1L, TimeUnit.MILLISECONDS);
+        final Locator loc = new Locator("e", "f", Range.ENTIRE, Version.LATEST);
+        cache.remember(loc, new Metadata(1L, "y", null, null, null, 0L));
+        TimeUnit.MILLISECONDS.sleep(10L);
+        MatcherAssert.assertThat(
+            cache.find(loc).isPresent(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * MetadataCache can keep metadata of different owners apart.
+     */
+    @Test
+    void keepsOwnersApart() {
+        final MetadataCache cache = new MetadataCache();
+        cache.remember(
+            new Locator("one", "g", "h", Range.ENTIRE, Version.LATEST),
+            new Metadata(3L, "z", null, null, null, 0L)
+        );
+        MatcherAssert.assertThat(
+            cache.find(
+                new Locator("two", "g", "h", Range.ENTIRE, Version.LATEST)
+            ).isPresent(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            cache.find(
+                new Locator("one", "g", "h", Range.ENTIRE, Version.LATEST)
+            ).isPresent(),
+            Matchers.is(true)
+        );
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+/**
+ * Test case for {@link MissingKeys}.
+ * @since 0.0.1
+ */
+final class MissingKeysTest {
+
+    /**
+     * MissingKeys can remember a missing key and count hits.
+     */
+    @Test
+    void remembersMissingKey() {
+        final MissingKeys keys = new MissingKeys();
+        final Locator loc = new Locator("a", "wp-admin", Range.ENTIRE, Version.LATEST);
+        keys.check(loc);
+        keys.add(loc);
+        Assertions.assertThrows(NoSuchKeyException.class, () -> keys.check(loc));
+        MatcherAssert.assertThat(keys.hits(), Matchers.is(1L));
+        MatcherAssert.assertThat(
+            keys,
+            Matchers.hasToString(Matchers.startsWith("1 missing key(s)"))
+        );
+    }
+
+    /**
+     * MissingKeys can forget a key when metadata of it is remembered.
+     */
+    @Test
+    void forgetsKeySeenByMetadataCache() {
+        final MissingKeys keys = new MissingKeys();
+        final Locator loc = new Locator("b", "new.html", Range.ENTIRE, Version.LATEST);
+        keys.add(loc);
+        new MetadataCache(keys).remember(
+            loc, new Metadata(1L, "x", null, null, null, 0L)
+        );
+        keys.check(loc);
+    }
+
+    /**
+     * MissingKeys can ignore specific versions.
+     */
+    @Test
+    void ignoresSpecificVersions() {
+        final MissingKeys keys = new MissingKeys();
+        final Locator loc = new Locator(
+            "c", "old.html", Range.ENTIRE, new Version.Simple("v")
+        );
+        keys.add(loc);
+        keys.check(loc);
+    }
+
+    /**
+     * MissingKeys can expire entries.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void expiresEntries() throws Exception {
+        final MissingKeys keys = new MissingKeys(1L, TimeUnit.MILLISECONDS);
+        final Locator loc = new Locator("d", "x", Range.ENTIRE, Version.LATEST);
+        keys.add(loc);
+        TimeUnit.MILLISECONDS.sleep(10L);
+        keys.check(loc);
+    }
+}
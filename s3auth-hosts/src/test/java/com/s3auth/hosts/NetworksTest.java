@@ -0,0 +1,107 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Networks}.
+ * @since 0.0.1
+ */
+final class NetworksTest {
+
+    /**
+     * Networks can decide by the most specific block.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void decidesByMostSpecificBlock() throws Exception {
+        final Networks networks = new Networks(
+            Arrays.asList(
+                "deny 192.0.2.0/24",
+                "allow 192.0.2.128/25",
+                "deny 192.0.2.200",
+                "deny 2001:db8::/32",
+                "allow 2001:db8:1::/48"
+            )
+        );
+        final String[] allowed = {
+            "192.0.2.129",
+            "2001:db8:1::5",
+        };
+        for (final String address : allowed) {
+            MatcherAssert.assertThat(
+                address,
+                networks.permits(InetAddress.getByName(address)),
+                Matchers.is(true)
+            );
+        }
+        final String[] denied = {
+            "192.0.2.1",
+            "192.0.2.200",
+            "2001:db8:2::5",
+            "198.51.100.1",
+        };
+        for (final String address : denied) {
+            MatcherAssert.assertThat(
+                address,
+                networks.permits(InetAddress.getByName(address)),
+                Matchers.is(false)
+            );
+        }
+    }
+
+    /**
+     * Networks can allow only the networks listed, if any is allowed.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void allowsOnlyListedNetworks() throws Exception {
+        final Networks networks = new Networks(
+            Arrays.asList("allow 10.0.0.0/8", "allow fd00::/8")
+        );
+        MatcherAssert.assertThat(
+            networks.permits(InetAddress.getByName("10.20.30.40")),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            networks.permits(InetAddress.getByName("fd12::1")),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            networks.permits(InetAddress.getByName("11.0.0.1")),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            Networks.ANY.permits(InetAddress.getByName("11.0.0.1")),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * Networks can reject invalid rules.
+     */
+    @Test
+    void rejectsInvalidRules() {
+        final String[] rules = {
+            "permit 10.0.0.0/8",
+            "deny example.com",
+            "deny 10.0.0.0/33",
+            "allow",
+        };
+        for (final String rule : rules) {
+            Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> new Networks(Arrays.asList(rule)),
+                rule
+            );
+        }
+    }
+}
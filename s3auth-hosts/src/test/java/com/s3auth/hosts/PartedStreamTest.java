@@ -0,0 +1,166 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.io.IOUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Test case for {@link PartedStream}.
+ * @since 0.0.1
+ */
+final class PartedStreamTest {
+
+    /**
+     * PartedStream can read the range in parts, in the right order.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void readsAllPartsInOrder() throws Exception {
+        final byte[] data = new byte[250];
+        for (int idx = 0; idx < data.length; ++idx) {
+            data[idx] = (byte) idx;
+        }
+        final S3Client client = PartedStreamTest.client(data);
+        final ExecutorService threads = Executors.newCachedThreadPool();
+        try (InputStream stream = new PartedStream(
+            client, threads, new Semaphore(64),
+            GetObjectRequest.builder().bucket("b").key("k").build(),
+            GetObjectResponse.builder()
+                .contentLength(200L)
+                .contentRange("bytes 30-229/250")
+                .eTag("abc")
+                .build(),
+            new ByteArrayInputStream(data, 30, 200),
+            16L, 3
+        )) {
+            MatcherAssert.assertThat(
+                IOUtils.toByteArray(stream),
+                Matchers.equalTo(Arrays.copyOfRange(data, 30, 230))
+            );
+        } finally {
+            threads.shutdown();
+        }
+        Mockito.verify(client, Mockito.times(12)).getObjectAsBytes(
+            Mockito.argThat(
+                (GetObjectRequest req) -> "abc".equals(req.ifMatch())
+            )
+        );
+    }
+
+    /**
+     * PartedStream can read the rest of the range in one request, without
+     * waiting, when there is no memory for parts.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void streamsRestWithoutMemory() throws Exception {
+        final byte[] data = new byte[100];
+        for (int idx = 0; idx < data.length; ++idx) {
+            data[idx] = (byte) idx;
+        }
+        final S3Client client = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(
+                    new ByteArrayInputStream(data, 16, 84)
+                )
+            )
+        ).when(client).getObject(Mockito.any(GetObjectRequest.class));
+        final ExecutorService threads = Executors.newCachedThreadPool();
+        try (InputStream stream = new PartedStream(
+            client, threads, new Semaphore(0),
+            GetObjectRequest.builder().bucket("e").key("f").build(),
+            GetObjectResponse.builder()
+                .contentLength(100L)
+                .eTag("tag")
+                .build(),
+            new ByteArrayInputStream(data, 0, 16),
+            16L, 3
+        )) {
+            MatcherAssert.assertThat(
+                IOUtils.toByteArray(stream), Matchers.equalTo(data)
+            );
+        } finally {
+            threads.shutdown();
+        }
+        Mockito.verify(client).getObject(
+            Mockito.argThat(
+                (GetObjectRequest req) -> "bytes=16-99".equals(req.range())
+                    && "tag".equals(req.ifMatch())
+            )
+        );
+        Mockito.verify(client, Mockito.never())
+            .getObjectAsBytes(Mockito.any(GetObjectRequest.class));
+    }
+
+    /**
+     * PartedStream can report a part that failed.
+     */
+    @Test
+    void reportsFailedPart() {
+        final S3Client client = Mockito.mock(S3Client.class);
+        Mockito.doThrow(
+            S3Exception.builder().statusCode(412).message("changed").build()
+        ).when(client).getObjectAsBytes(Mockito.any(GetObjectRequest.class));
+        Assertions.assertThrows(
+            IOException.class,
+            () -> IOUtils.toByteArray(
+                new PartedStream(
+                    client, Executors.newSingleThreadExecutor(),
+                    new Semaphore(64),
+                    GetObjectRequest.builder().bucket("c").key("d").build(),
+                    GetObjectResponse.builder()
+                        .contentLength(20L).eTag("x").build(),
+                    new ByteArrayInputStream(new byte[10]),
+                    10L, 2
+                )
+            )
+        );
+    }
+
+    private static S3Client client(final byte[] data) {
+        final S3Client client = Mockito.mock(S3Client.class);
+        final Pattern range = Pattern.compile("bytes=(\\d+)-(\\d+)");
+        Mockito.doAnswer(
+            inv -> {
+                final Matcher matcher = range.matcher(
+                    inv.<GetObjectRequest>getArgument(0).range()
+                );
+                MatcherAssert.assertThat(matcher.matches(), Matchers.is(true));
+                return ResponseBytes.fromByteArray(
+                    GetObjectResponse.builder().build(),
+                    Arrays.copyOfRange(
+                        data,
+                        Integer.parseInt(matcher.group(1)),
+                        Integer.parseInt(matcher.group(2)) + 1
+                    )
+                );
+            }
+        ).when(client).getObjectAsBytes(Mockito.any(GetObjectRequest.class));
+        return client;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link PrivateDir}.
+ * @since 0.0.1
+ */
+final class PrivateDirTest {
+
+    /**
+     * Skip unless POSIX permissions are supported.
+     */
+    @BeforeEach
+    void posixOnly() {
+        Assumptions.assumeTrue(
+            FileSystems.getDefault().supportedFileAttributeViews()
+                .contains("posix")
+        );
+    }
+
+    /**
+     * PrivateDir can create a directory open only to its owner.
+     * @param tmp Temporary directory
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void createsPrivateDirectory(@TempDir final Path tmp) throws Exception {
+        final Path dir = new PrivateDir(tmp.resolve("a/b").toString())
+            .create();
+        MatcherAssert.assertThat(
+            PosixFilePermissions.toString(Files.getPosixFilePermissions(dir)),
+            Matchers.is("rwx------")
+        );
+        MatcherAssert.assertThat(
+            PosixFilePermissions.toString(
+                Files.getPosixFilePermissions(
+                    new PrivateDir(dir.toString()).temp("x-", ".tmp")
+                )
+            ),
+            Matchers.is("rw-------")
+        );
+    }
+
+    /**
+     * PrivateDir can refuse a directory open to others.
+     * @param tmp Temporary directory
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void refusesOpenDirectory(@TempDir final Path tmp) throws Exception {
+        final Path dir = Files.createDirectory(tmp.resolve("open"));
+        Files.setPosixFilePermissions(
+            dir, PosixFilePermissions.fromString("rwxr-xr-x")
+        );
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new PrivateDir(dir.toString()).create()
+        );
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.IOUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+/**
+ * Test case for {@link ReadAhead}.
+ * @since 0.0.1
+ */
+final class ReadAheadTest {
+
+    /**
+     * ReadAhead can read the next range of a sequentially read object.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void readsNextRangeAhead() throws Exception {
+        final S3Client client = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            ResponseBytes.fromByteArray(
+                GetObjectResponse.builder()
+                    .contentLength(10L)
+                    .contentRange("bytes 20-29/100")
+                    .build(),
+                "0123456789".getBytes(StandardCharsets.UTF_8)
+            )
+        ).when(client).getObjectAsBytes(Mockito.any(GetObjectRequest.class));
+        final ReadAhead ahead = new ReadAhead();
+        ReadAheadTest.seen(ahead, client, 0L, 9L);
+        ReadAheadTest.seen(ahead, client, 10L, 19L);
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                ahead.take(ReadAheadTest.locator(20L, 29L), ""),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("0123456789")
+        );
+        Mockito.verify(client).getObjectAsBytes(
+            Mockito.argThat(
+                (GetObjectRequest req) -> "bytes=20-29".equals(req.range())
+                    && "\"tag\"".equals(req.ifMatch())
+            )
+        );
+        MatcherAssert.assertThat(
+            ahead.take(ReadAheadTest.locator(20L, 29L), ""),
+            Matchers.nullValue()
+        );
+    }
+
+    /**
+     * ReadAhead can ignore ranges requested out of order.
+     */
+    @Test
+    void ignoresRandomRanges() {
+        final S3Client client = Mockito.mock(S3Client.class);
+        final ReadAhead ahead = new ReadAhead();
+        ReadAheadTest.seen(ahead, client, 0L, 9L);
+        ReadAheadTest.seen(ahead, client, 50L, 59L);
+        ReadAheadTest.seen(ahead, client, 90L, 99L);
+        Mockito.verifyNoInteractions(client);
+        MatcherAssert.assertThat(
+            ahead.take(ReadAheadTest.locator(60L, 69L), ""),
+            Matchers.nullValue()
+        );
+    }
+
+    /**
+     * ReadAhead can keep ranges of the same object apart, when the
+     * owners are different.
+     */
+    @Test
+    void keepsRangesOfOwnersApart() {
+        final S3Client client = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            ResponseBytes.fromByteArray(
+                GetObjectResponse.builder().contentLength(10L).build(),
+                new byte[10]
+            )
+        ).when(client).getObjectAsBytes(Mockito.any(GetObjectRequest.class));
+        final ReadAhead ahead = new ReadAhead();
+        ReadAheadTest.seen(ahead, client, "alice", 0L, 9L);
+        ReadAheadTest.seen(ahead, client, "alice", 10L, 19L);
+        MatcherAssert.assertThat(
+            ahead.take(ReadAheadTest.locator("bob", 20L, 29L), ""),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            ahead.take(ReadAheadTest.locator("alice", 20L, 29L), ""),
+            Matchers.notNullValue()
+        );
+    }
+
+    /**
+     * ReadAhead can keep ranges of the same object apart, when the
+     * clients are different.
+     */
+    @Test
+    void keepsRangesOfClientsApart() {
+        final S3Client client = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            ResponseBytes.fromByteArray(
+                GetObjectResponse.builder().contentLength(10L).build(),
+                new byte[10]
+            )
+        ).when(client).getObjectAsBytes(Mockito.any(GetObjectRequest.class));
+        final ReadAhead ahead = new ReadAhead();
+        ReadAheadTest.seen(ahead, client, "", "10.0.0.1", 0L, 9L);
+        ReadAheadTest.seen(ahead, client, "", "10.0.0.2", 10L, 19L);
+        MatcherAssert.assertThat(
+            ahead.take(ReadAheadTest.locator(20L, 29L), "10.0.0.2"),
+            Matchers.nullValue()
+        );
+        ReadAheadTest.seen(ahead, client, "", "10.0.0.1", 10L, 19L);
+        MatcherAssert.assertThat(
+            ahead.take(ReadAheadTest.locator(20L, 29L), "10.0.0.2"),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            ahead.take(ReadAheadTest.locator(20L, 29L), "10.0.0.1"),
+            Matchers.notNullValue()
+        );
+    }
+
+    private static void seen(final ReadAhead ahead, final S3Client client,
+        final long first, final long last) {
+        ReadAheadTest.seen(ahead, client, "", first, last);
+    }
+
+    private static void seen(final ReadAhead ahead, final S3Client client,
+        final String owner, final long first, final long last) {
+        ReadAheadTest.seen(ahead, client, owner, "", first, last);
+    }
+
+    private static void seen(final ReadAhead ahead, final S3Client client,
+        final String owner, final String viewer, final long first,
+        final long last) {
+        ahead.seen(
+            client,
+            GetObjectRequest.builder().bucket("b").key("movie.mp4").build(),
+            ReadAheadTest.locator(owner, first, last), viewer,
+            GetObjectResponse.builder()
+                .contentLength(last - first + 1L)
+                .contentRange(String.format("bytes %d-%d/100", first, last))
+                .eTag("\"tag\"")
+                .build()
+        );
+    }
+
+    private static Locator locator(final long first, final long last) {
+        return ReadAheadTest.locator("", first, last);
+    }
+
+    private static Locator locator(final String owner, final long first,
+        final long last) {
+        return new Locator(
+            owner, "b", "movie.mp4", new Range.Simple(first, last),
+            Version.LATEST
+        );
+    }
+}
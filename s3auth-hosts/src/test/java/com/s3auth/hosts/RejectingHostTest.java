@@ -5,6 +5,7 @@
 package com.s3auth.hosts;
 
 import java.net.URI;
+import java.util.AbstractMap;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -26,10 +27,102 @@ final class RejectingHostTest {
             ResourceMocker.toString(
                 new RejectingHost(
                     new HostMocker().init().withContent(uri, "test me").mock(),
+                    RejectingHostTest.rules(""),
                     "/test/.*"
                 ).fetch(uri, Range.ENTIRE, Version.LATEST)
             ),
             Matchers.equalTo("your resource it temporary disabled, sorry")
         );
     }
+
+    /**
+     * RejectingHost can check all patterns at once.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void checksAllPatterns() throws Exception {
+        final Host host = new RejectingHost(
+            new HostMocker().init().mock(),
+            RejectingHostTest.rules(""),
+            "/a/.*", ".*\\.php", "/b|c/.*"
+        );
+        MatcherAssert.assertThat(
+            ResourceMocker.toString(
+                host.fetch(new URI("/x/index.php"), Range.ENTIRE, Version.LATEST)
+            ),
+            Matchers.equalTo("your resource it temporary disabled, sorry")
+        );
+        MatcherAssert.assertThat(
+            ResourceMocker.toString(
+                host.fetch(new URI("/b"), Range.ENTIRE, Version.LATEST)
+            ),
+            Matchers.equalTo("your resource it temporary disabled, sorry")
+        );
+        MatcherAssert.assertThat(
+            ResourceMocker.toString(
+                host.fetch(new URI("/x/b"), Range.ENTIRE, Version.LATEST)
+            ),
+            Matchers.not(
+                Matchers.equalTo("your resource it temporary disabled, sorry")
+            )
+        );
+    }
+
+    /**
+     * RejectingHost can reject nothing without patterns.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void rejectsNothingWithoutPatterns() throws Exception {
+        final URI uri = new URI("/a.txt");
+        MatcherAssert.assertThat(
+            ResourceMocker.toString(
+                new RejectingHost(
+                    new HostMocker().init().withContent(uri, "hello").mock(),
+                    RejectingHostTest.rules("")
+                ).fetch(uri, Range.ENTIRE, Version.LATEST)
+            ),
+            Matchers.equalTo("hello")
+        );
+    }
+
+    /**
+     * RejectingHost can reject by patterns of the domain.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void rejectsByPatternsOfDomain() throws Exception {
+        final URI uri = new URI("/old/a.zip");
+        final Host host = new RejectingHost(
+            new HostMocker().init().withContent(uri, "zip").mock(),
+            RejectingHostTest.rules("reject /old/.*\\.zip\nreject [broken"),
+            "/test/.*"
+        );
+        MatcherAssert.assertThat(
+            ResourceMocker.toString(
+                host.fetch(uri, Range.ENTIRE, Version.LATEST)
+            ),
+            Matchers.equalTo("your resource it temporary disabled, sorry")
+        );
+        MatcherAssert.assertThat(
+            ResourceMocker.toString(
+                host.head(new URI("/test/b.txt"), Range.ENTIRE, Version.LATEST)
+            ),
+            Matchers.equalTo("your resource it temporary disabled, sorry")
+        );
+        MatcherAssert.assertThat(
+            ResourceMocker.toString(
+                host.fetch(new URI("/new/a.zip"), Range.ENTIRE, Version.LATEST)
+            ),
+            Matchers.not(
+                Matchers.equalTo("your resource it temporary disabled, sorry")
+            )
+        );
+    }
+
+    private static AccessRules rules(final String content) {
+        return new AccessRules(
+            etag -> new AbstractMap.SimpleImmutableEntry<>(null, content)
+        );
+    }
 }
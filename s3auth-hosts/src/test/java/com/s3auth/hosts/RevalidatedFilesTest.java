@@ -0,0 +1,83 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link RevalidatedFiles}.
+ * @since 0.0.1
+ */
+final class RevalidatedFilesTest {
+
+    /**
+     * RevalidatedFiles can revalidate a file with its ETag and keep it,
+     * when it is not modified.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void revalidatesWithEtag() throws Exception {
+        final Htpasswd.Source source = Mockito.mock(Htpasswd.Source.class);
+        Mockito.doReturn(new AbstractMap.SimpleImmutableEntry<>("\"a\"", "hi"))
+            .when(source).load(null);
+        final RevalidatedFiles<String> files = new RevalidatedFiles<>(
+            Function.identity(), "", 0L, TimeUnit.MILLISECONDS
+        );
+        MatcherAssert.assertThat(
+            files.get("x", source), Matchers.equalTo("hi")
+        );
+        TimeUnit.MILLISECONDS.sleep(10L);
+        MatcherAssert.assertThat(
+            files.get("x", source), Matchers.equalTo("hi")
+        );
+        Mockito.verify(source).load("\"a\"");
+    }
+
+    /**
+     * RevalidatedFiles can keep the file loaded before, when it fails
+     * to load it again.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void keepsFileWhenReloadFails() throws Exception {
+        final Htpasswd.Source source = Mockito.mock(Htpasswd.Source.class);
+        Mockito.doReturn(new AbstractMap.SimpleImmutableEntry<>(null, "old"))
+            .doThrow(new IOException("timeout"))
+            .when(source).load(Mockito.any());
+        final RevalidatedFiles<String> files = new RevalidatedFiles<>(
+            Function.identity(), "none", 0L, TimeUnit.MILLISECONDS
+        );
+        files.get("y", source);
+        TimeUnit.MILLISECONDS.sleep(10L);
+        MatcherAssert.assertThat(
+            files.get("y", source), Matchers.equalTo("old")
+        );
+    }
+
+    /**
+     * RevalidatedFiles can use the fallback, when the file was never
+     * loaded.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void usesFallbackWhenNeverLoaded() throws Exception {
+        final Htpasswd.Source source = Mockito.mock(Htpasswd.Source.class);
+        Mockito.doThrow(new IOException("denied"))
+            .when(source).load(Mockito.any());
+        MatcherAssert.assertThat(
+            new RevalidatedFiles<>(
+                Function.identity(), "none", 1L, TimeUnit.MINUTES
+            ).get("z", source),
+            Matchers.equalTo("none")
+        );
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * Test case for {@link S3Clients}.
+ * @since 0.0.1
+ */
+final class S3ClientsTest {
+
+    /**
+     * S3Clients can reuse a client for the same credentials.
+     */
+    @Test
+    void reusesClientForSameCredentials() {
+        final S3Clients clients = new S3Clients(
+            Mockito.mock(SdkHttpClient.class), 10L, 1L, TimeUnit.MINUTES
+        );
+        final S3Client client = clients.get(
+            Region.US_EAST_1, "AAAAAAAAAAAAAAAAAAAA", "secret"
+        );
+        MatcherAssert.assertThat(
+            clients.get(Region.US_EAST_1, "AAAAAAAAAAAAAAAAAAAA", "secret"),
+            Matchers.sameInstance(client)
+        );
+        MatcherAssert.assertThat(
+            clients.get(Region.EU_WEST_1, "AAAAAAAAAAAAAAAAAAAA", "secret"),
+            Matchers.not(Matchers.sameInstance(client))
+        );
+        MatcherAssert.assertThat(clients, Matchers.hasToString("2 S3 client(s)"));
+    }
+
+    /**
+     * S3Clients can keep no more clients than allowed.
+     */
+    @Test
+    void evictsLeastRecentlyUsedClients() {
+        final SdkHttpClient http = Mockito.mock(SdkHttpClient.class);
+        final S3Clients clients = new S3Clients(
+            http, 1L, 1L, TimeUnit.MINUTES
+        );
+        clients.get(Region.US_EAST_1, "AAAAAAAAAAAAAAAAAAAA", "first");
+        clients.get(Region.US_EAST_1, "AAAAAAAAAAAAAAAAAAAA", "second");
+        MatcherAssert.assertThat(clients, Matchers.hasToString("1 S3 client(s)"));
+        Mockito.verify(http, Mockito.never()).close();
+    }
+
+    /**
+     * S3Clients can close evicted clients once they are idle.
+     */
+    @Test
+    void closesEvictedClientsWhenIdle() {
+        final S3Clients clients = new S3Clients(
+            Mockito.mock(SdkHttpClient.class), 1L, 1L, TimeUnit.MINUTES
+        );
+        clients.get(Region.US_EAST_1, "AAAAAAAAAAAAAAAAAAAA", "third");
+        clients.get(Region.US_EAST_1, "AAAAAAAAAAAAAAAAAAAA", "fourth");
+        MatcherAssert.assertThat(
+            clients.close(TimeUnit.HOURS.toMillis(1L)), Matchers.is(1)
+        );
+        MatcherAssert.assertThat(clients.close(0L), Matchers.is(0));
+    }
+}
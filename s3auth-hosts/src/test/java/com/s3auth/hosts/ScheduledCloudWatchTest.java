@@ -4,14 +4,26 @@
  */
 package com.s3auth.hosts;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cloudwatch.model.CloudWatchException;
 import software.amazon.awssdk.services.cloudwatch.model.Dimension;
 import software.amazon.awssdk.services.cloudwatch.model.MetricDatum;
 import software.amazon.awssdk.services.cloudwatch.model.PutMetricDataRequest;
+import software.amazon.awssdk.services.cloudwatch.model.PutMetricDataResponse;
 import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
+import software.amazon.awssdk.services.cloudwatch.model.StatisticSet;
 
 /**
  * Test case for {@link ScheduledCloudWatch}.
@@ -38,18 +50,192 @@ final class ScheduledCloudWatchTest {
         Mockito.verify(client).putMetricData(
             PutMetricDataRequest.builder()
                 .namespace("S3Auth")
-                .metricData(ScheduledCloudWatchTest.datum(bytes, bucket))
+                .metricData(
+                    ScheduledCloudWatchTest.datum(
+                        new Stats.Simple(bytes), bucket
+                    )
+                )
                 .build()
         );
+        Mockito.verify(data).acknowledge();
         cloudwatch.close();
     }
 
-    private static MetricDatum datum(final long bytes, final String bucket) {
+    /**
+     * ScheduledCloudWatch can post stats of many buckets in batches.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void postsStatsInBatches() throws Exception {
+        final Map<String, Stats> stats = new HashMap<>(0);
+        for (int idx = 0; idx < 2500; ++idx) {
+            stats.put(String.format("bucket-%d", idx), new Stats.Simple(1L));
+        }
+        final DomainStatsData data = Mockito.mock(DomainStatsData.class);
+        Mockito.doReturn(stats).when(data).all();
+        final ScheduledCloudWatchTest.FakeCloudWatch fake =
+            new ScheduledCloudWatchTest.FakeCloudWatch(0);
+        new ScheduledCloudWatch(data, fake).run();
+        MatcherAssert.assertThat(
+            fake.datums("BytesTransferred").stream()
+                .map(MetricDatum::dimensions)
+                .distinct()
+                .count(),
+            Matchers.is(2500L)
+        );
+        MatcherAssert.assertThat(
+            fake.requests.stream()
+                .mapToInt(req -> req.metricData().size())
+                .max().getAsInt(),
+            Matchers.is(1000)
+        );
+        MatcherAssert.assertThat(
+            fake.datums("FlushFailures").get(0).value(),
+            Matchers.is(0.0)
+        );
+        MatcherAssert.assertThat(
+            fake.datums("FlushDuration"),
+            Matchers.hasSize(1)
+        );
+    }
+
+    /**
+     * ScheduledCloudWatch can count batches that failed.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void countsFailedBatches() throws Exception {
+        final DomainStatsData data = Mockito.mock(DomainStatsData.class);
+        Mockito.doReturn(
+            Collections.singletonMap("broken", new Stats.Simple(1L))
+        ).when(data).all();
+        final ScheduledCloudWatchTest.FakeCloudWatch fake =
+            new ScheduledCloudWatchTest.FakeCloudWatch(Integer.MAX_VALUE);
+        new ScheduledCloudWatch(data, fake, 0L).run();
+        MatcherAssert.assertThat(
+            fake.datums("FlushFailures").get(0).value(),
+            Matchers.is(1.0)
+        );
+        Mockito.verify(data, Mockito.never()).acknowledge();
+    }
+
+    /**
+     * ScheduledCloudWatch can post a batch again, when it fails.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void retriesFailedBatches() throws Exception {
+        final DomainStatsData data = Mockito.mock(DomainStatsData.class);
+        Mockito.doReturn(
+            Collections.singletonMap("flaky", new Stats.Simple(1L))
+        ).when(data).all();
+        final ScheduledCloudWatchTest.FakeCloudWatch fake =
+            new ScheduledCloudWatchTest.FakeCloudWatch(2);
+        new ScheduledCloudWatch(data, fake, 0L).run();
+        MatcherAssert.assertThat(
+            fake.datums("BytesTransferred"),
+            Matchers.hasSize(1)
+        );
+        MatcherAssert.assertThat(
+            fake.datums("FlushFailures").get(0).value(),
+            Matchers.is(0.0)
+        );
+        Mockito.verify(data).acknowledge();
+    }
+
+    /**
+     * ScheduledCloudWatch can post all samples of a bucket as one
+     * statistic set.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void postsStatisticSets() throws Exception {
+        final Stats stats = new Stats.Simple(30L, 3L, 5L, 15L);
+        final DomainStatsData data = Mockito.mock(DomainStatsData.class);
+        Mockito.doReturn(Collections.singletonMap("sampled", stats))
+            .when(data).all();
+        final ScheduledCloudWatchTest.FakeCloudWatch fake =
+            new ScheduledCloudWatchTest.FakeCloudWatch(0);
+        new ScheduledCloudWatch(data, fake).run();
+        MatcherAssert.assertThat(
+            fake.datums("BytesTransferred"),
+            Matchers.contains(ScheduledCloudWatchTest.datum(stats, "sampled"))
+        );
+    }
+
+    private static MetricDatum datum(final Stats stats, final String bucket) {
         return MetricDatum.builder()
             .metricName("BytesTransferred")
             .dimensions(Dimension.builder().name("Bucket").value(bucket).build())
             .unit(StandardUnit.BYTES)
-            .value((double) bytes)
+            .statisticValues(
+                StatisticSet.builder()
+                    .sampleCount((double) stats.samples())
+                    .sum((double) stats.bytesTransferred())
+                    .minimum((double) stats.minimum())
+                    .maximum((double) stats.maximum())
+                    .build()
+            )
             .build();
     }
+
+    /**
+     * Local stand-in for CloudWatch, which keeps all requests and fails
+     * requests with bytes transferred, if asked to.
+     * @since 0.0.1
+     */
+    private static final class FakeCloudWatch implements CloudWatchClient {
+
+        /**
+         * Requests received.
+         */
+        private final transient Collection<PutMetricDataRequest> requests;
+
+        /**
+         * How many requests with bytes transferred to fail.
+         */
+        private final transient AtomicInteger failures;
+
+        /**
+         * Ctor.
+         * @param fail How many requests with bytes transferred to fail
+         */
+        FakeCloudWatch(final int fail) {
+            this.requests = new ConcurrentLinkedQueue<>();
+            this.failures = new AtomicInteger(fail);
+        }
+
+        @Override
+        public String serviceName() {
+            return "fake";
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+
+        @Override
+        public PutMetricDataResponse putMetricData(
+            final PutMetricDataRequest req) {
+            if (!req.metricData().get(0).dimensions().isEmpty()
+                && this.failures.getAndDecrement() > 0) {
+                throw CloudWatchException.builder().message("fake").build();
+            }
+            this.requests.add(req);
+            return PutMetricDataResponse.builder().build();
+        }
+
+        /**
+         * All datums received with this name.
+         * @param name Name of the metric
+         * @return Datums
+         */
+        List<MetricDatum> datums(final String name) {
+            return this.requests.stream()
+                .flatMap(req -> req.metricData().stream())
+                .filter(datum -> name.equals(datum.metricName()))
+                .collect(Collectors.toList());
+        }
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+/**
+ * Test case for {@link SharedClient}.
+ * @since 0.0.1
+ */
+final class SharedClientTest {
+
+    /**
+     * SharedClient can stay busy until the stream of a download is closed.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void staysBusyWhileStreaming() throws Exception {
+        final S3Client origin = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength(1L).build(),
+                AbortableInputStream.create(
+                    new ByteArrayInputStream(new byte[1])
+                )
+            )
+        ).when(origin).getObject(
+            Mockito.any(GetObjectRequest.class),
+            Mockito.<ResponseTransformer<GetObjectResponse, ?>>any()
+        );
+        final SharedClient client = new SharedClient(origin);
+        MatcherAssert.assertThat(client.idle(0L), Matchers.is(true));
+        final InputStream stream = client.getObject(
+            GetObjectRequest.builder().bucket("b").key("k").build()
+        );
+        MatcherAssert.assertThat(client.idle(0L), Matchers.is(false));
+        stream.close();
+        stream.close();
+        MatcherAssert.assertThat(client.idle(0L), Matchers.is(true));
+        MatcherAssert.assertThat(
+            client, Matchers.hasToString("0 request(s) in progress")
+        );
+    }
+}
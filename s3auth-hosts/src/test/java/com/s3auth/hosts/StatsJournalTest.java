@@ -0,0 +1,107 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link StatsJournal}.
+ * @since 0.0.1
+ */
+final class StatsJournalTest {
+
+    /**
+     * StatsJournal can sum records across segments and drain them once.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void drainsRecordsOnce(@TempDir final Path dir) throws Exception {
+        try (StatsJournal journal = new StatsJournal(dir, 64)) {
+            for (int idx = 0; idx < 100; ++idx) {
+                journal.put("example.com", new Stats.Simple(3_000_000_000L));
+                journal.put("s3auth.com", new Stats.Simple(1L));
+            }
+            MatcherAssert.assertThat(
+                journal.get("s3auth.com"),
+                Matchers.equalTo(new Stats.Simple(100L, 100L, 1L, 1L))
+            );
+            journal.put("s3auth.com", new Stats.Simple(5L));
+            MatcherAssert.assertThat(
+                journal.all(),
+                Matchers.allOf(
+                    Matchers.hasEntry(
+                        "example.com",
+                        new Stats.Simple(
+                            300_000_000_000L, 100L,
+                            3_000_000_000L, 3_000_000_000L
+                        )
+                    ),
+                    Matchers.hasEntry("s3auth.com", new Stats.Simple(5L))
+                )
+            );
+            journal.acknowledge();
+            MatcherAssert.assertThat(journal.all().size(), Matchers.is(0));
+        }
+    }
+
+    /**
+     * StatsJournal can keep records until they are acknowledged.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void keepsRecordsUntilAcknowledged(@TempDir final Path dir)
+        throws Exception {
+        try (StatsJournal journal = new StatsJournal(dir)) {
+            journal.put("kept.com", new Stats.Simple(9L));
+            journal.all();
+        }
+        try (StatsJournal journal = new StatsJournal(dir)) {
+            MatcherAssert.assertThat(
+                journal.all(),
+                Matchers.hasEntry("kept.com", new Stats.Simple(9L))
+            );
+            journal.acknowledge();
+            MatcherAssert.assertThat(journal.all().size(), Matchers.is(0));
+        }
+    }
+
+    /**
+     * StatsJournal can recover a segment left by a crash, without
+     * a record torn in the middle.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void recoversSegmentLeftByCrash(@TempDir final Path dir)
+        throws Exception {
+        final byte[] name = "crashed.com".getBytes(StandardCharsets.UTF_8);
+        final CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, 42L));
+        final ByteBuffer buf = ByteBuffer.allocate(256);
+        buf.putInt(name.length).put(name).putLong(42L)
+            .putInt((int) crc.getValue());
+        buf.putInt(name.length).put(name).putLong(7L).putInt(0);
+        Files.write(dir.resolve("1-crashed.active"), buf.array());
+        try (StatsJournal journal = new StatsJournal(dir)) {
+            MatcherAssert.assertThat(
+                journal.all(),
+                Matchers.hasEntry("crashed.com", new Stats.Simple(42L))
+            );
+            journal.acknowledge();
+        }
+        MatcherAssert.assertThat(dir.toFile().list(), Matchers.emptyArray());
+    }
+}
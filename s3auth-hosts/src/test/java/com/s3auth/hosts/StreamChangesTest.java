@@ -0,0 +1,227 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorResponse;
+import software.amazon.awssdk.services.dynamodb.model.OperationType;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.Shard;
+import software.amazon.awssdk.services.dynamodb.model.StreamDescription;
+import software.amazon.awssdk.services.dynamodb.model.StreamRecord;
+import software.amazon.awssdk.services.dynamodb.model.StreamSpecification;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClient;
+
+/**
+ * Test case for {@link StreamChanges}.
+ * @since 0.0.1
+ */
+final class StreamChangesTest {
+
+    /**
+     * StreamChanges can give up on a table without a stream, once.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void givesUpWithoutStream() throws Exception {
+        final DynamoDbClient dynamo = Mockito.mock(DynamoDbClient.class);
+        Mockito.doReturn(
+            DescribeTableResponse.builder()
+                .table(TableDescription.builder().tableName("t").build())
+                .build()
+        ).when(dynamo).describeTable(Mockito.any(DescribeTableRequest.class));
+        final DynamoDbStreamsClient streams =
+            Mockito.mock(DynamoDbStreamsClient.class);
+        final StreamChanges changes = new StreamChanges(dynamo, streams, "t");
+        for (int idx = 0; idx < 3; ++idx) {
+            MatcherAssert.assertThat(changes.next(), Matchers.emptyIterable());
+        }
+        MatcherAssert.assertThat(changes.live(), Matchers.is(false));
+        Mockito.verify(dynamo, Mockito.times(1))
+            .describeTable(Mockito.any(DescribeTableRequest.class));
+        Mockito.verifyNoInteractions(streams);
+    }
+
+    /**
+     * StreamChanges can turn records into changes.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void mapsRecordsToChanges() throws Exception {
+        final DynamoDbStreamsClient streams = StreamChangesTest.streams();
+        Mockito.doReturn(
+            GetRecordsResponse.builder()
+                .records(
+                    StreamChangesTest.record(
+                        OperationType.INSERT, "a.com", "a.com"
+                    ),
+                    StreamChangesTest.record(
+                        OperationType.MODIFY, "b.com", "bucket-b"
+                    ),
+                    Record.builder()
+                        .eventName(OperationType.REMOVE)
+                        .dynamodb(
+                            StreamRecord.builder()
+                                .keys(StreamChangesTest.attrs("c.com"))
+                                .build()
+                        )
+                        .build()
+                )
+                .nextShardIterator("it-2")
+                .build()
+        ).when(streams).getRecords(Mockito.any(GetRecordsRequest.class));
+        final StreamChanges changes = new StreamChanges(
+            StreamChangesTest.dynamo(), streams, "t"
+        );
+        MatcherAssert.assertThat(changes.next(), Matchers.nullValue());
+        final List<Changes.Change> batch = new ArrayList<>(0);
+        changes.next().forEach(batch::add);
+        MatcherAssert.assertThat(
+            batch,
+            Matchers.contains(
+                Matchers.hasToString("+a.com"),
+                Matchers.hasToString("+b.com"),
+                Matchers.hasToString("-c.com")
+            )
+        );
+        MatcherAssert.assertThat(
+            batch.get(1).domain().bucket(), Matchers.equalTo("bucket-b")
+        );
+        MatcherAssert.assertThat(
+            batch.get(0).domain().secret(), Matchers.equalTo("secret")
+        );
+        changes.next();
+        Mockito.verify(streams).getRecords(
+            Mockito.argThat(
+                (GetRecordsRequest req) -> "it-2".equals(req.shardIterator())
+            )
+        );
+    }
+
+    /**
+     * StreamChanges can stop reading a shard that is closed.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void stopsReadingClosedShard() throws Exception {
+        final DynamoDbStreamsClient streams = StreamChangesTest.streams();
+        Mockito.doReturn(GetRecordsResponse.builder().build())
+            .when(streams).getRecords(Mockito.any(GetRecordsRequest.class));
+        final StreamChanges changes = new StreamChanges(
+            StreamChangesTest.dynamo(), streams, "t"
+        );
+        changes.next();
+        for (int idx = 0; idx < 3; ++idx) {
+            MatcherAssert.assertThat(changes.next(), Matchers.emptyIterable());
+        }
+        Mockito.verify(streams, Mockito.times(1))
+            .getRecords(Mockito.any(GetRecordsRequest.class));
+        MatcherAssert.assertThat(changes.live(), Matchers.is(true));
+    }
+
+    /**
+     * StreamChanges can stop reading the stream for a while, when it
+     * fails, and be not live meanwhile.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void backsOffAfterFailure() throws Exception {
+        final DynamoDbStreamsClient streams = StreamChangesTest.streams();
+        Mockito.doThrow(DynamoDbException.builder().message("down").build())
+            .when(streams).getRecords(Mockito.any(GetRecordsRequest.class));
+        final DynamoDbClient dynamo = StreamChangesTest.dynamo();
+        final StreamChanges changes = new StreamChanges(dynamo, streams, "t");
+        changes.next();
+        Assertions.assertThrows(IOException.class, changes::next);
+        MatcherAssert.assertThat(changes.live(), Matchers.is(false));
+        for (int idx = 0; idx < 3; ++idx) {
+            MatcherAssert.assertThat(changes.next(), Matchers.emptyIterable());
+        }
+        Mockito.verify(streams, Mockito.times(1))
+            .getRecords(Mockito.any(GetRecordsRequest.class));
+        Mockito.verify(dynamo, Mockito.times(1))
+            .describeTable(Mockito.any(DescribeTableRequest.class));
+    }
+
+    private static DynamoDbClient dynamo() {
+        final DynamoDbClient dynamo = Mockito.mock(DynamoDbClient.class);
+        Mockito.doReturn(
+            DescribeTableResponse.builder()
+                .table(
+                    TableDescription.builder()
+                        .tableName("t")
+                        .latestStreamArn("arn")
+                        .streamSpecification(
+                            StreamSpecification.builder()
+                                .streamEnabled(true)
+                                .build()
+                        )
+                        .build()
+                )
+                .build()
+        ).when(dynamo).describeTable(Mockito.any(DescribeTableRequest.class));
+        return dynamo;
+    }
+
+    private static DynamoDbStreamsClient streams() {
+        final DynamoDbStreamsClient streams =
+            Mockito.mock(DynamoDbStreamsClient.class);
+        Mockito.doReturn(
+            DescribeStreamResponse.builder()
+                .streamDescription(
+                    StreamDescription.builder()
+                        .shards(Shard.builder().shardId("s-1").build())
+                        .build()
+                )
+                .build()
+        ).when(streams).describeStream(Mockito.any(DescribeStreamRequest.class));
+        Mockito.doReturn(
+            GetShardIteratorResponse.builder().shardIterator("it-1").build()
+        ).when(streams).getShardIterator(
+            Mockito.any(GetShardIteratorRequest.class)
+        );
+        return streams;
+    }
+
+    private static Record record(final OperationType type, final String name,
+        final String bucket) {
+        final Map<String, AttributeValue> img =
+            new HashMap<>(StreamChangesTest.attrs(name));
+        img.put(DefaultDynamo.KEY, AttributeValue.fromS("key"));
+        img.put(DefaultDynamo.SECRET, AttributeValue.fromS("secret"));
+        img.put(DefaultDynamo.BUCKET, AttributeValue.fromS(bucket));
+        return Record.builder()
+            .eventName(type)
+            .dynamodb(StreamRecord.builder().newImage(img).build())
+            .build();
+    }
+
+    private static Map<String, AttributeValue> attrs(final String name) {
+        return Collections.singletonMap(
+            DefaultDynamo.NAME, AttributeValue.fromS(name)
+        );
+    }
+}
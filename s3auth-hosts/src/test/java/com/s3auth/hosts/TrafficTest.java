@@ -0,0 +1,129 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link Traffic}.
+ * @since 0.0.1
+ */
+final class TrafficTest {
+
+    /**
+     * Traffic can post accumulated bytes in one batch.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void postsAccumulatedBytesInOneBatch() throws Exception {
+        final DomainStatsData data = Mockito.mock(DomainStatsData.class);
+        try (Traffic traffic = new Traffic(data, new TrafficWindow(), Long.MAX_VALUE)) {
+            traffic.put("a", new Stats.Simple(10L));
+            traffic.put("b", new Stats.Simple(5L));
+            traffic.put("a", new Stats.Simple(20L));
+            Mockito.verify(data, Mockito.never())
+                .put(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+            traffic.flush();
+            final ArgumentCaptor<Map<String, Stats>> batch =
+                ArgumentCaptor.forClass(Map.class);
+            Mockito.verify(data).putAll(batch.capture());
+            MatcherAssert.assertThat(
+                batch.getValue(),
+                Matchers.allOf(
+                    Matchers.hasEntry("a", new Stats.Simple(30L)),
+                    Matchers.hasEntry("b", new Stats.Simple(5L))
+                )
+            );
+            traffic.flush();
+            Mockito.verify(data).putAll(ArgumentMatchers.any());
+        }
+    }
+
+    /**
+     * Traffic can keep bytes when the store fails.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void keepsBytesWhenStoreFails() throws Exception {
+        final DomainStatsData data = Mockito.mock(DomainStatsData.class);
+        Mockito.doThrow(new IOException("down")).doNothing()
+            .when(data).putAll(ArgumentMatchers.any());
+        try (Traffic traffic = new Traffic(data, new TrafficWindow(), Long.MAX_VALUE)) {
+            traffic.put("c", new Stats.Simple(7L));
+            Assertions.assertThrows(IOException.class, traffic::flush);
+            traffic.put("c", new Stats.Simple(1L));
+            traffic.flush();
+            final ArgumentCaptor<Map<String, Stats>> batch =
+                ArgumentCaptor.forClass(Map.class);
+            Mockito.verify(data, Mockito.times(2)).putAll(batch.capture());
+            MatcherAssert.assertThat(
+                batch.getValue(),
+                Matchers.hasEntry("c", new Stats.Simple(8L))
+            );
+        }
+    }
+
+    /**
+     * Traffic can flush what is left when it is closed.
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushesOnClose() throws Exception {
+        final DomainStatsData data = Mockito.mock(DomainStatsData.class);
+        final Traffic traffic =
+            new Traffic(data, new TrafficWindow(), Long.MAX_VALUE);
+        traffic.put("d", new Stats.Simple(3L));
+        traffic.close();
+        final ArgumentCaptor<Map<String, Stats>> batch =
+            ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(data).putAll(batch.capture());
+        MatcherAssert.assertThat(
+            batch.getValue(),
+            Matchers.hasEntry("d", new Stats.Simple(3L))
+        );
+    }
+
+    /**
+     * Traffic can seal the journal when it is closed.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong
+     */
+    @Test
+    void sealsJournalOnClose(@TempDir final Path dir) throws Exception {
+        final Traffic traffic = new Traffic(
+            new StatsJournal(dir), new TrafficWindow(), Long.MAX_VALUE
+        );
+        traffic.put("e", new Stats.Simple(4L));
+        traffic.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            MatcherAssert.assertThat(
+                files.map(Path::toString).collect(Collectors.toList()),
+                Matchers.everyItem(Matchers.endsWith(".sealed"))
+            );
+        }
+        try (StatsJournal journal = new StatsJournal(dir)) {
+            MatcherAssert.assertThat(
+                journal.all(),
+                Matchers.hasEntry("e", new Stats.Simple(4L))
+            );
+        }
+    }
+}
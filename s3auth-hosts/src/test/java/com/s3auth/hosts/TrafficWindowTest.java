@@ -0,0 +1,49 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link TrafficWindow}.
+ * @since 0.0.1
+ */
+final class TrafficWindowTest {
+
+    /**
+     * TrafficWindow can sum traffic of the last week only.
+     */
+    @Test
+    void sumsTrafficOfLastWeek() {
+        final TrafficWindow window = new TrafficWindow();
+        final long now = System.currentTimeMillis();
+        final long day = TimeUnit.DAYS.toMillis(1L);
+        window.add("a.com", 100L, now - 8L * day);
+        window.add("a.com", 10L, now - 6L * day);
+        window.add("a.com", 1L, now);
+        window.add("b.com", 1000L, now);
+        MatcherAssert.assertThat(window.week("a.com", now), Matchers.is(11L));
+        MatcherAssert.assertThat(
+            window.week("a.com", now + 2L * day),
+            Matchers.is(1L)
+        );
+        MatcherAssert.assertThat(window.week("c.com", now), Matchers.is(0L));
+    }
+
+    /**
+     * TrafficWindow can reuse a slot a week later.
+     */
+    @Test
+    void reusesSlotWeekLater() {
+        final TrafficWindow window = new TrafficWindow();
+        final long now = System.currentTimeMillis();
+        window.add("d.com", 7L, now - TimeUnit.DAYS.toMillis(7L));
+        window.add("d.com", 3L, now);
+        MatcherAssert.assertThat(window.week("d.com", now), Matchers.is(3L));
+    }
+}
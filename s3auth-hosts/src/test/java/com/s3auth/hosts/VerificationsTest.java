@@ -0,0 +1,62 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Verifications}.
+ * @since 0.0.1
+ */
+final class VerificationsTest {
+
+    /**
+     * Verifications can remember successful and failed outcomes.
+     */
+    @Test
+    void remembersOutcomes() {
+        final Verifications verified = new Verifications();
+        final AtomicInteger calls = new AtomicInteger();
+        final Htpasswd.Algorithm algo = (hash, password) -> {
+            calls.incrementAndGet();
+            return hash.equals(password);
+        };
+        for (int idx = 0; idx < 3; ++idx) {
+            MatcherAssert.assertThat(
+                verified.matches("secret", "secret", algo),
+                Matchers.is(true)
+            );
+            MatcherAssert.assertThat(
+                verified.matches("secret", "guess", algo),
+                Matchers.is(false)
+            );
+        }
+        MatcherAssert.assertThat(calls.get(), Matchers.is(2));
+        MatcherAssert.assertThat(
+            verified,
+            Matchers.hasToString(Matchers.startsWith("2 verification(s)"))
+        );
+    }
+
+    /**
+     * Verifications can verify again when the hash changes.
+     */
+    @Test
+    void verifiesAgainWhenHashChanges() {
+        final Verifications verified = new Verifications();
+        final Htpasswd.Algorithm algo = String::equals;
+        MatcherAssert.assertThat(
+            verified.matches("old", "old", algo),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            verified.matches("new", "old", algo),
+            Matchers.is(false)
+        );
+    }
+}
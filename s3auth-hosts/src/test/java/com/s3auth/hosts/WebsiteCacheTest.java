@@ -0,0 +1,131 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.hosts;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ErrorDocument;
+import software.amazon.awssdk.services.s3.model.GetBucketWebsiteRequest;
+import software.amazon.awssdk.services.s3.model.GetBucketWebsiteResponse;
+import software.amazon.awssdk.services.s3.model.IndexDocument;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Test case for {@link WebsiteCache}.
+ * @since 0.0.1
+ */
+final class WebsiteCacheTest {
+
+    /**
+     * WebsiteCache can load configuration only once.
+     */
+    @Test
+    void loadsConfigurationOnce() {
+        final S3Client aws = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            GetBucketWebsiteResponse.builder()
+                .indexDocument(IndexDocument.builder().suffix("a.htm").build())
+                .errorDocument(ErrorDocument.builder().key("e.htm").build())
+                .build()
+        ).when(aws).getBucketWebsite(Mockito.any(GetBucketWebsiteRequest.class));
+        final Bucket bucket = new BucketMocker().init().withClient(aws).mock();
+        final WebsiteCache cache = new WebsiteCache();
+        for (int idx = 0; idx < 5; ++idx) {
+            MatcherAssert.assertThat(
+                cache.get(bucket),
+                Matchers.equalTo(new Website("a.htm", "e.htm"))
+            );
+        }
+        Mockito.verify(aws, Mockito.times(1))
+            .getBucketWebsite(Mockito.any(GetBucketWebsiteRequest.class));
+    }
+
+    /**
+     * WebsiteCache can remember that there is no configuration.
+     */
+    @Test
+    void remembersMissingConfiguration() {
+        final S3Client aws = Mockito.mock(S3Client.class);
+        Mockito.doThrow(
+            S3Exception.builder()
+                .message("The specified bucket does not have a website")
+                .statusCode(404)
+                .build()
+        ).when(aws).getBucketWebsite(Mockito.any(GetBucketWebsiteRequest.class));
+        final Bucket bucket = new BucketMocker().init().withClient(aws).mock();
+        final WebsiteCache cache = new WebsiteCache();
+        MatcherAssert.assertThat(cache.get(bucket), Matchers.is(Website.EMPTY));
+        MatcherAssert.assertThat(cache.get(bucket), Matchers.is(Website.EMPTY));
+        Mockito.verify(aws, Mockito.times(1))
+            .getBucketWebsite(Mockito.any(GetBucketWebsiteRequest.class));
+    }
+
+    /**
+     * WebsiteCache can remember that the configuration is forbidden.
+     */
+    @Test
+    void remembersForbiddenConfiguration() {
+        final S3Client aws = Mockito.mock(S3Client.class);
+        Mockito.doThrow(
+            S3Exception.builder()
+                .message("Access denied")
+                .statusCode(403)
+                .build()
+        ).when(aws).getBucketWebsite(Mockito.any(GetBucketWebsiteRequest.class));
+        final Bucket bucket = new BucketMocker().init().withClient(aws).mock();
+        final WebsiteCache cache = new WebsiteCache();
+        MatcherAssert.assertThat(cache.get(bucket), Matchers.is(Website.EMPTY));
+        MatcherAssert.assertThat(cache.get(bucket), Matchers.is(Website.EMPTY));
+        Mockito.verify(aws, Mockito.times(1))
+            .getBucketWebsite(Mockito.any(GetBucketWebsiteRequest.class));
+    }
+
+    /**
+     * WebsiteCache doesn't remember other failures.
+     */
+    @Test
+    void throwsOnServerFailure() {
+        final S3Client aws = Mockito.mock(S3Client.class);
+        Mockito.doThrow(
+            S3Exception.builder()
+                .message("Internal error")
+                .statusCode(500)
+                .build()
+        ).when(aws).getBucketWebsite(Mockito.any(GetBucketWebsiteRequest.class));
+        final Bucket bucket = new BucketMocker().init().withClient(aws).mock();
+        Assertions.assertThrows(
+            S3Exception.class,
+            () -> new WebsiteCache().get(bucket)
+        );
+    }
+
+    /**
+     * WebsiteCache can refresh configuration after a while.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void refreshesConfiguration() throws Exception {
+        final S3Client aws = Mockito.mock(S3Client.class);
+        Mockito.doReturn(
+            GetBucketWebsiteResponse.builder().build(),
+            GetBucketWebsiteResponse.builder()
+                .indexDocument(IndexDocument.builder().suffix("b.htm").build())
+                .build()
+        ).when(aws).getBucketWebsite(Mockito.any(GetBucketWebsiteRequest.class));
+        final Bucket bucket = new BucketMocker().init().withClient(aws).mock();
+        final WebsiteCache cache = new WebsiteCache(
+            MoreExecutors.directExecutor(), 1L, TimeUnit.MILLISECONDS
+        );
+        MatcherAssert.assertThat(cache.get(bucket).suffix(), Matchers.nullValue());
+        TimeUnit.MILLISECONDS.sleep(5L);
+        MatcherAssert.assertThat(cache.get(bucket).suffix(), Matchers.is("b.htm"));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.relay;
+
+import com.google.common.collect.ImmutableList;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.s3auth.hosts.Resource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Objects;
+import javax.ws.rs.core.HttpHeaders;
+
+/**
+ * Resource that sets a cookie.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 0.0.1
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+final class CookieResource implements Resource {
+
+    /**
+     * The underlying resource.
+     */
+    private final transient Resource resource;
+
+    /**
+     * Value of {@code Set-Cookie} header.
+     */
+    private final transient String cookie;
+
+    /**
+     * Public ctor.
+     * @param res The underlying resource
+     * @param value Value of {@code Set-Cookie} header
+     */
+    CookieResource(final Resource res, final String value) {
+        this.resource = res;
+        this.cookie = value;
+    }
+
+    @Override
+    public int status() {
+        return this.resource.status();
+    }
+
+    @Override
+    public long writeTo(final OutputStream stream) throws IOException {
+        return this.resource.writeTo(stream);
+    }
+
+    @Override
+    public Collection<String> headers() throws IOException {
+        return ImmutableList.<String>builder()
+            .addAll(this.resource.headers())
+            .add(String.format("%s: %s", HttpHeaders.SET_COOKIE, this.cookie))
+            .build();
+    }
+
+    @Override
+    public String etag() {
+        return this.resource.etag();
+    }
+
+    @Override
+    public Date lastModified() {
+        return this.resource.lastModified();
+    }
+
+    @Override
+    public String contentType() {
+        return this.resource.contentType();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.resource.close();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.resource, this.cookie);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof CookieResource
+            && Objects.equals(this.resource, ((CookieResource) obj).resource)
+            && Objects.equals(this.cookie, ((CookieResource) obj).cookie);
+    }
+}
@@ -4,16 +4,19 @@
  */
 package com.s3auth.relay;
 
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableSet;
 import com.jcabi.log.Logger;
 import com.jcabi.manifests.Manifests;
 import com.s3auth.hosts.GzipResource;
 import com.s3auth.hosts.Host;
 import com.s3auth.hosts.Hosts;
+import com.s3auth.hosts.Networks;
 import com.s3auth.hosts.Resource;
 import com.s3auth.hosts.Version;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.net.InetAddress;
 import java.net.Socket;
 import java.net.SocketException;
 import java.time.Instant;
@@ -34,6 +37,15 @@ import org.apache.http.client.utils.DateUtils;
  * queue, processing it, and closing the socket. The class is instantiated
  * by {@link HttpFacade} and is executed by Services Executor routinely.
  *
+ * <p>Clients from networks denied in {@code S3Auth-Networks} of the
+ * manifest, comma separated, see {@link Networks}, get 403 before their
+ * requests are even read. Clients denied by the domain itself, see
+ * {@link Host#isBlocked(InetAddress)}, get 403 before authentication.
+ * The address of a client is the peer address of its socket, which is
+ * the address of the load balancer, if there is one in front of the
+ * relay. {@code X-Forwarded-For} is not trusted, since any client may
+ * send it, so networks have to be restricted by the balancer then.
+ *
  * <p>The class is thread-safe.
  *
  * @see HttpFacade
@@ -78,6 +90,16 @@ final class HttpThread {
             .add("application/x-javascript")
             .build();
 
+    /**
+     * Session cookies.
+     */
+    private static final Sessions SESSIONS = new Sessions();
+
+    /**
+     * Networks allowed or denied on all domains.
+     */
+    private static final Networks NETWORKS = HttpThread.networks();
+
     /**
      * Queue of sockets to get from.
      */
@@ -114,6 +136,10 @@ final class HttpThread {
         final long start = System.currentTimeMillis();
         long bytes;
         try {
+            final InetAddress client = socket.getInetAddress();
+            if (!HttpThread.NETWORKS.permits(client)) {
+                throw HttpThread.forbidden(client);
+            }
             final HttpRequest request = HttpRequest.parse(socket);
             final boolean get = "GET".equals(request.method());
             if (get || "HEAD".equals(request.method())) {
@@ -130,7 +156,9 @@ final class HttpThread {
                     );
                 Resource resource = null;
                 try {
-                    resource = HttpThread.resource(this.host(request), request);
+                    resource = HttpThread.resource(
+                        this.host(request, client), request, get, client
+                    );
                     response = response.withHeader(
                         org.apache.http.HttpHeaders.AGE,
                         String.valueOf(
@@ -188,8 +216,9 @@ final class HttpThread {
         return bytes;
     }
 
-    private static Resource resource(final Host host, final HttpRequest request)
-        throws IOException {
+    private static Resource resource(final Host host,
+        final HttpRequest request, final boolean get,
+        final InetAddress client) throws IOException {
         final Version version;
         if (request.parameters().containsKey(HttpThread.ALL_VERSIONS)) {
             version = Version.LIST;
@@ -201,9 +230,17 @@ final class HttpThread {
         } else {
             version = Version.LATEST;
         }
-        Resource resource = host.fetch(
-            request.requestUri(), request.range(), version
-        );
+        Resource resource;
+        if (get) {
+            resource = host.fetch(
+                request.requestUri(), request.range(), version,
+                client.getHostAddress()
+            );
+        } else {
+            resource = host.head(
+                request.requestUri(), request.range(), version
+            );
+        }
         if (request.headers().containsKey(HttpHeaders.IF_NONE_MATCH)) {
             final String etag = request.headers()
                 .get(HttpHeaders.IF_NONE_MATCH)
@@ -221,7 +258,8 @@ final class HttpThread {
             )) {
             throw new HttpException(HttpURLConnection.HTTP_NOT_MODIFIED);
         }
-        if (request.headers().containsKey(HttpHeaders.ACCEPT_ENCODING)
+        if (get
+            && request.headers().containsKey(HttpHeaders.ACCEPT_ENCODING)
             && request.headers().get(HttpHeaders.ACCEPT_ENCODING)
                 .contains("gzip")
             && HttpThread.COMPRESSIBLE.contains(resource.contentType())) {
@@ -230,7 +268,8 @@ final class HttpThread {
         return resource;
     }
 
-    private Host host(final HttpRequest request) throws HttpException {
+    private Host host(final HttpRequest request, final InetAddress client)
+        throws HttpException {
         final Map<String, Collection<String>> headers = request.headers();
         if (!headers.containsKey(HttpHeaders.HOST)) {
             throw new HttpException(
@@ -255,8 +294,11 @@ final class HttpThread {
         if (LocalHost.isIt(domain)) {
             host = new LocalHost();
         } else {
+            final Host found;
+            final boolean blocked;
             try {
-                host = new SecuredHost(this.hosts.find(domain), request);
+                found = this.hosts.find(domain);
+                blocked = found.isBlocked(client);
             } catch (final Hosts.NotFoundException ex) {
                 throw new HttpException(
                     HttpURLConnection.HTTP_NOT_FOUND,
@@ -268,10 +310,32 @@ final class HttpThread {
                     ex
                 );
             }
+            if (blocked) {
+                throw HttpThread.forbidden(client);
+            }
+            host = new SecuredHost(found, request, HttpThread.SESSIONS);
         }
         return host;
     }
 
+    private static HttpException forbidden(final InetAddress client) {
+        return new HttpException(
+            HttpURLConnection.HTTP_FORBIDDEN,
+            String.format("%s is not allowed", client.getHostAddress())
+        );
+    }
+
+    private static Networks networks() {
+        Networks networks = Networks.ANY;
+        if (Manifests.exists("S3Auth-Networks")) {
+            networks = new Networks(
+                Splitter.on(',').trimResults().omitEmptyStrings()
+                    .split(Manifests.read("S3Auth-Networks"))
+            );
+        }
+        return networks;
+    }
+
     private long failure(final HttpException cause, final Socket socket) {
         try {
             final long bytes = cause.response().send(socket);
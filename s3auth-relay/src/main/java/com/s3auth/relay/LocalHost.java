@@ -62,6 +62,12 @@ final class LocalHost implements Host {
         return new Resource.PlainText(output);
     }
 
+    @Override
+    public Resource head(@NotNull final URI uri, @NotNull final Range range,
+        @NotNull final Version version) throws IOException {
+        return this.fetch(uri, range, version);
+    }
+
     @Override
     public boolean isHidden(@NotNull final URI uri) {
         return false;
@@ -7,13 +7,22 @@ package com.s3auth.relay;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
 import com.s3auth.hosts.DynamoHosts;
+import com.s3auth.hosts.Hosts;
+import com.s3auth.hosts.ScheduledCloudWatch;
 import java.util.concurrent.TimeUnit;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 
 /**
  * Main entrance to the system.
+ *
+ * <p>Traffic is posted to CloudWatch every hour. When the JVM stops,
+ * the facade stops accepting connections and the hosts are closed,
+ * so that traffic accumulated in memory is flushed, and posting to
+ * CloudWatch stops.
+ *
  * @since 0.0.1
  */
 @Immutable
@@ -49,8 +58,27 @@ public final class Main {
         } else {
             secured = 443;
         }
-        final HttpFacade facade =
-            HttpFacade.open(new DynamoHosts(), port, secured);
+        final Hosts hosts = new DynamoHosts();
+        final HttpFacade facade = HttpFacade.open(hosts, port, secured);
+        final ScheduledCloudWatch cloudwatch =
+            new ScheduledCloudWatch().schedule();
+        Runtime.getRuntime().addShutdownHook(
+            new Thread(
+                new VerboseRunnable(
+                    () -> {
+                        facade.close();
+                        try {
+                            hosts.close();
+                        } finally {
+                            cloudwatch.close();
+                        }
+                        return null;
+                    },
+                    true
+                ),
+                "shutdown"
+            )
+        );
         facade.listen();
         Logger.warn(Main.class, "started at http://localhost:%d...", port);
         if (options.has("d")) {
@@ -12,8 +12,10 @@ import com.s3auth.hosts.Stats;
 import com.s3auth.hosts.Version;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.net.InetAddress;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.validation.constraints.NotNull;
@@ -25,7 +27,9 @@ import org.apache.commons.codec.binary.Base64;
  *
  * <p>It's a wrapper around {@link Host}, that adds HTTP Basic Auth mechanism
  * to a normal HTTP request processing. The class is instantiated in
- * {@link HttpThread}.
+ * {@link HttpThread}. If {@link Sessions} are enabled, a signed cookie
+ * is set after a successful authorization, and the password is not
+ * verified again while the cookie is valid.
  *
  * <p>The class is immutable and thread-safe.
  *
@@ -52,13 +56,30 @@ final class SecuredHost implements Host {
     private final transient HttpRequest request;
 
     /**
-     * Public ctor.
+     * Session cookies.
+     */
+    private final transient Sessions sessions;
+
+    /**
+     * Public ctor, without sessions.
      * @param hst Original host
      * @param rqst The request
      */
     SecuredHost(@NotNull final Host hst, @NotNull final HttpRequest rqst) {
+        this(hst, rqst, new Sessions("", 0L));
+    }
+
+    /**
+     * Public ctor.
+     * @param hst Original host
+     * @param rqst The request
+     * @param sss Session cookies
+     */
+    SecuredHost(@NotNull final Host hst, @NotNull final HttpRequest rqst,
+        @NotNull final Sessions sss) {
         this.host = hst;
         this.request = rqst;
+        this.sessions = sss;
     }
 
     @Override
@@ -67,16 +88,35 @@ final class SecuredHost implements Host {
     }
 
     @Override
-    @Loggable(value = Loggable.DEBUG, ignore = IOException.class)
     public Resource fetch(@NotNull final URI uri, @NotNull final Range range,
         @NotNull final Version version)throws IOException {
-        final Resource res;
+        return this.fetch(uri, range, version, "");
+    }
+
+    @Override
+    @Loggable(value = Loggable.DEBUG, ignore = IOException.class)
+    public Resource fetch(@NotNull final URI uri, @NotNull final Range range,
+        @NotNull final Version version, @NotNull final String client)
+        throws IOException {
+        String cookie = null;
+        if (this.isHidden(uri)) {
+            cookie = this.secure();
+        }
+        Resource resource = this.host.fetch(uri, range, version, client);
+        if (cookie != null) {
+            resource = new CookieResource(resource, cookie);
+        }
+        return resource;
+    }
+
+    @Override
+    @Loggable(value = Loggable.DEBUG, ignore = IOException.class)
+    public Resource head(@NotNull final URI uri, @NotNull final Range range,
+        @NotNull final Version version) throws IOException {
         if (this.isHidden(uri)) {
-            res = this.secured(uri, range, version);
-        } else {
-            res = this.host.fetch(uri, range, version);
+            this.secure();
         }
-        return res;
+        return this.host.head(uri, range, version);
     }
 
     @Override
@@ -90,6 +130,17 @@ final class SecuredHost implements Host {
         return this.host.authorized(user, password);
     }
 
+    @Override
+    public String credentials(@NotNull final String user) throws IOException {
+        return this.host.credentials(user);
+    }
+
+    @Override
+    public boolean isBlocked(@NotNull final InetAddress address)
+        throws IOException {
+        return this.host.isBlocked(address);
+    }
+
     @Override
     public void close() throws IOException {
         this.host.close();
@@ -105,8 +156,56 @@ final class SecuredHost implements Host {
         return this.host.stats();
     }
 
-    private Resource secured(final URI uri, final Range range,
-        final Version version) throws IOException {
+    private String secure() throws IOException {
+        String cookie = null;
+        if (!this.session()) {
+            cookie = this.sessions.issue(
+                this.host, this.domain(), this.basic(), this.tls()
+            );
+        }
+        return cookie;
+    }
+
+    private boolean session() throws IOException {
+        boolean valid = false;
+        final Collection<String> values =
+            this.request.headers().get(HttpHeaders.COOKIE);
+        if (values != null) {
+            final String prefix = String.format("%s=", Sessions.COOKIE);
+            for (final String value : values) {
+                for (final String pair : value.split(";")) {
+                    final String trimmed = pair.trim();
+                    if (trimmed.startsWith(prefix) && this.sessions.valid(
+                        this.host, this.domain(),
+                        trimmed.substring(prefix.length())
+                    )) {
+                        valid = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return valid;
+    }
+
+    private boolean tls() {
+        final Collection<String> values =
+            this.request.headers().get("X-Forwarded-Proto");
+        return values != null && !values.isEmpty()
+            && "https".equalsIgnoreCase(values.iterator().next().trim());
+    }
+
+    private String domain() {
+        final Collection<String> values =
+            this.request.headers().get(HttpHeaders.HOST);
+        String domain = "";
+        if (values != null && !values.isEmpty()) {
+            domain = values.iterator().next();
+        }
+        return domain;
+    }
+
+    private String basic() throws IOException {
         if (!this.request.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
             throw new HttpException(
                 new HttpResponse()
@@ -152,6 +251,6 @@ final class SecuredHost implements Host {
                     .withBody(this.host.toString())
             );
         }
-        return this.host.fetch(uri, range, version);
+        return parts[0];
     }
 }
@@ -0,0 +1,215 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.relay;
+
+import com.jcabi.manifests.Manifests;
+import com.s3auth.hosts.Host;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Signed session cookies, issued after a successful Basic auth.
+ *
+ * <p>The cookie contains the name of the user, the time it expires and
+ * an HMAC of them together with the domain and the token of the user's
+ * credentials, see {@link Host#credentials(String)}. A request with a
+ * valid cookie is let in with one HMAC check, instead of verifying the
+ * password again. When the credentials of the user change, for example
+ * in {@code .htpasswd}, the token changes and the cookie is not valid
+ * any more.
+ *
+ * <p>The relay itself speaks plain HTTP, so the cookie is marked
+ * {@code Secure} when the request came over HTTPS to the load balancer
+ * in front of it, according to {@code X-Forwarded-Proto}. The header may
+ * be forged, but that only makes the browser keep the cookie to HTTPS.
+ *
+ * <p>Sessions are enabled only if {@code S3Auth-SessionSecret} is set in
+ * the manifest. The secret must be the same on all relays behind the
+ * same load balancer.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 0.0.1
+ */
+final class Sessions {
+
+    /**
+     * Name of the cookie.
+     */
+    static final String COOKIE = "s3auth";
+
+    /**
+     * HMAC algorithm.
+     */
+    private static final String HMAC = "HmacSHA256";
+
+    /**
+     * Separator of cookie parts.
+     */
+    private static final String DOT = ".";
+
+    /**
+     * Secret key of HMAC, or NULL if sessions are disabled.
+     */
+    private final transient SecretKeySpec secret;
+
+    /**
+     * Lifetime of a cookie, in seconds.
+     */
+    private final transient long lifetime;
+
+    /**
+     * Public ctor.
+     */
+    Sessions() {
+        this(Sessions.configured(), TimeUnit.HOURS.toSeconds(1L));
+    }
+
+    /**
+     * Ctor.
+     * @param key Secret key, or empty if sessions are disabled
+     * @param seconds Lifetime of a cookie, in seconds
+     */
+    Sessions(@NotNull final String key, final long seconds) {
+        if (key.isEmpty()) {
+            this.secret = null;
+        } else {
+            this.secret = new SecretKeySpec(
+                key.getBytes(StandardCharsets.UTF_8), Sessions.HMAC
+            );
+        }
+        this.lifetime = seconds;
+    }
+
+    @Override
+    public String toString() {
+        final String text;
+        if (this.secret == null) {
+            text = "sessions disabled";
+        } else {
+            text = String.format("sessions for %d sec", this.lifetime);
+        }
+        return text;
+    }
+
+    /**
+     * Issue a cookie for the user just authorized.
+     * @param host The host
+     * @param domain Name of the domain
+     * @param user Name of the user
+     * @param tls Did the request come over TLS?
+     * @return Value of {@code Set-Cookie} header, or NULL if not issued
+     * @throws IOException If fails
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    String issue(@NotNull final Host host, @NotNull final String domain,
+        @NotNull final String user, final boolean tls) throws IOException {
+        String cookie = null;
+        if (this.secret != null) {
+            final String token = host.credentials(user);
+            if (token != null) {
+                final long expires = TimeUnit.MILLISECONDS.toSeconds(
+                    System.currentTimeMillis()
+                ) + this.lifetime;
+                final String body = String.join(
+                    Sessions.DOT,
+                    Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        user.getBytes(StandardCharsets.UTF_8)
+                    ),
+                    Long.toString(expires)
+                );
+                final String attrs;
+                if (tls) {
+                    attrs = "; Secure";
+                } else {
+                    attrs = "";
+                }
+                cookie = String.format(
+                    "%s=%s%s%s; Max-Age=%d; Path=/; HttpOnly; SameSite=Lax%s",
+                    Sessions.COOKIE, body, Sessions.DOT,
+                    this.sign(domain, body, token), this.lifetime, attrs
+                );
+            }
+        }
+        return cookie;
+    }
+
+    /**
+     * Is this cookie valid?
+     * @param host The host
+     * @param domain Name of the domain
+     * @param value Value of the cookie
+     * @return TRUE if it is valid and not expired
+     * @throws IOException If fails
+     */
+    boolean valid(@NotNull final Host host, @NotNull final String domain,
+        @NotNull final String value) throws IOException {
+        boolean valid = false;
+        final String[] parts = value.split("\\.", -1);
+        if (this.secret != null && parts.length == 3
+            && parts[1].matches("\\d{1,18}")
+            && Long.parseLong(parts[1]) > TimeUnit.MILLISECONDS.toSeconds(
+                System.currentTimeMillis()
+            )) {
+            final String user = Sessions.decode(parts[0]);
+            if (user != null) {
+                final String token = host.credentials(user);
+                valid = token != null && MessageDigest.isEqual(
+                    this.sign(
+                        domain, String.join(Sessions.DOT, parts[0], parts[1]),
+                        token
+                    ).getBytes(StandardCharsets.UTF_8),
+                    parts[2].getBytes(StandardCharsets.UTF_8)
+                );
+            }
+        }
+        return valid;
+    }
+
+    private String sign(final String domain, final String body,
+        final String token) {
+        final Mac mac;
+        try {
+            mac = Mac.getInstance(Sessions.HMAC);
+            mac.init(this.secret);
+        } catch (final GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+        for (final String part : new String[] {domain, body, token}) {
+            mac.update(part.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+            mac.doFinal()
+        );
+    }
+
+    private static String decode(final String part) {
+        String user;
+        try {
+            user = new String(
+                Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8
+            );
+        } catch (final IllegalArgumentException ex) {
+            user = null;
+        }
+        return user;
+    }
+
+    private static String configured() {
+        String key = "";
+        if (Manifests.exists("S3Auth-SessionSecret")) {
+            key = Manifests.read("S3Auth-SessionSecret");
+        }
+        return key;
+    }
+}
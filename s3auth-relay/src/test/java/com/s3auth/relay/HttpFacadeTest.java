@@ -59,7 +59,8 @@ final class HttpFacadeTest {
         ).when(host).fetch(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
-            Mockito.any(Version.class)
+            Mockito.any(Version.class),
+            Mockito.anyString()
         );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -97,7 +98,8 @@ final class HttpFacadeTest {
         ).when(host).fetch(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
-            Mockito.any(Version.class)
+            Mockito.any(Version.class),
+            Mockito.anyString()
         );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -154,7 +156,8 @@ final class HttpFacadeTest {
         ).when(host).fetch(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
-            Mockito.any(Version.class)
+            Mockito.any(Version.class),
+            Mockito.anyString()
         );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -199,7 +202,8 @@ final class HttpFacadeTest {
         ).when(host).fetch(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
-            Mockito.any(Version.class)
+            Mockito.any(Version.class),
+            Mockito.anyString()
         );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -250,7 +254,8 @@ final class HttpFacadeTest {
         ).when(host).fetch(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
-            Mockito.any(Version.class)
+            Mockito.any(Version.class),
+            Mockito.anyString()
         );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -293,7 +298,8 @@ final class HttpFacadeTest {
         ).when(host).fetch(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
-            Mockito.any(Version.class)
+            Mockito.any(Version.class),
+            Mockito.anyString()
         );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -336,7 +342,8 @@ final class HttpFacadeTest {
         ).when(host).fetch(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
-            Mockito.any(Version.class)
+            Mockito.any(Version.class),
+            Mockito.anyString()
         );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -380,7 +387,8 @@ final class HttpFacadeTest {
         ).when(host).fetch(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
-            Mockito.any(Version.class)
+            Mockito.any(Version.class),
+            Mockito.anyString()
         );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -477,7 +485,8 @@ final class HttpFacadeTest {
             .when(host).fetch(
                 Mockito.any(URI.class),
                 Mockito.any(Range.class),
-                Mockito.any(Version.class)
+                Mockito.any(Version.class),
+                Mockito.anyString()
             );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -516,7 +525,8 @@ final class HttpFacadeTest {
             .when(host).fetch(
                 Mockito.any(URI.class),
                 Mockito.any(Range.class),
-                Mockito.any(Version.class)
+                Mockito.any(Version.class),
+                Mockito.anyString()
             );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -549,7 +559,8 @@ final class HttpFacadeTest {
         Mockito.doReturn(resource).when(host).fetch(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
-            Mockito.any(Version.class)
+            Mockito.any(Version.class),
+            Mockito.anyString()
         );
         final Hosts hosts = Mockito.mock(Hosts.class);
         Mockito.doReturn(host).when(hosts).find(Mockito.anyString());
@@ -584,7 +595,7 @@ final class HttpFacadeTest {
                 .withContent("should not appear in body")
                 .mock()
         );
-        Mockito.doReturn(resource).when(host).fetch(
+        Mockito.doReturn(resource).when(host).head(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
             Mockito.any(Version.class)
@@ -610,6 +621,12 @@ final class HttpFacadeTest {
             );
             Mockito.verify(resource, Mockito.never())
                 .writeTo(Mockito.any(OutputStream.class));
+            Mockito.verify(host, Mockito.never()).fetch(
+                Mockito.any(URI.class),
+                Mockito.any(Range.class),
+                Mockito.any(Version.class),
+                Mockito.anyString()
+            );
         } finally {
             facade.close();
         }
@@ -127,6 +127,12 @@ final class SecuredHostTest {
                         throw new UnsupportedOperationException();
                     }
 
+                    @Override
+                    public Resource head(final URI uri, final Range range,
+                        final Version version) {
+                        throw new UnsupportedOperationException();
+                    }
+
                     @Override
                     public void close() {
                         throw new UnsupportedOperationException();
@@ -172,7 +178,8 @@ final class SecuredHostTest {
         Mockito.doReturn(res).when(host).fetch(
             Mockito.any(URI.class),
             Mockito.any(Range.class),
-            Mockito.any(Version.class)
+            Mockito.any(Version.class),
+            Mockito.anyString()
         );
         Mockito.doReturn(true).when(host).authorized(user, password);
         Mockito.doReturn(true).when(host).isHidden(Mockito.any(URI.class));
@@ -223,6 +230,71 @@ final class SecuredHostTest {
         );
     }
 
+    /**
+     * SecuredHost can let in a request with a session cookie.
+     * @throws Exception If something wrong occurs
+     */
+    @Test
+    void acceptsSessionCookie() throws Exception {
+        final Host host = Mockito.mock(Host.class);
+        Mockito.doReturn(Mockito.mock(Resource.class)).when(host).fetch(
+            Mockito.any(URI.class),
+            Mockito.any(Range.class),
+            Mockito.any(Version.class),
+            Mockito.anyString()
+        );
+        Mockito.doReturn(true).when(host).authorized("jeff", "swordfish");
+        Mockito.doReturn(true).when(host).isHidden(Mockito.any(URI.class));
+        Mockito.doReturn("token").when(host).credentials("jeff");
+        final Sessions sessions = new Sessions("secret", 60L);
+        final String header = new SecuredHost(
+            host,
+            HttpRequestMocker.toRequest(
+                SecuredHostTest.text(
+                    "GET / HTTP/1.1",
+                    "Host: e.example.com",
+                    "X-Forwarded-Proto: https",
+                    String.format(
+                        "Authorization: Basic %s",
+                        Base64.encodeBase64String(
+                            "jeff:swordfish".getBytes(StandardCharsets.UTF_8)
+                        )
+                    ),
+                    "", ""
+                )
+            ),
+            sessions
+        ).fetch(URI.create("/a.html"), Range.ENTIRE, Version.LATEST)
+            .headers().iterator().next();
+        MatcherAssert.assertThat(
+            header,
+            Matchers.allOf(
+                Matchers.startsWith("Set-Cookie: "),
+                Matchers.endsWith("; Secure")
+            )
+        );
+        new SecuredHost(
+            host,
+            HttpRequestMocker.toRequest(
+                SecuredHostTest.text(
+                    "GET / HTTP/1.1",
+                    "Host: e.example.com",
+                    String.format(
+                        "Cookie: x=1; %s",
+                        header.substring(
+                            "Set-Cookie: ".length(), header.indexOf(';')
+                        )
+                    ),
+                    "", ""
+                )
+            ),
+            sessions
+        ).fetch(URI.create("/b.html"), Range.ENTIRE, Version.LATEST);
+        Mockito.verify(host, Mockito.times(1)).authorized(
+            Mockito.anyString(), Mockito.anyString()
+        );
+    }
+
     private static String text(final String... lines) {
         return String.join(System.lineSeparator(), lines);
     }
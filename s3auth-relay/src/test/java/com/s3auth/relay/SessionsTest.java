@@ -0,0 +1,109 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.relay;
+
+import com.s3auth.hosts.Host;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link Sessions}.
+ * @since 0.0.1
+ */
+final class SessionsTest {
+
+    /**
+     * Sessions can issue a cookie and accept it back.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void acceptsIssuedCookie() throws Exception {
+        final Host host = Mockito.mock(Host.class);
+        Mockito.doReturn("token").when(host).credentials("jeff");
+        final Sessions sessions = new Sessions("secret", 60L);
+        final String value = SessionsTest.value(
+            sessions.issue(host, "a.example.com", "jeff", false)
+        );
+        MatcherAssert.assertThat(
+            sessions.valid(host, "a.example.com", value),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            sessions.valid(host, "b.example.com", value),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            new Sessions("other", 60L).valid(host, "a.example.com", value),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            sessions.valid(
+                host, "a.example.com", value.replaceFirst("\\.\\d+\\.", ".9.")
+            ),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Sessions can reject a cookie when credentials change.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void rejectsCookieWhenCredentialsChange() throws Exception {
+        final Host host = Mockito.mock(Host.class);
+        Mockito.doReturn("before").when(host).credentials("ann");
+        final Sessions sessions = new Sessions("secret", 60L);
+        final String value = SessionsTest.value(
+            sessions.issue(host, "c.example.com", "ann", false)
+        );
+        Mockito.doReturn("after").when(host).credentials("ann");
+        MatcherAssert.assertThat(
+            sessions.valid(host, "c.example.com", value),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Sessions can issue nothing when disabled.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void issuesNothingWhenDisabled() throws Exception {
+        final Host host = Mockito.mock(Host.class);
+        Mockito.doReturn("token").when(host).credentials("bob");
+        MatcherAssert.assertThat(
+            new Sessions("", 60L)
+                .issue(host, "d.example.com", "bob", false),
+            Matchers.nullValue()
+        );
+    }
+
+    /**
+     * Sessions can mark the cookie secure only over TLS.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void marksCookieSecureOverTls() throws Exception {
+        final Host host = Mockito.mock(Host.class);
+        Mockito.doReturn("token").when(host).credentials("kim");
+        final Sessions sessions = new Sessions("secret", 60L);
+        MatcherAssert.assertThat(
+            sessions.issue(host, "f.example.com", "kim", true),
+            Matchers.endsWith("; Secure")
+        );
+        MatcherAssert.assertThat(
+            sessions.issue(host, "f.example.com", "kim", false),
+            Matchers.not(Matchers.containsString("Secure"))
+        );
+    }
+
+    private static String value(final String header) {
+        return header.substring(
+            header.indexOf('=') + 1, header.indexOf(';')
+        );
+    }
+}
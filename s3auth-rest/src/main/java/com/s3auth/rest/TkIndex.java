@@ -7,10 +7,15 @@ package com.s3auth.rest;
 import com.s3auth.hosts.Domain;
 import com.s3auth.hosts.Hosts;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import org.takes.Request;
 import org.takes.Response;
 import org.takes.Take;
 import org.takes.misc.Href;
+import org.takes.rq.RqHref;
 import org.takes.rs.xe.XeAppend;
 import org.takes.rs.xe.XeChain;
 import org.takes.rs.xe.XeDirectives;
@@ -21,10 +26,34 @@ import org.xembly.Directives;
 
 /**
  * Index page of a logged in user.
+ *
+ * <p>Domains are rendered page by page, ordered by name, with links
+ * to the previous and the next pages, if there are any. A page is
+ * addressed by the name it starts after, or ends before, so that only
+ * the domains of the page are loaded, not all domains of the user,
+ * see {@link Hosts#domains(com.s3auth.hosts.User, String, boolean, int)}.
+ * A page past the last domain, or before the first one, is empty, with
+ * a link back.
+ *
  * @since 0.1
  */
 final class TkIndex implements Take {
 
+    /**
+     * How many domains to render on one page.
+     */
+    private static final int PAGE = 50;
+
+    /**
+     * Query parameter with the name the page starts after.
+     */
+    private static final String AFTER = "after";
+
+    /**
+     * Query parameter with the name the page ends before.
+     */
+    private static final String BEFORE = "before";
+
     /**
      * Hosts.
      */
@@ -40,18 +69,67 @@ final class TkIndex implements Take {
 
     @Override
     public Response act(final Request request) throws IOException {
-        return new RsPage(
-            "/xsl/index.xsl",
-            request,
-            new XeLink("add", "/add"),
+        final Href href = new RqHref.Base(request).href();
+        final String after = TkIndex.param(href, TkIndex.AFTER);
+        final String before = TkIndex.param(href, TkIndex.BEFORE);
+        final boolean forward = before.isEmpty();
+        String from = before;
+        if (forward) {
+            from = after;
+        }
+        final List<Domain> found = this.hosts.domains(
+            new RqUser(request).user(), from, forward, TkIndex.PAGE + 1
+        );
+        final boolean more = found.size() > TkIndex.PAGE;
+        final List<Domain> domains;
+        if (!more) {
+            domains = found;
+        } else if (forward) {
+            domains = found.subList(0, TkIndex.PAGE);
+        } else {
+            domains = found.subList(1, found.size());
+        }
+        final Href self = href.without(TkIndex.AFTER).without(TkIndex.BEFORE);
+        final Collection<XeSource> sources = new LinkedList<>();
+        sources.add(new XeLink("add", "/add"));
+        sources.add(
             new XeAppend(
                 "domains",
-                new XeTransform<>(
-                    this.hosts.domains(new RqUser(request).user()),
-                    TkIndex::source
-                )
+                new XeTransform<>(domains, TkIndex::source)
             )
         );
+        if (forward && !after.isEmpty() || !forward && more) {
+            String first = from;
+            if (!domains.isEmpty()) {
+                first = domains.get(0).name();
+            }
+            sources.add(
+                new XeLink("previous", self.with(TkIndex.BEFORE, first))
+            );
+        }
+        if (forward && more || !forward) {
+            String last = from;
+            if (!domains.isEmpty()) {
+                last = domains.get(domains.size() - 1).name();
+            }
+            sources.add(
+                new XeLink("next", self.with(TkIndex.AFTER, last))
+            );
+        }
+        return new RsPage(
+            "/xsl/index.xsl",
+            request,
+            sources.toArray(new XeSource[0])
+        );
+    }
+
+    private static String param(final Href href, final String name) {
+        final Iterator<String> param = href.param(name).iterator();
+        String value = "";
+        if (param.hasNext()) {
+            value = param.next().trim();
+        }
+        return value;
     }
 
     private static XeSource source(final Domain domain) {
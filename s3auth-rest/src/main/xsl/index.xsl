@@ -23,6 +23,29 @@
         <ul>
           <xsl:apply-templates select="/page/domains/domain"/>
         </ul>
+        <xsl:if test="/page/links/link[@rel='previous' or @rel='next']">
+          <p>
+            <xsl:if test="/page/links/link[@rel='previous']">
+              <a>
+                <xsl:attribute name="href">
+                  <xsl:value-of select="/page/links/link[@rel='previous']/@href"/>
+                </xsl:attribute>
+                <xsl:text>previous page</xsl:text>
+              </a>
+            </xsl:if>
+            <xsl:if test="/page/links/link[@rel='previous'] and /page/links/link[@rel='next']">
+              <xsl:text> | </xsl:text>
+            </xsl:if>
+            <xsl:if test="/page/links/link[@rel='next']">
+              <a>
+                <xsl:attribute name="href">
+                  <xsl:value-of select="/page/links/link[@rel='next']/@href"/>
+                </xsl:attribute>
+                <xsl:text>next page</xsl:text>
+              </a>
+            </xsl:if>
+          </p>
+        </xsl:if>
       </xsl:when>
       <xsl:otherwise>
         <p>
@@ -0,0 +1,161 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026, Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.s3auth.rest;
+
+import com.jcabi.matchers.XhtmlMatchers;
+import com.s3auth.hosts.Domain;
+import com.s3auth.hosts.DomainMocker;
+import com.s3auth.hosts.Hosts;
+import com.s3auth.hosts.User;
+import java.util.HashSet;
+import java.util.Set;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.takes.Take;
+import org.takes.rq.RqFake;
+import org.takes.rq.RqMethod;
+import org.takes.rq.RqWithHeader;
+import org.takes.rs.RsPrint;
+
+/**
+ * Test case for {@link TkIndex}.
+ * @since 0.2
+ */
+final class TkIndexTest {
+
+    /**
+     * TkIndex can render the first page, with a link to the next one.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    void rendersFirstPage() throws Exception {
+        MatcherAssert.assertThat(
+            TkIndexTest.page(TkIndexTest.take(120), "/"),
+            XhtmlMatchers.hasXPaths(
+                "/page[count(domains/domain)=50]",
+                "/page/domains/domain[1][name='d000.com']",
+                "/page/domains/domain[50][name='d049.com']",
+                "/page[not(links/link[@rel='previous'])]",
+                "/page/links/link[@rel='next' and contains(@href,'after=d049.com')]"
+            )
+        );
+    }
+
+    /**
+     * TkIndex can render a page in the middle, with links both ways.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    void rendersMiddlePage() throws Exception {
+        MatcherAssert.assertThat(
+            TkIndexTest.page(TkIndexTest.take(120), "/?after=d049.com"),
+            XhtmlMatchers.hasXPaths(
+                "/page[count(domains/domain)=50]",
+                "/page/domains/domain[1][name='d050.com']",
+                "/page/links/link[@rel='previous' and contains(@href,'before=d050.com')]",
+                "/page/links/link[@rel='next' and contains(@href,'after=d099.com')]"
+            )
+        );
+    }
+
+    /**
+     * TkIndex can render the last page, without a link to the next one.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    void rendersLastPage() throws Exception {
+        MatcherAssert.assertThat(
+            TkIndexTest.page(TkIndexTest.take(120), "/?after=d099.com"),
+            XhtmlMatchers.hasXPaths(
+                "/page[count(domains/domain)=20]",
+                "/page/domains/domain[20][name='d119.com']",
+                "/page/links/link[@rel='previous' and contains(@href,'before=d100.com')]",
+                "/page[not(links/link[@rel='next'])]"
+            )
+        );
+    }
+
+    /**
+     * TkIndex can render a page backward, up to the first domain.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    void rendersPageBackward() throws Exception {
+        MatcherAssert.assertThat(
+            TkIndexTest.page(TkIndexTest.take(120), "/?before=d050.com"),
+            XhtmlMatchers.hasXPaths(
+                "/page[count(domains/domain)=50]",
+                "/page/domains/domain[1][name='d000.com']",
+                "/page/domains/domain[50][name='d049.com']",
+                "/page[not(links/link[@rel='previous'])]",
+                "/page/links/link[@rel='next' and contains(@href,'after=d049.com')]"
+            )
+        );
+    }
+
+    /**
+     * TkIndex can render an empty page out of range, with a link back.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    void rendersPageOutOfRange() throws Exception {
+        MatcherAssert.assertThat(
+            TkIndexTest.page(TkIndexTest.take(120), "/?after=zzz.com"),
+            XhtmlMatchers.hasXPaths(
+                "/page[count(domains/domain)=0]",
+                "/page/links/link[@rel='previous' and contains(@href,'before=zzz.com')]",
+                "/page[not(links/link[@rel='next'])]"
+            )
+        );
+    }
+
+    /**
+     * TkIndex can render a single page without links.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    void rendersSinglePage() throws Exception {
+        MatcherAssert.assertThat(
+            TkIndexTest.page(TkIndexTest.take(50), "/"),
+            XhtmlMatchers.hasXPaths(
+                "/page[count(domains/domain)=50]",
+                "/page[not(links/link[@rel='previous' or @rel='next'])]"
+            )
+        );
+    }
+
+    private static Take take(final int total) throws Exception {
+        final Set<Domain> domains = new HashSet<>(total);
+        for (int idx = 0; idx < total; ++idx) {
+            domains.add(
+                new DomainMocker().init()
+                    .withName(String.format("d%03d.com", idx))
+                    .mock()
+            );
+        }
+        final Hosts hosts = Mockito.mock(Hosts.class);
+        Mockito.doReturn(domains).when(hosts).domains(Mockito.any(User.class));
+        Mockito.doCallRealMethod().when(hosts).domains(
+            Mockito.any(User.class), Mockito.anyString(),
+            Mockito.anyBoolean(), Mockito.anyInt()
+        );
+        return new TkIndex(hosts);
+    }
+
+    private static String page(final Take take, final String uri)
+        throws Exception {
+        return XhtmlMatchers.xhtml(
+            new RsPrint(
+                take.act(
+                    new RqWithHeader(
+                        new RqFake(RqMethod.GET, uri),
+                        "Accept", "application/xml"
+                    )
+                )
+            ).printBody()
+        ).toString();
+    }
+}